@@ -0,0 +1,76 @@
+package com.example.tilesumgame;
+
+import javafx.util.Duration;
+
+/**
+ * Limits the number of animations playing at the same time on the board.
+ * Animations are skipped while the limit is reached, or when moves arrive faster than the animation could play,
+ * e.g. while the solver plays quickly. Used on the JavaFX application thread only.
+ */
+public class AnimationBudget {
+    private final int maxRunning;
+    private int running;
+    private long lastMoveNanos;
+    private long moveIntervalNanos = Long.MAX_VALUE;
+    private long skipped;
+
+    /**
+     * Creates a budget.
+     *
+     * @param maxRunning the maximum number of animations playing at the same time
+     */
+    public AnimationBudget(int maxRunning) {
+        this.maxRunning = maxRunning;
+    }
+
+    /**
+     * Records that a move arrived, to measure how fast moves follow each other.
+     */
+    public void moveArrived() {
+        long now = System.nanoTime();
+        if (lastMoveNanos != 0) {
+            moveIntervalNanos = now - lastMoveNanos;
+        }
+        lastMoveNanos = now;
+    }
+
+    /**
+     * Reserves a slot for an animation. Every successful call must be paired with {@link #finished()}.
+     *
+     * @param duration the length of the animation
+     * @return true if the animation may play, false if it should be skipped
+     */
+    public boolean tryStart(Duration duration) {
+        if (running >= maxRunning || moveIntervalNanos < duration.toMillis() * 1_000_000) {
+            skipped++;
+            return false;
+        }
+        running++;
+        return true;
+    }
+
+    /**
+     * Releases the slot of a finished or stopped animation.
+     */
+    public void finished() {
+        running--;
+    }
+
+    /**
+     * Returns the number of animations playing.
+     *
+     * @return the number of animations
+     */
+    public int getRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the number of animations skipped so far.
+     *
+     * @return the number of skipped animations
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
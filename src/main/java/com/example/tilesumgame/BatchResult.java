@@ -0,0 +1,41 @@
+package com.example.tilesumgame;
+
+/**
+ * Summary of a sequence of moves applied by {@link Board#applyMoves}.
+ * Only the parts requested with the option flags are filled in, the others are null.
+ *
+ * @param applied    the number of moves that changed the board
+ * @param score      the score of the board after the last move
+ * @param won        whether the board holds the 2048 tile after the last move
+ * @param over       whether no move is left after the last move
+ * @param finalState the tile values after the last move, if {@link #FINAL_STATE} was requested
+ * @param stepFlags  the {@link #MOVED}, {@link #MERGED}, {@link #WON} and {@link #OVER} bits of every move, if
+ *                   {@link #STEP_FLAGS} was requested
+ */
+public record BatchResult(int applied, int score, boolean won, boolean over, int[][] finalState, byte[] stepFlags) {
+    /**
+     * Option to return the tile values after the last move.
+     */
+    public static final int FINAL_STATE = 1;
+    /**
+     * Option to return the flags of every move.
+     */
+    public static final int STEP_FLAGS = 2;
+
+    /**
+     * Step flag set when the move changed the board.
+     */
+    public static final byte MOVED = 1;
+    /**
+     * Step flag set when the move merged tiles.
+     */
+    public static final byte MERGED = 2;
+    /**
+     * Step flag set when the board holds the 2048 tile after the move.
+     */
+    public static final byte WON = 4;
+    /**
+     * Step flag set when no move is left after the move.
+     */
+    public static final byte OVER = 8;
+}
@@ -1,48 +1,52 @@
 package com.example.tilesumgame;
 
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import java.net.URL;
+import com.example.tilesumgame.engine.PackedGrid;
+import com.example.tilesumgame.engine.RowEngine;
+import com.example.tilesumgame.engine.RowEngines;
+import com.example.tilesumgame.events.BoardEvent;
+import com.example.tilesumgame.events.BoardEventPublisher;
+import com.example.tilesumgame.metrics.GameMetrics;
+import com.example.tilesumgame.metrics.MoveEvent;
+import com.example.tilesumgame.metrics.SpawnEvent;
+
 import java.util.Random;
-import java.util.logging.Level;
 
 /*
  * Represents the logical game board for the 2048 game of given size.
  * */
 public class Board {
+    private static final int WIN_EXPONENT = 11; // 2048
     private final int[][] grid;
     private final int gridSize;
     private int score;
-    // Logger
-    private static final GameLogger logger = GameLogger.getInstance();
-    // Audio
-    private Clip mergeSound;
+    private int merges; // Merges of the move in progress
+    private final Random random;
+    private final RowEngine rowEngine;
+    private final int[] line; // Reused buffer for the row or column being moved
+    // Metrics, null for boards that are not measured
+    private GameMetrics metrics;
+    // Events
+    private BoardEventPublisher events;
+    private boolean wonPublished;
 
     public Board(int size) {
-        this.grid = new int[size][size];
-        this.gridSize = size;
-        this.score = 0;
-        initializeGrid();
-        loadSoundEffect();
+        this(size, new Random());
     }
 
     /**
-     * Initializes game sound effects.
+     * Creates an empty board spawning tiles from the given random generator, e.g. for reproducible headless games.
+     *
+     * @param size   the number of rows and columns
+     * @param random the random generator for tile spawns
      */
-    private void loadSoundEffect() {
-        try {
-            URL soundURL = getClass().getResource("/sounds/boop.wav");
-            if (soundURL != null) {
-                AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(soundURL);
-                this.mergeSound = AudioSystem.getClip();
-                mergeSound.open(audioInputStream);
-            } else {
-                System.err.println("Sound file not found: /sounds/boop.wav");
-            }
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error loading sound effect: " + e.getMessage());
-        }
+    public Board(int size, Random random) {
+        this.grid = new int[size][size];
+        this.gridSize = size;
+        this.score = 0;
+        this.random = random;
+        this.rowEngine = RowEngines.forSize(size);
+        this.line = new int[size];
+        initializeGrid();
     }
 
     /**
@@ -58,6 +62,61 @@ public class Board {
         return copy;
     }
 
+    /**
+     * Replaces the tiles of the board, e.g. to restore a saved game.
+     *
+     * @param state the values of the tiles, of the same size as the board
+     */
+    public void setBoardState(int[][] state) {
+        if (state.length != gridSize) {
+            throw new IllegalArgumentException("Expected a " + gridSize + "x" + gridSize + " state, got " + state.length + " rows");
+        }
+        for (int i = 0; i < gridSize; i++) {
+            System.arraycopy(state[i], 0, grid[i], 0, gridSize);
+        }
+    }
+
+    /**
+     * Empties the board and sets the score to 0, so the board can be reused for a new game.
+     */
+    public void reset() {
+        initializeGrid();
+        score = 0;
+        publishGameStarted();
+    }
+
+    /**
+     * Publishes the moves, merges, spawns, win and loss of this board from now on, starting with a
+     * {@link BoardEvent.GameStarted} event. Boards without a publisher publish nothing.
+     *
+     * @param publisher the publisher of the events, or null to stop publishing
+     */
+    public void setEventPublisher(BoardEventPublisher publisher) {
+        this.events = publisher;
+        publishGameStarted();
+    }
+
+    /**
+     * Records the latency of moves and spawns into the given metrics and emits their flight recorder events.
+     * Boards record nothing by default, so headless games, server sessions and spectator boards neither skew the
+     * metrics of the played game nor pay for the timing.
+     *
+     * @param metrics the metrics to record into, or null to stop recording
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Publishes the start of a game if the board has a publisher.
+     */
+    private void publishGameStarted() {
+        wonPublished = false;
+        if (events != null) {
+            events.publish(new BoardEvent.GameStarted(gridSize, System.currentTimeMillis()));
+        }
+    }
+
     /**
      * Returns the current score of the game.
      *
@@ -103,14 +162,33 @@ public class Board {
         if (isFull()) {
             return;
         }
-        Random rand = new Random();
+        long start = metrics != null ? System.nanoTime() : 0;
+        SpawnEvent event = metrics != null ? new SpawnEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         int row, col;
         do {
-            row = rand.nextInt(gridSize);
-            col = rand.nextInt(gridSize);
+            row = random.nextInt(gridSize);
+            col = random.nextInt(gridSize);
         } while (grid[row][col] != 0);
-        int value = rand.nextDouble() < 0.9 ? 2 : 4;
+        int value = random.nextDouble() < 0.9 ? 2 : 4;
         grid[row][col] = value;
+        if (metrics != null) {
+            metrics.recordSpawn(System.nanoTime() - start);
+        }
+        if (events != null) {
+            events.publish(new BoardEvent.Spawned(row, col, value));
+            if (!canMove()) {
+                events.publish(new BoardEvent.Lost(score));
+            }
+        }
+        if (event != null && event.shouldCommit()) {
+            event.row = row;
+            event.column = col;
+            event.value = value;
+            event.commit();
+        }
     }
 
     /**
@@ -150,6 +228,51 @@ public class Board {
         return false;
     }
 
+    /**
+     * Checks if moving in the given direction would change the board, without moving.
+     *
+     * @param direction the direction to check
+     * @return true if a tile can slide or merge in the direction, false otherwise.
+     */
+    public boolean canMove(Direction direction) {
+        for (int line = 0; line < gridSize; line++) {
+            for (int index = 1; index < gridSize; index++) {
+                int value = valueAt(direction, line, index);
+                int previous = valueAt(direction, line, index - 1);
+                if (value != 0 && (previous == 0 || previous == value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value at a position along a line, counted from the edge the tiles move towards.
+     *
+     * @param direction the direction of the move
+     * @param line      the row for horizontal moves, the column for vertical moves
+     * @param index     the position along the line
+     * @return the value of the tile
+     */
+    private int valueAt(Direction direction, int line, int index) {
+        return switch (direction) {
+            case LEFT -> grid[line][index];
+            case RIGHT -> grid[line][gridSize - 1 - index];
+            case UP -> grid[index][line];
+            case DOWN -> grid[gridSize - 1 - index][line];
+        };
+    }
+
+    /**
+     * Returns the number of rows and columns of the board.
+     *
+     * @return the size of the board
+     */
+    public int getSize() {
+        return gridSize;
+    }
+
     /**
      * Checks if the game board can merge any tiles and returns the direction.
      *
@@ -195,13 +318,164 @@ public class Board {
         return false;
     }
 
+    /**
+     * Moves the tiles on the game board in the given direction and records the move latency if the board has metrics.
+     *
+     * @param direction the direction to move the tiles
+     * @return true if any tiles were moved, false otherwise.
+     */
+    public boolean move(Direction direction) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        MoveEvent event = metrics != null ? new MoveEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        int previousScore = score;
+        merges = 0;
+        boolean moved = switch (direction) {
+            case LEFT -> move((row, col) -> grid[row][col], (row, col, value) -> grid[row][col] = value);
+            case RIGHT -> move((row, col) -> grid[row][gridSize - 1 - col], (row, col, value) -> grid[row][gridSize - 1 - col] = value);
+            case UP -> move((row, col) -> grid[col][row], (row, col, value) -> grid[col][row] = value);
+            case DOWN -> move((row, col) -> grid[gridSize - 1 - col][row], (row, col, value) -> grid[gridSize - 1 - col][row] = value);
+        };
+        if (metrics != null) {
+            metrics.recordMove(direction, System.nanoTime() - start);
+        }
+        if (moved && events != null) {
+            publishMove(direction, score - previousScore);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.direction = direction.name();
+            event.merges = merges;
+            event.scoreDelta = score - previousScore;
+            event.moved = moved;
+            event.commit();
+        }
+        return moved;
+    }
+
+    /**
+     * Publishes a move that changed the board, its merges and a win reached by them.
+     *
+     * @param direction   the direction of the move
+     * @param scoreGained the score gained by the move
+     */
+    private void publishMove(Direction direction, int scoreGained) {
+        events.publish(new BoardEvent.Moved(direction, scoreGained, score));
+        if (merges == 0) {
+            return;
+        }
+        int maxTile = 0;
+        for (int[] row : grid) {
+            for (int value : row) {
+                maxTile = Math.max(maxTile, value);
+            }
+        }
+        events.publish(new BoardEvent.Merged(merges, maxTile));
+        if (maxTile >= 1 << WIN_EXPONENT && !wonPublished) {
+            wonPublished = true;
+            events.publish(new BoardEvent.Won(score));
+        }
+    }
+
+    /**
+     * Applies a sequence of moves in one call, spawning a tile from the random generator of the board after every move
+     * that changes the board, exactly as {@link #move(Direction)} followed by {@link #spawnTile()} would. The moves are
+     * not recorded in the metrics and publish no events.
+     *
+     * @param moves   the directions to move the tiles in
+     * @param options {@link BatchResult#FINAL_STATE} and {@link BatchResult#STEP_FLAGS} combined with {@code |}
+     * @return the summary of the moves
+     */
+    public BatchResult applyMoves(Direction[] moves, int options) {
+        return applyMoves(moves, null, null, options);
+    }
+
+    /**
+     * Applies a sequence of moves in one call with scripted spawns, e.g. to verify a recorded game.
+     * Move {@code i} that changes the board is followed by a tile of value {@code spawnValues[i]} at cell
+     * {@code spawnCells[i]}, numbered {@code row * size + col}. A negative cell spawns nothing.
+     *
+     * @param moves       the directions to move the tiles in
+     * @param spawnCells  the cell of the spawn after every move
+     * @param spawnValues the value of the spawn after every move
+     * @param options     {@link BatchResult#FINAL_STATE} and {@link BatchResult#STEP_FLAGS} combined with {@code |}
+     * @return the summary of the moves
+     * @throws IllegalArgumentException if the script is shorter than the moves or a spawn is not a 2 or 4 on an empty
+     *                                  cell; the board is left unchanged
+     */
+    public BatchResult applyMoves(Direction[] moves, int[] spawnCells, int[] spawnValues, int options) {
+        if (spawnCells != null && (spawnCells.length < moves.length || spawnValues.length < moves.length)) {
+            throw new IllegalArgumentException("Expected a spawn for each of the " + moves.length + " moves, got "
+                    + spawnCells.length + " cells and " + spawnValues.length + " values");
+        }
+        // Work on a flat copy of exponents so the moves neither allocate nor go through the row lambdas
+        byte[] cells = PackedGrid.fromGrid(grid);
+        int newScore = score;
+        boolean stepFlags = (options & BatchResult.STEP_FLAGS) != 0;
+        byte[] flags = stepFlags ? new byte[moves.length] : null;
+        int applied = 0;
+        for (int i = 0; i < moves.length; i++) {
+            int gained = PackedGrid.move(cells, gridSize, moves[i]);
+            if (gained >= 0) {
+                applied++;
+                newScore += gained;
+                if (spawnCells == null) {
+                    spawnPacked(cells);
+                } else if (spawnCells[i] >= 0) {
+                    int cell = spawnCells[i];
+                    int value = spawnValues[i];
+                    if (cell >= cells.length || cells[cell] != 0 || (value != 2 && value != 4)) {
+                        throw new IllegalArgumentException("Move " + (i + 1) + " cannot spawn a " + value + " at cell "
+                                + cell + ", spawns are a 2 or 4 on an empty cell");
+                    }
+                    cells[cell] = (byte) (value == 2 ? 1 : 2);
+                }
+            }
+            if (stepFlags) {
+                byte flag = gained < 0 ? 0 : gained > 0 ? (byte) (BatchResult.MOVED | BatchResult.MERGED) : BatchResult.MOVED;
+                if (PackedGrid.maxExponent(cells) >= WIN_EXPONENT) {
+                    flag |= BatchResult.WON;
+                }
+                if (!PackedGrid.canMove(cells, gridSize)) {
+                    flag |= BatchResult.OVER;
+                }
+                flags[i] = flag;
+            }
+        }
+        score = newScore;
+        int[][] state = PackedGrid.toGrid(cells, gridSize);
+        for (int row = 0; row < gridSize; row++) {
+            System.arraycopy(state[row], 0, grid[row], 0, gridSize);
+        }
+        return new BatchResult(applied, score, PackedGrid.maxExponent(cells) >= WIN_EXPONENT, !PackedGrid.canMove(cells, gridSize),
+                (options & BatchResult.FINAL_STATE) != 0 ? state : null, flags);
+    }
+
+    /**
+     * Spawns a tile on a flat board, drawing from the random generator the same way {@link #spawnTile()} does.
+     *
+     * @param cells the exponents of the board
+     */
+    private void spawnPacked(byte[] cells) {
+        if (PackedGrid.countEmpty(cells) == 0) {
+            return;
+        }
+        int row, col;
+        do {
+            row = random.nextInt(gridSize);
+            col = random.nextInt(gridSize);
+        } while (cells[gridSize * row + col] != 0);
+        cells[gridSize * row + col] = (byte) (random.nextDouble() < 0.9 ? 1 : 2);
+    }
+
     /**
      * Moves the tiles on the game board to the left.
      *
      * @return true if any tiles were moved, false otherwise.
      */
     public boolean moveLeft() {
-        return move((row, col) -> grid[row][col], (row, col, value) -> grid[row][col] = value);
+        return move(Direction.LEFT);
     }
 
     /**
@@ -210,7 +484,7 @@ public class Board {
      * @return true if any tiles were moved, false otherwise.
      */
     public boolean moveRight() {
-        return move((row, col) -> grid[row][gridSize - 1 - col], (row, col, value) -> grid[row][gridSize - 1 - col] = value);
+        return move(Direction.RIGHT);
     }
 
     /**
@@ -219,7 +493,7 @@ public class Board {
      * @return true if any tiles were moved, false otherwise.
      */
     public boolean moveUp() {
-        return move((row, col) -> grid[col][row], (row, col, value) -> grid[col][row] = value);
+        return move(Direction.UP);
     }
 
     /**
@@ -228,7 +502,7 @@ public class Board {
      * @return true if any tiles were moved, false otherwise.
      */
     public boolean moveDown() {
-        return move((row, col) -> grid[gridSize - 1 - col][row], (row, col, value) -> grid[gridSize - 1 - col][row] = value);
+        return move(Direction.DOWN);
     }
 
     /**
@@ -258,39 +532,20 @@ public class Board {
         boolean moved = false;
         // Move each row of the grid to the direction given by getter and setter
         for (int row = 0; row < gridSize; row++) {
-            int[] newRow = new int[gridSize];
-            int position = 0;
             for (int col = 0; col < gridSize; col++) {
-                int value = getter.getValue(row, col);
-                if (value != 0) {
-                    newRow[position++] = value;
-                }
+                line[col] = getter.getValue(row, col);
             }
-            // Merge adjacent tiles with the same value
-            for (int col = 0; col < gridSize - 1; col++) {
-                if (newRow[col] != 0 && newRow[col] == newRow[col + 1]) {
-                    newRow[col] *= 2;
-                    newRow[col + 1] = 0;
-                    score += newRow[col]; // Increment score by the merged value
-                    moved = true;
-                    // Play merge sound
-                    if (mergeSound != null) {
-                        mergeSound.setFramePosition(0); // Rewind to the beginning
-                        mergeSound.start();
-                    }
-                }
-            }
-            position = 0;
-            int[] finalRow = new int[gridSize];
-            for (int col = 0; col < gridSize; col++) {
-                if (newRow[col] != 0) {
-                    finalRow[position++] = newRow[col];
-                }
+            // Slide and merge adjacent tiles with the same value
+            long outcome = rowEngine.slide(line, gridSize);
+            if (RowEngine.merges(outcome) > 0) {
+                score += RowEngine.score(outcome); // Increment score by the merged values
+                merges += RowEngine.merges(outcome);
+                moved = true;
             }
             // Update the grid with the new row if it is different from the original row
             for (int col = 0; col < gridSize; col++) {
-                if (getter.getValue(row, col) != finalRow[col]) {
-                    setter.setValue(row, col, finalRow[col]);
+                if (getter.getValue(row, col) != line[col]) {
+                    setter.setValue(row, col, line[col]);
                     moved = true;
                 }
             }
@@ -1,9 +1,24 @@
 package com.example.tilesumgame;
 
+import com.example.tilesumgame.ai.ExpectimaxSolver;
+import com.example.tilesumgame.ai.HintService;
+import com.example.tilesumgame.ai.MergeFirstStrategy;
+import com.example.tilesumgame.ai.Strategies;
+import com.example.tilesumgame.ai.Strategy;
+import com.example.tilesumgame.ai.TablebaseStrategy;
+import com.example.tilesumgame.engine.BitBoard;
+import com.example.tilesumgame.events.Backpressure;
+import com.example.tilesumgame.events.BoardEvent;
+import com.example.tilesumgame.events.BoardEventPublisher;
+import com.example.tilesumgame.events.JournalRecorder;
+import com.example.tilesumgame.metrics.FlightRecording;
+import com.example.tilesumgame.metrics.GameMetrics;
+import com.example.tilesumgame.metrics.RenderEvent;
 import javafx.animation.*;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextArea;
@@ -11,13 +26,21 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import javax.management.JMException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 public class Game extends Application {
@@ -30,25 +53,77 @@ public class Game extends Application {
     private static final int BOTTOM_PADDING = 50 + PADDING;
     private static final Insets BUTTON_PADDING = new Insets(10, 20, 10, 20);
     private static final int TILE_SIZE = 100;
+    private static final int MAX_ANIMATIONS = 8;
+    private static final int INPUT_QUEUE_CAPACITY = 4;
+    private static final int MAX_MOVES_PER_PULSE = 2;
+    private static final int MAX_SPECTATOR_BOARDS = 32;
+    private static final int MAX_BUDGET_MILLIS = 60_000;
     private int gridSize = 4;
 
     // Game board components
     private static Board board;
     private Tile[][] tiles;
     private final GridPane gridPane = new GridPane();
+    // Tiles by board size, reused across restarts
+    private final Map<Integer, Tile[][]> tileGrids = new HashMap<>();
+
+    // Scenes are built once and reused. Their window size depends on the board size, so the game and end scenes are
+    // kept per size, and the nodes shared between them are moved into the scene being shown.
+    private Scene mainMenuScene;
+    private Scene highScoresScene;
+    private TextArea scoresArea;
+    private final Map<Integer, Scene> gameScenes = new HashMap<>();
+    private final Map<Integer, Scene> endScenes = new HashMap<>();
+    private final HBox gameButtonBox = new HBox(10);
 
     // Game over and victory components
     private final Text winText = new Text("You win!");
     private final Text gameOverText = new Text("You lose!");
     private final Button restartButton = new Button("Restart");
+    private final Button mainMenuButton = new Button("Main Menu");
+    private final Tile winTile = new Tile(2048, TILE_SIZE);
+    private final Text topScoresTitle = new Text("Top Scores");
+    private final Text topScoresText = new Text();
 
     // Score components
-    private final ScoreDisplay scoreDisplay = new ScoreDisplay();
+    private final AnimationBudget animations = new AnimationBudget(MAX_ANIMATIONS);
+    private final ScoreDisplay scoreDisplay = new ScoreDisplay(animations);
+
+    // Input handling: moves are applied as keys arrive, within a budget per pulse, and the board is rendered once per
+    // pulse, so a pending key waits at most INPUT_QUEUE_CAPACITY / MAX_MOVES_PER_PULSE pulses
+    private InputQueue inputQueue;
+    private int movesThisPulse;
+    private boolean renderPending;
+    private final BitSet spawnedCells = new BitSet(); // Cells spawned since the last render, row * gridSize + col
+    private AnimationTimer renderTimer;
+
+    // Board events: rendering, logging, sound, metrics and the journal subscribe independently, so a slow consumer
+    // never stalls the game loop
+    private final BoardEventPublisher boardEvents = new BoardEventPublisher();
+    private JournalRecorder journal;
+
+    // Performance overlay, toggled with F3
+    private final PerformanceOverlay performanceOverlay = new PerformanceOverlay();
 
     // Solver components
     private final Button solverButton = new Button("Start Solver");
     private Timeline solverTimeline;
     private boolean solverRunning = false;
+    // Built in the background after the first frame, as the evaluation tables take a while to compute
+    private final CompletableFuture<ExpectimaxSolver> solver = new CompletableFuture<>();
+    // Other sizes play from a tablebase file if one was built for them, e.g. tablebase-5x5.bin
+    private final Strategy fallbackStrategy = new TablebaseStrategy(new MergeFirstStrategy());
+    private java.time.Duration solverBudget;
+
+    // Hint components
+    private final Button hintButton = new Button("Hint");
+    private final Text hintText = new Text();
+    private final CompletableFuture<HintService> hintService = new CompletableFuture<>();
+    private java.time.Duration hintBudget;
+    private boolean hintMode = false;
+
+    // Spectator mode, a mosaic of solver games rebuilt every time it is opened
+    private SpectatorView spectatorView;
 
     /**
      * Launches the JavaFX application.
@@ -58,13 +133,65 @@ public class Game extends Application {
     @Override
     public void start(Stage stage) {
         initializeLogger();
-        Scene mainMenuScene = createMainMenu(stage);
+        initializeMetrics();
+        initializeFlightRecording();
+        initializeEvents();
+        initializeSolver();
+        initializeInput(stage);
+        mainMenuScene = createMainMenu(stage);
+        configureGameComponents(stage);
+        configureSolverTimeline(stage);
 
         stage.setTitle("2048 Game");
         stage.setScene(mainMenuScene);
+        mainMenuScene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                mainMenuScene.removePostLayoutPulseListener(this);
+                onFirstFrame();
+            }
+        });
         stage.show();
     }
 
+    /**
+     * Reports the time to the first frame and starts warming up the subsystems not needed for it: the solver and hint
+     * tables, the high scores and the sound effects.
+     */
+    private void onFirstFrame() {
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        GameMetrics.getInstance().recordFirstFrame(millis);
+        logger.log(Level.INFO, "First frame " + millis + " ms after JVM start");
+        solver.completeAsync(() -> {
+            ExpectimaxSolver autoPlaySolver = new ExpectimaxSolver();
+            autoPlaySolver.setMetrics(GameMetrics.getInstance());
+            return autoPlaySolver;
+        });
+        hintService.completeAsync(() -> new HintService(hintBudget));
+        ScoreManager.preloadScores();
+        SoundEffects.preload();
+    }
+
+    /**
+     * Stops the background hint search and writes the flight recording when the application exits.
+     */
+    @Override
+    public void stop() {
+        hintService.thenAccept(HintService::shutdown);
+        if (spectatorView != null) {
+            spectatorView.stop();
+        }
+        FlightRecording.stop();
+        boardEvents.close();
+        if (journal != null) {
+            try {
+                journal.awaitCompletion(java.time.Duration.ofSeconds(1));
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Initializes the game logger with the specified log level from the command line arguments.
      */
@@ -74,6 +201,110 @@ public class Game extends Application {
         logger = GameLogger.getInstance();
     }
 
+    /**
+     * Publishes the game metrics over JMX, so they can be watched in JConsole.
+     */
+    private void initializeMetrics() {
+        try {
+            GameMetrics.getInstance().register();
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Error registering metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a Java Flight Recorder recording of the move, spawn, solver, render and score save events if the
+     * {@code jfr} parameter names a destination file. The recording is written when the application exits.
+     */
+    private void initializeFlightRecording() {
+        String destination = getParameters().getNamed().get("jfr");
+        if (destination == null) {
+            return;
+        }
+        try {
+            FlightRecording.start(Path.of(destination));
+            logger.log(Level.INFO, "Recording game events to " + destination);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Error starting flight recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Subscribes the consumers of board events. Spawned cells are collected for the next render on the JavaFX thread
+     * that moves the board, the log, merge sound and metrics are fed on background threads, and every game is appended
+     * to a journal file if the {@code journal} parameter names one.
+     */
+    private void initializeEvents() {
+        boardEvents.subscribe(event -> {
+            if (event instanceof BoardEvent.Spawned spawned) {
+                spawnedCells.set(spawned.row() * gridSize + spawned.col());
+            }
+        }, Backpressure.BUFFER, BoardEventPublisher.DEFAULT_CAPACITY, Runnable::run);
+        boardEvents.subscribe(event -> logger.log(Level.FINE, "Board event: " + event),
+                Backpressure.DROP, BoardEventPublisher.DEFAULT_CAPACITY);
+        // Only the latest merge is worth a sound, older ones would play too late
+        boardEvents.subscribe(event -> {
+            if (event instanceof BoardEvent.Merged) {
+                SoundEffects.playMerge();
+            }
+        }, Backpressure.LATEST, 1);
+        boardEvents.subscribe(GameMetrics.getInstance()::recordBoardEvent,
+                Backpressure.BUFFER, BoardEventPublisher.DEFAULT_CAPACITY);
+        String destination = getParameters().getNamed().get("journal");
+        if (destination != null) {
+            journal = new JournalRecorder(Path.of(destination));
+            boardEvents.subscribe(journal, Backpressure.BUFFER, BoardEventPublisher.DEFAULT_CAPACITY);
+            logger.log(Level.INFO, "Recording games to " + destination);
+        }
+    }
+
+    /**
+     * Initializes the solver time budget per move in milliseconds from the {@code solverBudget} parameter (1 to
+     * 60000, default 50), and the background hint search with the budget from the {@code hintBudget} parameter (1 to
+     * 60000, default 500). Invalid values are logged and replaced by their defaults.
+     */
+    private void initializeSolver() {
+        solverBudget = java.time.Duration.ofMillis(intParameter("solverBudget", 50, 1, MAX_BUDGET_MILLIS));
+        hintBudget = java.time.Duration.ofMillis(intParameter("hintBudget", 500, 1, MAX_BUDGET_MILLIS));
+    }
+
+    /**
+     * Initializes the input queue with the key repeat policy from the {@code keyRepeat} parameter ({@code queue},
+     * {@code coalesce} or {@code drop}, default {@code coalesce}), and the timer rendering the board once per pulse.
+     * An unknown policy is logged and replaced by the default.
+     *
+     * @param stage the primary stage of the application
+     */
+    private void initializeInput(Stage stage) {
+        String keyRepeat = getParameters().getNamed().getOrDefault("keyRepeat", "coalesce");
+        InputQueue.RepeatPolicy repeatPolicy;
+        try {
+            repeatPolicy = InputQueue.RepeatPolicy.parse(keyRepeat);
+        } catch (IllegalArgumentException _) {
+            logger.log(Level.WARNING, "Invalid keyRepeat " + keyRepeat
+                    + ", expected queue, coalesce or drop, using coalesce");
+            repeatPolicy = InputQueue.RepeatPolicy.COALESCE;
+        }
+        inputQueue = new InputQueue(INPUT_QUEUE_CAPACITY, repeatPolicy);
+        renderTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                movesThisPulse = 0;
+                processInput();
+                if (renderPending) {
+                    renderPending = false;
+                    renderBoard(true, stage);
+                }
+                // Stop requesting pulses once idle. The budget is reset too, otherwise the first key after an idle
+                // period would find it used up and wait for a pulse that was not requested yet
+                if (inputQueue.size() == 0) {
+                    movesThisPulse = 0;
+                    stop();
+                }
+            }
+        };
+    }
+
     /**
      * Creates the game scene with the game board and controls.
      *
@@ -82,41 +313,65 @@ public class Game extends Application {
      */
     private Scene createGameScene(Stage stage) {
         VBox root = new VBox(); // Create a new VBox instance
+        root.setSpacing(5);
+        root.setAlignment(Pos.CENTER);
         int windowSize = TILE_SIZE * gridSize + PADDING;
-        gridPane.setAlignment(Pos.CENTER);
-        gridPane.setHgap(TILE_GAP);
-        gridPane.setVgap(TILE_GAP);
-        Scene scene = new Scene(root, windowSize, windowSize + BOTTOM_PADDING);
-        configureGameComponents(root, stage);
-        configureSolverTimeline(stage);
+        // Stack the performance overlay on top of the game
+        StackPane sceneRoot = new StackPane(root);
+        Scene scene = new Scene(sceneRoot, windowSize, windowSize + BOTTOM_PADDING);
         configureEvents(stage, scene);
 
         return scene;
     }
 
     /**
-     * Configures the game components for display.
+     * Shows the game scene of the current board size, building it on first use and moving the shared game components
+     * into it.
+     *
+     * @param stage the primary stage of the application
+     */
+    private void showGameScene(Stage stage) {
+        Scene scene = gameScenes.computeIfAbsent(gridSize, _ -> createGameScene(stage));
+        StackPane sceneRoot = (StackPane) scene.getRoot();
+        VBox root = (VBox) sceneRoot.getChildren().getFirst();
+        // Hints are computed by the 4x4 solver only
+        hintButton.setDisable(gridSize != BitBoard.SIZE);
+        root.getChildren().setAll(scoreDisplay.getScoreBox(), gridPane, hintText, gameButtonBox);
+        sceneRoot.getChildren().setAll(root, performanceOverlay.getNode());
+        stage.setScene(scene);
+    }
+
+    /**
+     * Configures the game components shared by the game scenes of all board sizes and by the end screens.
      */
-    private void configureGameComponents(VBox root, Stage stage) {
+    private void configureGameComponents(Stage stage) {
         gameOverText.setFont(Font.font(32));
         winText.setFont(Font.font(32));
         restartButton.setPadding(BUTTON_PADDING);
+        restartButton.setOnAction(_ -> restartGame(stage));
+        mainMenuButton.setOnAction(_ -> stage.setScene(mainMenuScene));
+        topScoresTitle.setFont(Font.font(14)); // Use normal font for title
+        topScoresText.setFont(Font.font("Courier New", 14)); // Use monospace font for scores
+
+        gridPane.setAlignment(Pos.CENTER);
+        gridPane.setHgap(TILE_GAP);
+        gridPane.setVgap(TILE_GAP);
 
         // Create the quit button
         Button quitButton = new Button("Quit");
-        quitButton.setOnAction(_ -> stage.setScene(createMainMenu(stage)));
+        quitButton.setOnAction(_ -> stage.setScene(mainMenuScene));
 
         // Create the restart button
         Button restartGameButton = new Button("Restart");
         restartGameButton.setOnAction(_ -> restartGame(stage));
 
-        // Create an HBox to hold the solver and quit buttons
-        HBox buttonBox = new HBox(10, solverButton, restartGameButton, quitButton);
-        buttonBox.setAlignment(Pos.CENTER);
+        hintText.setFont(Font.font(16));
+        solverButton.setOnAction(_ -> toggleSolver());
+        hintButton.setOnAction(_ -> showHint());
 
-        root.setSpacing(5);
-        root.setAlignment(Pos.CENTER);
-        root.getChildren().addAll(scoreDisplay.getScoreBox(), gridPane, buttonBox);
+        // The HBox holds the solver, hint, restart and quit buttons
+        gameButtonBox.getChildren().setAll(solverButton, hintButton, restartGameButton, quitButton);
+        gameButtonBox.setAlignment(Pos.CENTER);
     }
 
     /**
@@ -141,38 +396,102 @@ public class Game extends Application {
     private void configureEvents(Stage stage, Scene scene) {
         // Set up key event handling
         scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
-            boolean moved = false;
-            if (event.getCode() == KeyCode.LEFT) {
-                moved = board.moveLeft();
+            Direction direction = directionOf(event.getCode());
+            if (direction != null) {
+                inputQueue.keyPressed(direction);
+                processInput();
+                renderTimer.start();
                 event.consume(); // Prevent the event from bubbling up and triggering button navigation
-            } else if (event.getCode() == KeyCode.RIGHT) {
-                moved = board.moveRight();
+            } else if (event.getCode() == KeyCode.H) {
+                showHint();
                 event.consume();
-            } else if (event.getCode() == KeyCode.UP) {
-                moved = board.moveUp();
+            } else if (event.getCode() == KeyCode.F3) {
+                performanceOverlay.toggle();
                 event.consume();
-            } else if (event.getCode() == KeyCode.DOWN) {
-                moved = board.moveDown();
+            }
+        });
+        scene.addEventFilter(KeyEvent.KEY_RELEASED, event -> {
+            Direction direction = directionOf(event.getCode());
+            if (direction != null) {
+                inputQueue.keyReleased(direction);
                 event.consume();
             }
-            updateBoard(moved, stage);
         });
+    }
 
-        restartButton.setOnAction(_ -> restartGame(stage));
-        solverButton.setOnAction(_ -> toggleSolver());
+    /**
+     * Returns the move direction of an arrow key.
+     *
+     * @param code the key code
+     * @return the direction, or null if the key is not an arrow key
+     */
+    private static Direction directionOf(KeyCode code) {
+        return switch (code) {
+            case LEFT -> Direction.LEFT;
+            case RIGHT -> Direction.RIGHT;
+            case UP -> Direction.UP;
+            case DOWN -> Direction.DOWN;
+            default -> null;
+        };
+    }
+
+    /**
+     * Applies pending moves from the input queue until the move budget of the pulse is used up. Discards the pending
+     * moves once the game is won or lost, so no move is applied behind the end screen.
+     */
+    private void processInput() {
+        while (movesThisPulse < MAX_MOVES_PER_PULSE) {
+            if (board.hasWon() || !board.canMove()) {
+                inputQueue.clear();
+                return;
+            }
+            Direction direction = inputQueue.poll();
+            if (direction == null) {
+                return;
+            }
+            movesThisPulse++;
+            applyMove(board.move(direction));
+        }
+    }
+
+    /**
+     * Shows the suggested move for the current board and turns on hint mode, which keeps computing hints in the
+     * background after every move.
+     */
+    private void showHint() {
+        if (gridSize != BitBoard.SIZE) {
+            return;
+        }
+        HintService hints = hintService.join();
+        if (!hintMode) {
+            hintMode = true;
+            hints.positionChanged(BitBoard.fromGrid(board.getBoardState()));
+        }
+        Direction hint = hints.getHint();
+        hintText.setText(hint == null ? "No moves left" : "Hint: " + hint + (hints.isReady() ? "" : " (thinking)"));
     }
 
     /**
-     * Restarts the game with a new board and grid.
+     * Restarts the game, resetting the board and grid in place when the board size is unchanged.
      *
      * @param stage the primary stage of the application
      */
     private void restartGame(Stage stage) {
-        board = new Board(gridSize);
-        gridPane.getChildren().clear();
+        hintMode = false;
+        hintText.setText("");
+        inputQueue.clear();
+        spawnedCells.clear();
+        renderPending = false;
+        if (board != null && board.getSize() == gridSize) {
+            board.reset();
+        } else {
+            board = new Board(gridSize);
+            board.setMetrics(GameMetrics.getInstance());
+            board.setEventPublisher(boardEvents);
+        }
         initializeGrid();
         updateBoard(true, stage);
-        stage.setScene(createGameScene(stage)); // Create a new scene with a new VBox root
+        showGameScene(stage);
         stage.show();
     }
 
@@ -217,16 +536,22 @@ public class Game extends Application {
         // Create the high scores button
         Button highScoresButton = new Button("High Scores");
         highScoresButton.setPadding(BUTTON_PADDING);
-        highScoresButton.setOnAction(_ -> stage.setScene(createHighScoresMenu(stage)));
+        highScoresButton.setOnAction(_ -> showHighScores(stage));
+
+        // Create the spectator button
+        Button spectateButton = new Button("Spectate");
+        spectateButton.setPadding(BUTTON_PADDING);
+        spectateButton.setOnAction(_ -> showSpectatorView(stage));
 
         // Create the exit button
         Button exitButton = new Button("Exit");
         exitButton.setPadding(BUTTON_PADDING);
         exitButton.setOnAction(_ -> stage.close());
 
-        mainMenuBox.getChildren().addAll(titleText, sizeSelectionBox, startButton, highScoresButton, exitButton);
+        mainMenuBox.getChildren().addAll(titleText, sizeSelectionBox, startButton, highScoresButton, spectateButton,
+                exitButton);
 
-        return new Scene(mainMenuBox, 400, 300);
+        return new Scene(mainMenuBox, 400, 350);
     }
 
     /**
@@ -266,16 +591,12 @@ public class Game extends Application {
         startButton.setOnAction(_ -> {
             int[] selectedSize = (int[]) sizeSelectionBox.getUserData(); // Retrieve user data
             gridSize = selectedSize[0];
-            board = new Board(gridSize);
-            tiles = new Tile[gridSize][gridSize];
-            initializeGrid();
-            updateBoard(true, stage);
-            stage.setScene(createGameScene(stage));
+            restartGame(stage);
         });
     }
 
     /**
-     * Creates the high scores menu scene with a list of high scores.
+     * Creates the high scores menu scene with a text area for the list of high scores.
      *
      * @param stage the primary stage of the application
      * @return the high scores menu scene
@@ -288,6 +609,29 @@ public class Game extends Application {
         Text titleText = new Text("High Scores");
         titleText.setFont(Font.font(32));
 
+        // Display the scores in a text area
+        scoresArea = new TextArea();
+        scoresArea.setFont(Font.font("Courier New", 14)); // Set monospace font
+        scoresArea.setEditable(false);
+        scoresArea.setPrefHeight(400);
+
+        Button backButton = new Button("Back to Main Menu");
+        backButton.setOnAction(_ -> stage.setScene(mainMenuScene));
+
+        highScoresBox.getChildren().addAll(titleText, scoresArea, backButton);
+
+        return new Scene(highScoresBox, 400, 500);
+    }
+
+    /**
+     * Shows the high scores menu with the current list of high scores.
+     *
+     * @param stage the primary stage of the application
+     */
+    private void showHighScores(Stage stage) {
+        if (highScoresScene == null) {
+            highScoresScene = createHighScoresMenu(stage);
+        }
         List<String> allScores = ScoreManager.loadScores();
         // Format the scores for display as a numbered list in format "1. score: date"
         StringBuilder formattedScores = new StringBuilder();
@@ -297,36 +641,128 @@ public class Game extends Application {
             String date = parts[1];
             formattedScores.append(String.format("%-4s %-10s: %s\n", (i + 1) + ".", score, date));
         }
+        scoresArea.setText(formattedScores.toString());
+        stage.setScene(highScoresScene);
+    }
 
-        // Display the scores in a text area
-        TextArea scoresArea = new TextArea(formattedScores.toString());
-        scoresArea.setFont(Font.font("Courier New", 14)); // Set monospace font
-        scoresArea.setEditable(false);
-        scoresArea.setPrefHeight(400);
-
-        Button backButton = new Button("Back to Main Menu");
-        backButton.setOnAction(_ -> stage.setScene(createMainMenu(stage)));
+    /**
+     * Shows a mosaic of solver games configured by the parameters {@code spectatorBoards} (rows x columns, default
+     * {@code 6x8}), {@code spectatorSize} (default 4), {@code spectatorStrategy} (default {@code merge-first}),
+     * {@code spectatorMoveMs} (minimum time between two moves of a board, default 100), {@code spectatorFps} (default
+     * 30) and {@code spectatorThreads} (default one per processor). Invalid values are logged and replaced by their
+     * defaults. The games stop when leaving the view.
+     * <p>
+     * Spectator boards have no metrics, so they do not skew the metrics or flight recording of the played game.
+     *
+     * @param stage the primary stage of the application
+     */
+    private void showSpectatorView(Stage stage) {
+        int[] boards = spectatorBoards();
+        String strategy = getParameters().getNamed().getOrDefault("spectatorStrategy", "merge-first");
+        if (!Strategies.NAMES.contains(strategy)) {
+            logger.log(Level.WARNING, "Invalid spectatorStrategy " + strategy + ", expected one of " + Strategies.NAMES
+                    + ", using merge-first");
+            strategy = "merge-first";
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        spectatorView = new SpectatorView(
+                boards[0], boards[1],
+                intParameter("spectatorSize", 4, 2, 16),
+                strategy,
+                solverBudget,
+                java.time.Duration.ofMillis(intParameter("spectatorMoveMs", 100, 0, 60_000)),
+                intParameter("spectatorFps", 30, 1, 240),
+                intParameter("spectatorThreads", processors, 1, 4 * processors));
+        Button backButton = new Button("Main Menu");
+        backButton.setOnAction(_ -> {
+            spectatorView.stop();
+            spectatorView = null;
+            stage.setScene(mainMenuScene);
+        });
+        spectatorView.addControls(backButton);
+        spectatorView.getRoot().setPadding(new Insets(0, 0, 10, 0));
+        stage.setScene(new Scene(spectatorView.getRoot()));
+        logger.log(Level.INFO, "Spectating " + boards[0] + "x" + boards[1] + " boards");
+        spectatorView.start();
+    }
 
-        highScoresBox.getChildren().addAll(titleText, scoresArea, backButton);
+    /**
+     * Parses the {@code spectatorBoards} parameter, e.g. {@code 6x8}.
+     *
+     * @return the number of board rows and columns, 6 and 8 if the parameter is missing or invalid
+     */
+    private int[] spectatorBoards() {
+        String value = getParameters().getNamed().get("spectatorBoards");
+        if (value == null) {
+            return new int[]{6, 8};
+        }
+        String[] parts = value.split("x", -1);
+        if (parts.length == 2) {
+            try {
+                int rows = Integer.parseInt(parts[0].trim());
+                int columns = Integer.parseInt(parts[1].trim());
+                if (rows >= 1 && rows <= MAX_SPECTATOR_BOARDS && columns >= 1 && columns <= MAX_SPECTATOR_BOARDS) {
+                    return new int[]{rows, columns};
+                }
+            } catch (NumberFormatException _) {
+                // Falls back to the default below
+            }
+        }
+        logger.log(Level.WARNING, "Invalid spectatorBoards " + value + ", expected rows x columns of 1 to "
+                + MAX_SPECTATOR_BOARDS + ", using 6x8");
+        return new int[]{6, 8};
+    }
 
-        return new Scene(highScoresBox, 400, 500);
+    /**
+     * Reads an integer parameter.
+     *
+     * @param name         the name of the parameter
+     * @param defaultValue the value if the parameter is missing or invalid
+     * @param min          the smallest valid value
+     * @param max          the largest valid value
+     * @return the value of the parameter, or the default if it is missing, not a number or out of range
+     */
+    private int intParameter(String name, int defaultValue, int min, int max) {
+        String value = getParameters().getNamed().get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException _) {
+            // Falls back to the default below
+        }
+        logger.log(Level.WARNING, "Invalid " + name + " " + value + ", expected " + min + " to " + max
+                + ", using " + defaultValue);
+        return defaultValue;
     }
 
     /**
      * Performs an automatic move based on the current board state.
+     * 4x4 boards are searched by the expectimax solver within the time budget, other sizes use the optimal moves of
+     * their tablebase if there is one, otherwise the merge-first strategy. Performed moves are counted as auto-play
+     * moves in the metrics, separately from the solver searches, which hints also run.
      *
      * @return true if a move was performed, false otherwise
      */
     private boolean performAutoMove() {
-        boolean moved;
-        Direction direction = board.canMerge();
-        if (direction != null) {
-            logger.log(Level.FINE, "Can merge to: " + direction);
-            moved = moveBoard(direction);
+        Direction direction;
+        if (gridSize == BitBoard.SIZE) {
+            ExpectimaxSolver expectimax = solver.join();
+            direction = expectimax.bestMove(BitBoard.fromGrid(board.getBoardState()), solverBudget);
+            logger.log(Level.FINE, () -> "Solver chose " + direction + ": " + expectimax.getLastStats());
         } else {
-            moved = tryAllDirections();
+            direction = fallbackStrategy.chooseMove(board);
+            logger.log(Level.FINE, "Fallback strategy chose: " + direction);
         }
-        return moved;
+        if (direction == null || !moveBoard(direction)) {
+            return false;
+        }
+        GameMetrics.getInstance().recordAutoPlayMove();
+        return true;
     }
 
     /*
@@ -336,29 +772,7 @@ public class Game extends Application {
      * @return true if the board was moved, false otherwise
      */
     private boolean moveBoard(Direction direction) {
-        return switch (direction) {
-            case LEFT -> board.moveLeft();
-            case RIGHT -> board.moveRight();
-            case UP -> board.moveUp();
-            case DOWN -> board.moveDown();
-        };
-    }
-
-    /**
-     * Tries all directions to move the board and returns true if the board was moved.
-     *
-     * @return true if the board was moved, false otherwise
-     */
-    private boolean tryAllDirections() {
-        boolean moved = false;
-        for (Direction dir : Direction.values()) {
-            logger.log(Level.FINE, "Cannot merge, moving to: " + dir);
-            moved = moveBoard(dir);
-            if (moved) {
-                break;
-            }
-        }
-        return moved;
+        return board.move(direction);
     }
 
     /**
@@ -368,16 +782,7 @@ public class Game extends Application {
      */
     private void displayGameOver(Stage stage) {
         ScoreManager.saveScore(board.getScore());
-        VBox gameOverBox = new VBox();
-        gameOverBox.setAlignment(Pos.CENTER);
-        gameOverBox.setSpacing(10);
-        Button mainMenuButton = new Button("Main Menu");
-        mainMenuButton.setOnAction(_ -> stage.setScene(createMainMenu(stage)));
-        gameOverBox.getChildren().addAll(gameOverText, scoreDisplay.getScoreBox(), restartButton, mainMenuButton);
-        displayTopScores(gameOverBox);
-        Scene gameOverScene = new Scene(gameOverBox, TILE_SIZE * gridSize + PADDING, TILE_SIZE * gridSize + PADDING);
-        stage.setScene(gameOverScene);
-        stage.show();
+        showEndScene(stage, gameOverText);
     }
 
     /**
@@ -387,19 +792,29 @@ public class Game extends Application {
      */
     private void displayWin(Stage stage) {
         ScoreManager.saveScore(board.getScore());
-        VBox winBox = new VBox();
-        winBox.setAlignment(Pos.CENTER);
-        winBox.setSpacing(10);
-        Button mainMenuButton = new Button("Main Menu");
-        mainMenuButton.setOnAction(_ -> stage.setScene(createMainMenu(stage)));
-
         // Display the 2048 tile
-        Tile winTile = new Tile(2048, TILE_SIZE);
+        showEndScene(stage, winText, winTile.getStack());
+    }
 
-        winBox.getChildren().addAll(winText, winTile.getStack(), scoreDisplay.getScoreBox(), restartButton, mainMenuButton);
-        displayTopScores(winBox);
-        Scene winScene = new Scene(winBox, TILE_SIZE * gridSize + PADDING, TILE_SIZE * gridSize + PADDING);
-        stage.setScene(winScene);
+    /**
+     * Shows the end screen of the current board size with the given heading, the score, the restart and main menu
+     * buttons and the top scores. The end screen of every board size is built once and reused for wins and losses.
+     *
+     * @param stage    the primary stage of the application
+     * @param headings the nodes shown above the score
+     */
+    private void showEndScene(Stage stage, Node... headings) {
+        Scene scene = endScenes.computeIfAbsent(gridSize, _ -> {
+            VBox endBox = new VBox();
+            endBox.setAlignment(Pos.CENTER);
+            endBox.setSpacing(10);
+            return new Scene(endBox, TILE_SIZE * gridSize + PADDING, TILE_SIZE * gridSize + PADDING);
+        });
+        VBox endBox = (VBox) scene.getRoot();
+        endBox.getChildren().setAll(headings);
+        endBox.getChildren().addAll(scoreDisplay.getScoreBox(), restartButton, mainMenuButton);
+        displayTopScores(endBox);
+        stage.setScene(scene);
         stage.show();
     }
 
@@ -415,50 +830,100 @@ public class Game extends Application {
             String[] parts = topScores.get(i).split("\\|");
             formattedScores.append(String.format("%d. %-10s: %s\n", i + 1, parts[0], parts[1]));
         }
-        Text topScoresTitle = new Text("Top Scores");
-        topScoresTitle.setFont(Font.font(14)); // Use normal font for title
-        Text topScoresText = new Text(formattedScores.toString());
-        topScoresText.setFont(Font.font("Courier New", 14)); // Use monospace font for scores
+        topScoresText.setText(formattedScores.toString());
         box.getChildren().addAll(topScoresTitle, topScoresText);
     }
 
     /**
-     * Initializes the visual game tiles based on the current board state.
+     * Initializes the visual game tiles based on the current board state. The tiles of every board size are created
+     * once and only updated on later calls.
      */
     private void initializeGrid() {
-        gridPane.getChildren().clear(); // Clear the GridPane before adding new tiles
         int[][] boardState = board.getBoardState();
+        Tile[][] sizeTiles = tileGrids.get(gridSize);
+        if (sizeTiles == null) {
+            sizeTiles = new Tile[gridSize][gridSize];
+            for (int row = 0; row < gridSize; row++) {
+                for (int col = 0; col < gridSize; col++) {
+                    sizeTiles[row][col] = new Tile(boardState[row][col], TILE_SIZE, animations);
+                }
+            }
+            tileGrids.put(gridSize, sizeTiles);
+        }
+        if (tiles != sizeTiles) {
+            gridPane.getChildren().clear(); // Clear the GridPane before adding the tiles of this size
+            for (int row = 0; row < gridSize; row++) {
+                for (int col = 0; col < gridSize; col++) {
+                    gridPane.add(sizeTiles[row][col].getStack(), col, row);
+                }
+            }
+            tiles = sizeTiles;
+        }
         for (int row = 0; row < gridSize; row++) {
             for (int col = 0; col < gridSize; col++) {
-                Tile tile = new Tile(boardState[row][col], TILE_SIZE);
-                tiles[row][col] = tile;
-                gridPane.add(tile.getStack(), col, row);
+                tiles[row][col].setValue(boardState[row][col]);
             }
         }
     }
 
     /**
-     * Updates the visuals based on the current board state.
+     * Spawns a new tile after a move and updates the visuals right away.
      */
     private void updateBoard(boolean displayChanged, Stage stage) {
-        if (displayChanged) {
-            int[][] preSpawnBoardState = board.getBoardState();
-            logger.log(Level.FINE, board::printGrid);  // Log grid state before a new tile spawns
-            board.spawnTile();
-            logger.log(Level.FINE, board::printGrid);  // Log grid state after a new tile spawns
+        applyMove(displayChanged);
+        renderPending = false;
+        renderBoard(displayChanged, stage);
+    }
+
+    /**
+     * Completes a move on the board by spawning a new tile. The spawned cell reaches the next render as a board event.
+     *
+     * @param moved whether the move changed the board
+     */
+    private void applyMove(boolean moved) {
+        if (!moved) {
+            return;
+        }
+        animations.moveArrived();
+        logger.log(Level.FINE, board::printGrid);  // Log grid state before a new tile spawns
+        board.spawnTile();
+        logger.log(Level.FINE, board::printGrid);  // Log grid state after a new tile spawns
+        renderPending = true;
+    }
 
-            int[][] postSpawnBoardState = board.getBoardState();
+    /**
+     * Updates the visuals based on the current board state.
+     *
+     * @param displayChanged whether the board changed since the last render
+     * @param stage          the primary stage of the application
+     */
+    private void renderBoard(boolean displayChanged, Stage stage) {
+        long start = System.nanoTime();
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        if (displayChanged) {
+            int[][] boardState = board.getBoardState();
             for (int row = 0; row < gridSize; row++) {
                 for (int col = 0; col < gridSize; col++) {
-                    tiles[row][col].setValue(postSpawnBoardState[row][col]);
+                    tiles[row][col].setValue(boardState[row][col]);
                     // Animate the new tile spawn
-                    boolean isNewTile = postSpawnBoardState[row][col] != 0 && preSpawnBoardState[row][col] == 0;
-                    if (isNewTile) {
+                    if (spawnedCells.get(row * gridSize + col) && boardState[row][col] != 0) {
                         tiles[row][col].animateSpawn();
                     }
                 }
             }
+            spawnedCells.clear();
             scoreDisplay.updateScore(board.getScore());
+            if (hintMode) {
+                hintText.setText("");
+                hintService.join().positionChanged(BitBoard.fromGrid(boardState));
+            }
+        }
+        GameMetrics.getInstance().recordUiUpdate(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.gridSize = gridSize;
+            event.boardChanged = displayChanged;
+            event.commit();
         }
         // Check win/lose conditions
         if (board.hasWon()) {
@@ -0,0 +1,131 @@
+package com.example.tilesumgame;
+
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bounded queue of move inputs. Tells key repeats from new presses, since the platform sends repeated
+ * {@code KEY_PRESSED} events without a {@code KEY_RELEASED} in between while a key is held, and collapses repeats
+ * according to a {@link RepeatPolicy}. Inputs arriving while the queue is full are dropped, which bounds the time
+ * between a key press and its move.
+ */
+public class InputQueue {
+    /**
+     * How repeated key presses of a held key are queued.
+     */
+    public enum RepeatPolicy {
+        /**
+         * Every repeat is queued like a new press.
+         */
+        QUEUE,
+        /**
+         * A repeat is queued only when no move is pending, so a held key moves at most as fast as moves are taken.
+         */
+        COALESCE,
+        /**
+         * Repeats are ignored, every move needs a new press.
+         */
+        DROP;
+
+        /**
+         * Parses a policy name, ignoring case.
+         *
+         * @param name the name of the policy, e.g. "coalesce"
+         * @return the policy
+         * @throws IllegalArgumentException if there is no policy of that name
+         */
+        public static RepeatPolicy parse(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final ArrayDeque<Direction> pending;
+    private final int capacity;
+    private final RepeatPolicy repeatPolicy;
+    private final Set<Direction> held = EnumSet.noneOf(Direction.class);
+    private long dropped;
+
+    /**
+     * Creates an input queue.
+     *
+     * @param capacity     the maximum number of pending moves
+     * @param repeatPolicy how repeats of a held key are queued
+     */
+    public InputQueue(int capacity, RepeatPolicy repeatPolicy) {
+        this.pending = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+        this.repeatPolicy = repeatPolicy;
+    }
+
+    /**
+     * Records a key press.
+     *
+     * @param direction the direction of the pressed key
+     * @return true if a move was queued, false if the press was collapsed or dropped
+     */
+    public boolean keyPressed(Direction direction) {
+        boolean repeat = !held.add(direction);
+        if (repeat) {
+            boolean skip = switch (repeatPolicy) {
+                case QUEUE -> false;
+                case COALESCE -> !pending.isEmpty();
+                case DROP -> true;
+            };
+            if (skip) {
+                return false;
+            }
+        }
+        if (pending.size() >= capacity) {
+            dropped++;
+            return false;
+        }
+        pending.addLast(direction);
+        return true;
+    }
+
+    /**
+     * Records a key release, so the next press of the key counts as a new press.
+     *
+     * @param direction the direction of the released key
+     */
+    public void keyReleased(Direction direction) {
+        held.remove(direction);
+    }
+
+    /**
+     * Takes the oldest pending move.
+     *
+     * @return the direction of the move, or null if no move is pending
+     */
+    public Direction poll() {
+        return pending.pollFirst();
+    }
+
+    /**
+     * Forgets the pending moves and held keys, e.g. when a new game starts.
+     */
+    public void clear() {
+        pending.clear();
+        held.clear();
+    }
+
+    /**
+     * Returns the number of pending moves.
+     *
+     * @return the number of moves
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of inputs dropped because the queue was full.
+     *
+     * @return the number of dropped inputs
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
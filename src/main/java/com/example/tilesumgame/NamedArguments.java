@@ -0,0 +1,92 @@
+package com.example.tilesumgame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses named command line arguments in the same {@code --name=value} form JavaFX uses for {@code logLevel},
+ * so headless tools accept the same syntax as the game.
+ */
+public class NamedArguments {
+    private final Map<String, String> named = new HashMap<>();
+
+    /**
+     * Parses the given command line arguments. Arguments without the {@code --name=value} form are ignored.
+     *
+     * @param args the command line arguments
+     */
+    public NamedArguments(String[] args) {
+        this(List.of(args));
+    }
+
+    /**
+     * Parses the given command line arguments. Arguments without the {@code --name=value} form are ignored.
+     *
+     * @param args the command line arguments
+     */
+    public NamedArguments(List<String> args) {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (arg.startsWith("--") && separator > 2) {
+                named.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+    }
+
+    /**
+     * Returns the parsed arguments as a map from name to value.
+     *
+     * @return the named arguments
+     */
+    public Map<String, String> getNamed() {
+        return named;
+    }
+
+    /**
+     * Returns the value of a string argument.
+     *
+     * @param name         the name of the argument
+     * @param defaultValue the value to use when the argument is missing
+     * @return the value of the argument
+     */
+    public String getString(String name, String defaultValue) {
+        return named.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Returns the value of an integer argument.
+     *
+     * @param name         the name of the argument
+     * @param defaultValue the value to use when the argument is missing
+     * @return the value of the argument
+     */
+    public int getInt(String name, int defaultValue) {
+        String value = named.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Returns the value of a long argument.
+     *
+     * @param name         the name of the argument
+     * @param defaultValue the value to use when the argument is missing
+     * @return the value of the argument
+     */
+    public long getLong(String name, long defaultValue) {
+        String value = named.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Returns the value of a floating point argument.
+     *
+     * @param name         the name of the argument
+     * @param defaultValue the value to use when the argument is missing
+     * @return the value of the argument
+     */
+    public double getDouble(String name, double defaultValue) {
+        String value = named.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
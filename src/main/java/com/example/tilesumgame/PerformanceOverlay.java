@@ -0,0 +1,178 @@
+package com.example.tilesumgame;
+
+import com.example.tilesumgame.metrics.GameMetrics;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Toggleable heads-up display with frame timing, move latency, solver speed, heap use and GC pauses.
+ * Frame times are sampled on every pulse into a preallocated ring buffer without allocating. The text is refreshed a
+ * few times per second only.
+ */
+public class PerformanceOverlay {
+    private static final int FRAME_SAMPLES = 240;
+    private static final long REFRESH_INTERVAL_NANOS = 250_000_000L;
+
+    private final StackPane overlay = new StackPane();
+    private final Text text = new Text();
+    private final long[] frameTimes = new long[FRAME_SAMPLES];
+    private final long[] sortedFrameTimes = new long[FRAME_SAMPLES];
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final GameMetrics metrics = GameMetrics.getInstance();
+    private final StringBuilder sb = new StringBuilder(256);
+    private final AnimationTimer timer;
+
+    private int frameCount;
+    private long lastFrame;
+    private long lastRefresh;
+    private long lastGcTime;
+    private long lastGcCount;
+    private long lastAutoPlayMoves;
+
+    /**
+     * Creates a hidden overlay.
+     */
+    public PerformanceOverlay() {
+        text.setFont(Font.font("Courier New", 12));
+        text.setFill(Color.WHITE);
+        overlay.getChildren().add(text);
+        overlay.setPadding(new Insets(6));
+        overlay.setMaxSize(StackPane.USE_PREF_SIZE, StackPane.USE_PREF_SIZE);
+        overlay.setStyle("-fx-background-color: rgba(0, 0, 0, 0.65);");
+        overlay.setMouseTransparent(true);
+        overlay.setVisible(false);
+        StackPane.setAlignment(overlay, Pos.TOP_RIGHT);
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onPulse(now);
+            }
+        };
+    }
+
+    /**
+     * Returns the node to put on top of the game scene.
+     *
+     * @return the overlay node
+     */
+    public StackPane getNode() {
+        return overlay;
+    }
+
+    /**
+     * Shows or hides the overlay. Sampling only runs while it is visible.
+     */
+    public void toggle() {
+        boolean visible = !overlay.isVisible();
+        overlay.setVisible(visible);
+        if (visible) {
+            frameCount = 0;
+            lastFrame = 0;
+            lastRefresh = System.nanoTime();
+            lastGcTime = totalGcTime();
+            lastGcCount = totalGcCount();
+            lastAutoPlayMoves = metrics.getAutoPlayMoveCount();
+            timer.start();
+        } else {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Records the frame time of a pulse and refreshes the text when the refresh interval has passed.
+     *
+     * @param now the timestamp of the pulse in nanoseconds
+     */
+    private void onPulse(long now) {
+        if (lastFrame != 0) {
+            frameTimes[frameCount % FRAME_SAMPLES] = now - lastFrame;
+            frameCount++;
+        }
+        lastFrame = now;
+        if (now - lastRefresh >= REFRESH_INTERVAL_NANOS) {
+            refresh(now);
+        }
+    }
+
+    /**
+     * Recomputes all statistics and updates the text.
+     *
+     * @param now the timestamp of the pulse in nanoseconds
+     */
+    private void refresh(long now) {
+        double seconds = (now - lastRefresh) / 1e9;
+        lastRefresh = now;
+
+        int samples = Math.min(frameCount, FRAME_SAMPLES);
+        System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, samples);
+        Arrays.sort(sortedFrameTimes, 0, samples);
+        long totalFrameTime = 0;
+        for (int i = 0; i < samples; i++) {
+            totalFrameTime += sortedFrameTimes[i];
+        }
+        double fps = totalFrameTime == 0 ? 0 : samples * 1e9 / totalFrameTime;
+
+        long gcTime = totalGcTime();
+        long gcCount = totalGcCount();
+        long autoPlayMoves = metrics.getAutoPlayMoveCount();
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+
+        sb.setLength(0);
+        sb.append(String.format("FPS %5.1f%n", fps));
+        sb.append(String.format("Frame p50/p99/max %.1f/%.1f/%.1f ms%n", frameMillis(samples, 50),
+                frameMillis(samples, 99), frameMillis(samples, 100)));
+        sb.append(String.format("Move p50/p99 %.1f/%.1f us%n", metrics.getMoveLatencyPercentileMicros(50),
+                metrics.getMoveLatencyPercentileMicros(99)));
+        sb.append(String.format("Solver %.1f moves/s, %.2f M nodes/s%n", (autoPlayMoves - lastAutoPlayMoves) / seconds,
+                metrics.getSolverNodesPerSecond() / 1e6));
+        sb.append(String.format("Heap %d / %d MB%n", usedHeap >> 20, runtime.maxMemory() >> 20));
+        sb.append(String.format("GC %d pauses, %d ms in %.2f s", gcCount - lastGcCount, gcTime - lastGcTime, seconds));
+        text.setText(sb.toString());
+
+        lastGcTime = gcTime;
+        lastGcCount = gcCount;
+        lastAutoPlayMoves = autoPlayMoves;
+    }
+
+    /**
+     * Returns a percentile of the sorted frame times.
+     *
+     * @param samples    the number of sorted samples
+     * @param percentile the percentile between 0 and 100
+     * @return the frame time in milliseconds, 0 if there are no samples
+     */
+    private double frameMillis(int samples, double percentile) {
+        if (samples == 0) {
+            return 0;
+        }
+        int index = Math.min(samples - 1, (int) Math.ceil(percentile / 100 * samples) - 1);
+        return sortedFrameTimes[Math.max(0, index)] / 1e6;
+    }
+
+    private long totalGcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    private long totalGcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+}
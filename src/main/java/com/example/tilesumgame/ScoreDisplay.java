@@ -1,6 +1,7 @@
 // src/main/java/com/example/tilesumgame/ScoreDisplay.java
 package com.example.tilesumgame;
 
+import javafx.animation.Animation;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
 import javafx.geometry.Insets;
@@ -13,16 +14,34 @@ import javafx.util.Duration;
 
 /*
  * Displays the current score and animates score changes.
+ * The scale transition and a fixed pool of score change labels are created once and reused.
  */
 public class ScoreDisplay {
+    private static final Duration SCALE_DURATION = Duration.millis(200);
+    private static final Duration FADE_DURATION = Duration.millis(1000);
+    private static final int CHANGE_LABELS = 4;
     private final HBox scoreBox;
     private final Text scoreText;
+    private final AnimationBudget animations;
+    private final ScaleTransition scaleTransition;
+    private final Text[] changeTexts = new Text[CHANGE_LABELS];
+    private final FadeTransition[] fadeTransitions = new FadeTransition[CHANGE_LABELS];
     private int currentScore;
 
     /**
      * Creates a new ScoreDisplay with an initial score of 0.
      */
     public ScoreDisplay() {
+        this(new AnimationBudget(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Creates a new ScoreDisplay with an initial score of 0 whose animations are limited by a budget.
+     *
+     * @param animations the budget limiting the animations
+     */
+    public ScoreDisplay(AnimationBudget animations) {
+        this.animations = animations;
         scoreBox = new HBox();
         scoreBox.setAlignment(Pos.TOP_LEFT);
         scoreBox.setPadding(new Insets(10, 20, 10, 20));
@@ -30,6 +49,32 @@ public class ScoreDisplay {
         scoreText.setFont(Font.font(24));
         scoreBox.getChildren().add(scoreText);
         currentScore = 0;
+
+        scaleTransition = new ScaleTransition(SCALE_DURATION, scoreText);
+        scaleTransition.setFromX(1);
+        scaleTransition.setFromY(1);
+        scaleTransition.setAutoReverse(true);
+        scaleTransition.setCycleCount(2);
+        scaleTransition.setOnFinished(_ -> animations.finished());
+
+        // The labels stay in the box, hidden and left out of the layout while not in use
+        for (int i = 0; i < CHANGE_LABELS; i++) {
+            Text changeText = new Text();
+            changeText.setFont(Font.font(24));
+            changeText.setVisible(false);
+            changeText.setManaged(false);
+            FadeTransition fadeTransition = new FadeTransition(FADE_DURATION, changeText);
+            fadeTransition.setFromValue(1.0);
+            fadeTransition.setToValue(0.0);
+            fadeTransition.setOnFinished(_ -> {
+                changeText.setVisible(false);
+                changeText.setManaged(false);
+                animations.finished();
+            });
+            changeTexts[i] = changeText;
+            fadeTransitions[i] = fadeTransition;
+            scoreBox.getChildren().add(changeText);
+        }
     }
 
     /**
@@ -72,28 +117,30 @@ public class ScoreDisplay {
         double scaleFactor = 1 + Math.min(scoreChange / 100.0, 0.5); // Limit the scale factor to a maximum of 1.5
         int redValue = Math.min(255, scoreChange * 2); // Limit the red value to a maximum of 255
 
-        // Animate the score change by scaling the text
-        ScaleTransition st = new ScaleTransition(Duration.millis(200), scoreText);
-        st.setFromX(1);
-        st.setFromY(1);
-        st.setToX(scaleFactor);
-        st.setToY(scaleFactor);
-        st.setAutoReverse(true);
-        st.setCycleCount(2);
-        st.play();
-
-        // Display the score change above the score text
-        Text scoreChangeText = new Text("+" + scoreChange);
-        scoreChangeText.setFont(Font.font(24));
-        scoreChangeText.setFill(Color.rgb(redValue, 0, 0));
-
-        scoreBox.getChildren().add(scoreChangeText);
+        // Animate the score change by scaling the text, restarting a running animation
+        boolean scaling = scaleTransition.getStatus() == Animation.Status.RUNNING;
+        if (scaling || animations.tryStart(SCALE_DURATION.multiply(2))) {
+            scaleTransition.stop();
+            scaleTransition.setToX(scaleFactor);
+            scaleTransition.setToY(scaleFactor);
+            scaleTransition.playFromStart();
+        }
 
-        // Animate the score change text with a fade transition
-        FadeTransition fadeTransition = new FadeTransition(Duration.millis(1000), scoreChangeText);
-        fadeTransition.setFromValue(1.0);
-        fadeTransition.setToValue(0.0);
-        fadeTransition.setOnFinished(_ -> scoreBox.getChildren().remove(scoreChangeText));
-        fadeTransition.play();
+        // Display the score change next to the score text in a free label, if any
+        for (int i = 0; i < CHANGE_LABELS; i++) {
+            Text changeText = changeTexts[i];
+            if (!changeText.isVisible()) {
+                if (animations.tryStart(FADE_DURATION)) {
+                    changeText.setText("+" + scoreChange);
+                    changeText.setFill(Color.rgb(redValue, 0, 0));
+                    changeText.setOpacity(1.0);
+                    changeText.setVisible(true);
+                    changeText.setManaged(true);
+                    // Animate the score change text with a fade transition
+                    fadeTransitions[i].playFromStart();
+                }
+                return;
+            }
+        }
     }
 }
\ No newline at end of file
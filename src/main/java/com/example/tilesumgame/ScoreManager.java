@@ -1,20 +1,29 @@
 package com.example.tilesumgame;
 
+import com.example.tilesumgame.metrics.GameMetrics;
+import com.example.tilesumgame.metrics.ScoreSaveEvent;
+
 import java.io.*;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 /**
  * Manages the scores of the players in the game.
- * The scores are saved to a file and can be loaded and displayed.
+ * The scores are saved to a file and can be loaded and displayed. The file is read once, in the background, and the
+ * sorted scores are kept in memory afterwards.
  */
 public class ScoreManager {
     private static final String SCORE_FILE = "scores.txt";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final GameLogger logger = GameLogger.getInstance();
+    private static final Comparator<String> BY_SCORE_DESCENDING =
+            Comparator.comparingInt((String entry) -> Integer.parseInt(entry.split("\\|")[0])).reversed();
+    // Sorted scores read from the file, guarded by the class lock
+    private static CompletableFuture<List<String>> scores;
 
     /**
      * Saves the player's score to a file with the current date and time in the format "score|date".
@@ -22,24 +31,76 @@ public class ScoreManager {
      * @param score the player's score to save
      */
     public static void saveScore(int score) {
+        long start = System.nanoTime();
+        ScoreSaveEvent event = new ScoreSaveEvent();
+        event.begin();
         String dateTime = LocalDateTime.now().format(DATE_FORMATTER);
         String scoreEntry = score + "|" + dateTime;
 
         try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(SCORE_FILE), StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
             writer.write(scoreEntry);
             writer.newLine();
+            addToLoadedScores(scoreEntry);
         } catch (IOException e) {
             logger.log(Level.WARNING, "Error saving score: " + e.getMessage());
         }
+        GameMetrics.getInstance().recordScoreSave(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.score = score;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds a saved score to the scores in memory if they were read already. A read still in progress may or may not
+     * see the saved score, so it is discarded and the file read again on the next load.
+     *
+     * @param scoreEntry the saved score in the format "score|date"
+     */
+    private static synchronized void addToLoadedScores(String scoreEntry) {
+        if (scores != null && !scores.isDone()) {
+            scores = null;
+        } else if (scores != null) {
+            scores = scores.thenApply(loaded -> {
+                List<String> updated = new ArrayList<>(loaded);
+                updated.add(scoreEntry);
+                updated.sort(BY_SCORE_DESCENDING);
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Starts reading the scores on a background thread, does nothing if already started.
+     */
+    public static synchronized void preloadScores() {
+        if (scores == null) {
+            scores = CompletableFuture.supplyAsync(ScoreManager::readScores);
+        }
     }
 
     /**
-     * Loads the scores from the file and returns them as a list of strings sorted by score in descending order.
+     * Returns the scores as a list of strings sorted by score in descending order, waiting for them to be read if
+     * needed.
      *
      * @return a sorted list of strings representing the scores in the format "score|date" in descending order
      */
     public static List<String> loadScores() {
-        List<String> scores = new ArrayList<>();
+        CompletableFuture<List<String>> loaded;
+        synchronized (ScoreManager.class) {
+            preloadScores();
+            loaded = scores;
+        }
+        return new ArrayList<>(loaded.join());
+    }
+
+    /**
+     * Reads the scores from the file and sorts them by score in descending order.
+     *
+     * @return a sorted list of strings representing the scores in the format "score|date" in descending order
+     */
+    private static List<String> readScores() {
+        List<String> entries = new ArrayList<>();
         Path scoreFilePath = Paths.get(SCORE_FILE);
         // Create the score file if it does not exist
         if (!Files.exists(scoreFilePath)) {
@@ -50,13 +111,13 @@ public class ScoreManager {
             }
         }
         try {
-            scores = Files.readAllLines(scoreFilePath);
+            entries = Files.readAllLines(scoreFilePath);
             // Sort the scores in descending order
-            scores.sort((a, b) -> Integer.compare(Integer.parseInt(b.split("\\|")[0]), Integer.parseInt(a.split("\\|")[0])));
+            entries.sort(BY_SCORE_DESCENDING);
         } catch (IOException e) {
             logger.log(Level.WARNING, "Error loading scores: " + e.getMessage());
         }
-        return scores;
+        return entries;
     }
 
     /**
@@ -0,0 +1,66 @@
+package com.example.tilesumgame;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Sound effects shared by all boards. The audio is decoded once, in the background, on the first call to
+ * {@link #preload()} or {@link #playMerge()}, so neither startup nor the first move waits for it.
+ */
+public final class SoundEffects {
+    private static final AtomicBoolean loading = new AtomicBoolean();
+    private static volatile Clip mergeSound;
+
+    private SoundEffects() {
+    }
+
+    /**
+     * Starts decoding the sound effects on a background thread, does nothing if already started.
+     */
+    public static void preload() {
+        if (loading.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(SoundEffects::load);
+        }
+    }
+
+    /**
+     * Initializes game sound effects.
+     */
+    private static void load() {
+        try {
+            URL soundURL = SoundEffects.class.getResource("/sounds/boop.wav");
+            if (soundURL != null) {
+                AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(soundURL);
+                Clip clip = AudioSystem.getClip();
+                clip.open(audioInputStream);
+                mergeSound = clip;
+            } else {
+                System.err.println("Sound file not found: /sounds/boop.wav");
+            }
+        } catch (Exception e) {
+            // Decoded on a background thread, possibly before or without logging being initialized
+            GameLogger logger = GameLogger.getInstance();
+            if (logger != null) {
+                logger.log(Level.WARNING, "Error loading sound effect: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Plays the merge sound from the beginning. Stays silent until the sound is decoded.
+     */
+    public static void playMerge() {
+        Clip clip = mergeSound;
+        if (clip == null) {
+            preload();
+            return;
+        }
+        clip.setFramePosition(0); // Rewind to the beginning
+        clip.start();
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.tilesumgame;
+
+import com.example.tilesumgame.ai.Strategies;
+import com.example.tilesumgame.ai.Strategy;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Mosaic of independent solver games side by side, for demos and soak tests of the solvers.
+ * <p>
+ * Every board is played by a strategy on a pool of worker threads, each thread with its own strategy instance. A board
+ * makes at most one move per move interval: its moves are scheduled with a fixed delay, so a slow search only holds up
+ * its own board and overdue moves never pile up. After every move the board publishes an immutable snapshot. All
+ * boards are drawn on one shared {@link Canvas}, at most {@code refreshRate} times per second, and only the boards
+ * whose snapshot changed since the last frame are redrawn. Finished games stay on screen for a moment and then restart.
+ */
+public class SpectatorView {
+    private static final int RUNNING = 0;
+    private static final int WON = 1;
+    private static final int LOST = 2;
+    private static final long RESTART_DELAY_NANOS = 2_000_000_000L;
+    private static final double MAX_WIDTH = 1200;
+    private static final double MAX_HEIGHT = 760;
+    private static final double BOARD_GAP = 6;
+    private static final double MIN_LABEL_TILE = 18;
+
+    private final int columns;
+    private final int boardSize;
+    private final Slot[] slots;
+    private final long[] drawnVersions;
+    private final double boardPixels;
+    private final Canvas canvas;
+    private final Text status = new Text();
+    private final VBox root;
+    private final AnimationTimer timer;
+    private final long frameNanos;
+    private final long moveIntervalMillis;
+    private final int threads;
+    private final ThreadLocal<Strategy> strategies;
+    private final LongAdder movesPlayed = new LongAdder();
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesLost = new LongAdder();
+    private final AtomicInteger bestScore = new AtomicInteger();
+    private ScheduledExecutorService workers;
+    private long lastFrame;
+    private long lastStatus;
+    private long lastMoves;
+
+    /**
+     * An immutable view of a board, published by the worker that moved it.
+     *
+     * @param grid    the tile values
+     * @param state   {@link #RUNNING}, {@link #WON} or {@link #LOST}
+     * @param version increases with every snapshot of the board
+     */
+    private record Snapshot(int[][] grid, int state, long version) {
+    }
+
+    /**
+     * Creates a stopped spectator view.
+     *
+     * @param rows         the number of boards per column
+     * @param columns      the number of boards per row
+     * @param boardSize    the size of every board
+     * @param strategyName the strategy playing the boards, one of {@link Strategies#NAMES}
+     * @param budget       the search time per move for searching strategies
+     * @param moveInterval the minimum time between two moves of a board
+     * @param refreshRate  the maximum number of frames per second
+     * @param threads      the number of worker threads
+     */
+    public SpectatorView(int rows, int columns, int boardSize, String strategyName, Duration budget,
+                         Duration moveInterval, int refreshRate, int threads) {
+        this.columns = columns;
+        this.boardSize = boardSize;
+        this.threads = threads;
+        this.moveIntervalMillis = Math.max(1, moveInterval.toMillis());
+        this.frameNanos = 1_000_000_000L / Math.max(1, refreshRate);
+        Random seeds = new Random();
+        // Strategies keep state such as search caches, so every worker thread gets its own instance
+        this.strategies = ThreadLocal.withInitial(() -> Strategies.create(strategyName, seeds.nextLong(), budget));
+        this.slots = new Slot[rows * columns];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(seeds.nextLong());
+        }
+        this.drawnVersions = new long[slots.length];
+        this.boardPixels = Math.floor(Math.min((MAX_WIDTH - BOARD_GAP) / columns, (MAX_HEIGHT - BOARD_GAP) / rows)
+                - BOARD_GAP);
+        this.canvas = new Canvas(columns * (boardPixels + BOARD_GAP) + BOARD_GAP,
+                rows * (boardPixels + BOARD_GAP) + BOARD_GAP);
+        status.setFont(Font.font("Courier New", 13));
+        this.root = new VBox(5, canvas, status);
+        root.setAlignment(Pos.CENTER);
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onPulse(now);
+            }
+        };
+    }
+
+    /**
+     * Returns the node holding the canvas and the status line.
+     *
+     * @return the root node of the view
+     */
+    public VBox getRoot() {
+        return root;
+    }
+
+    /**
+     * Adds nodes below the status line, e.g. buttons leaving the view.
+     *
+     * @param nodes the nodes to add
+     */
+    public void addControls(Node... nodes) {
+        root.getChildren().addAll(nodes);
+    }
+
+    /**
+     * Starts playing and drawing the boards. Moves of different boards are spread over the first move interval.
+     */
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "spectator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < slots.length; i++) {
+            long initialDelay = moveIntervalMillis * i / slots.length;
+            workers.scheduleWithFixedDelay(slots[i], initialDelay, moveIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        graphics.setFill(Color.WHITESMOKE);
+        graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        Arrays.fill(drawnVersions, -1);
+        lastFrame = 0;
+        timer.start();
+    }
+
+    /**
+     * Stops playing and drawing the boards.
+     */
+    public void stop() {
+        timer.stop();
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    /**
+     * Redraws the boards with new snapshots if the last frame is older than the frame interval, and refreshes the
+     * status line once per second.
+     *
+     * @param now the time of the pulse in nanoseconds
+     */
+    private void onPulse(long now) {
+        if (now - lastFrame < frameNanos) {
+            return;
+        }
+        lastFrame = now;
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        for (int i = 0; i < slots.length; i++) {
+            Snapshot snapshot = slots[i].snapshot;
+            if (snapshot.version() != drawnVersions[i]) {
+                drawnVersions[i] = snapshot.version();
+                drawBoard(graphics, i / columns, i % columns, snapshot);
+            }
+        }
+        if (now - lastStatus >= 1_000_000_000L) {
+            long moves = movesPlayed.sum();
+            double seconds = lastStatus == 0 ? 1 : (now - lastStatus) / 1e9;
+            status.setText(String.format(Locale.ROOT,
+                    "%d boards %dx%d | %.0f moves/s | %d won, %d lost | best score %d",
+                    slots.length, boardSize, boardSize, (moves - lastMoves) / seconds, gamesWon.sum(),
+                    gamesLost.sum(), bestScore.get()));
+            lastStatus = now;
+            lastMoves = moves;
+        }
+    }
+
+    /**
+     * Draws one board of the mosaic. Tile values are written only when the tiles are large enough to read them.
+     *
+     * @param graphics the canvas graphics
+     * @param row      the row of the board in the mosaic
+     * @param column   the column of the board in the mosaic
+     * @param snapshot the board to draw
+     */
+    private void drawBoard(GraphicsContext graphics, int row, int column, Snapshot snapshot) {
+        double x = BOARD_GAP + column * (boardPixels + BOARD_GAP);
+        double y = BOARD_GAP + row * (boardPixels + BOARD_GAP);
+        double tileGap = Math.max(1, boardPixels / boardSize / 16);
+        double tilePixels = (boardPixels - tileGap) / boardSize - tileGap;
+        graphics.setFill(Color.DARKGRAY);
+        graphics.fillRect(x, y, boardPixels, boardPixels);
+        boolean labels = tilePixels >= MIN_LABEL_TILE;
+        if (labels) {
+            graphics.setFont(Font.font(tilePixels / 3));
+            graphics.setTextAlign(TextAlignment.CENTER);
+            graphics.setTextBaseline(VPos.CENTER);
+        }
+        int[][] grid = snapshot.grid();
+        for (int r = 0; r < boardSize; r++) {
+            for (int c = 0; c < boardSize; c++) {
+                double tileX = x + tileGap + c * (tilePixels + tileGap);
+                double tileY = y + tileGap + r * (tilePixels + tileGap);
+                graphics.setFill(Tile.getColorForValue(grid[r][c]));
+                graphics.fillRect(tileX, tileY, tilePixels, tilePixels);
+                if (labels && grid[r][c] != 0) {
+                    graphics.setFill(Color.BLACK);
+                    graphics.fillText(Integer.toString(grid[r][c]), tileX + tilePixels / 2, tileY + tilePixels / 2,
+                            tilePixels);
+                }
+            }
+        }
+        if (snapshot.state() != RUNNING) {
+            graphics.setFill(snapshot.state() == WON ? Color.rgb(0, 160, 0, 0.35) : Color.rgb(0, 0, 0, 0.45));
+            graphics.fillRect(x, y, boardPixels, boardPixels);
+        }
+    }
+
+    /**
+     * One board of the mosaic. It is only touched by the worker running its scheduled move, one at a time, and read by
+     * the JavaFX thread through its snapshot.
+     */
+    private final class Slot implements Runnable {
+        private final Random random;
+        private Board board;
+        private long version;
+        private long finishedAt;
+        private volatile Snapshot snapshot;
+
+        /**
+         * Creates a slot with a new game.
+         *
+         * @param seed the seed of the tile spawns
+         */
+        Slot(long seed) {
+            random = new Random(seed);
+            newGame();
+        }
+
+        /**
+         * Makes one move, or restarts the game once a finished game was shown long enough.
+         */
+        @Override
+        public void run() {
+            try {
+                if (snapshot.state() != RUNNING) {
+                    if (System.nanoTime() - finishedAt >= RESTART_DELAY_NANOS) {
+                        newGame();
+                    }
+                    return;
+                }
+                Direction direction = strategies.get().chooseMove(board);
+                if (direction != null && board.move(direction)) {
+                    board.spawnTile();
+                    movesPlayed.increment();
+                }
+                int state = board.hasWon() ? WON : direction == null || !board.canMove() ? LOST : RUNNING;
+                if (state != RUNNING) {
+                    finishedAt = System.nanoTime();
+                    (state == WON ? gamesWon : gamesLost).increment();
+                    bestScore.accumulateAndGet(board.getScore(), Math::max);
+                }
+                publish(state);
+            } catch (RuntimeException e) {
+                // An exception would cancel the scheduled moves of this board for good, so the game is ended instead
+                GameLogger logger = GameLogger.getInstance();
+                if (logger != null) {
+                    logger.log(Level.WARNING, "Spectator board failed: " + e);
+                }
+                finishedAt = System.nanoTime();
+                publish(LOST);
+            }
+        }
+
+        /**
+         * Starts a new game with a single tile.
+         */
+        private void newGame() {
+            board = new Board(boardSize, random);
+            board.spawnTile();
+            publish(RUNNING);
+        }
+
+        /**
+         * Publishes a snapshot of the board.
+         *
+         * @param state the state of the game
+         */
+        private void publish(int state) {
+            snapshot = new Snapshot(board.getBoardState(), state, ++version);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
+import javafx.animation.Animation;
 import javafx.animation.ScaleTransition;
 import javafx.util.Duration;
 
@@ -13,10 +14,13 @@ import javafx.util.Duration;
  * Each tile has an integer value and a visual representation using JavaFX components.
  */
 public class Tile {
+    private static final Duration SPAWN_DURATION = Duration.millis(200);
     private int value;
     private final StackPane stack;
     private final Rectangle background;
     private final Text text;
+    private final AnimationBudget animations;
+    private final ScaleTransition spawnTransition; // Reused for every spawn on this tile
 
     /**
      * Constructs a new Tile with the specified value and size.
@@ -25,13 +29,31 @@ public class Tile {
      * @param tileSize the size of the tile in pixels
      */
     public Tile(int value, int tileSize) {
+        this(value, tileSize, new AnimationBudget(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Constructs a new Tile whose animations are limited by a budget shared with the other tiles of the board.
+     *
+     * @param value      the initial value of the tile
+     * @param tileSize   the size of the tile in pixels
+     * @param animations the budget limiting the animations
+     */
+    public Tile(int value, int tileSize, AnimationBudget animations) {
         this.value = value;
+        this.animations = animations;
         this.stack = new StackPane();
         this.background = new Rectangle(tileSize - 5, tileSize - 5);
         this.background.setFill(Color.LIGHTGRAY);
         this.text = new Text(value == 0 ? "" : String.valueOf(value));
         this.text.setFont(Font.font(24));
         this.stack.getChildren().addAll(background, text);
+        this.spawnTransition = new ScaleTransition(SPAWN_DURATION, stack);
+        this.spawnTransition.setFromX(0);
+        this.spawnTransition.setFromY(0);
+        this.spawnTransition.setToX(1);
+        this.spawnTransition.setToY(1);
+        this.spawnTransition.setOnFinished(_ -> animations.finished());
         updateAppearance();
     }
 
@@ -68,7 +90,7 @@ public class Tile {
      * @param value the value of the tile
      * @return the corresponding color for the tile
      */
-    private Color getColorForValue(int value) {
+    static Color getColorForValue(int value) {
         return switch (value) {
             case 2 -> Color.BEIGE;
             case 4 -> Color.LIGHTYELLOW;
@@ -95,14 +117,18 @@ public class Tile {
     }
 
     /**
-     * Animates the tile when it spawns on the game board.
+     * Animates the tile when it spawns on the game board, unless the animation budget is exhausted.
      */
     public void animateSpawn() {
-        ScaleTransition st = new ScaleTransition(Duration.millis(200), stack);
-        st.setFromX(0);
-        st.setFromY(0);
-        st.setToX(1);
-        st.setToY(1);
-        st.play();
+        if (spawnTransition.getStatus() == Animation.Status.RUNNING) {
+            spawnTransition.stop(); // A stopped transition does not call its finish handler
+            animations.finished();
+        }
+        if (animations.tryStart(SPAWN_DURATION)) {
+            spawnTransition.playFromStart();
+        } else {
+            stack.setScaleX(1);
+            stack.setScaleY(1);
+        }
     }
 }
@@ -0,0 +1,41 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.BitBoard;
+
+/**
+ * Estimates how good a packed 4x4 board is for the player. Higher values are better.
+ */
+@FunctionalInterface
+public interface BoardEvaluator {
+    /**
+     * Evaluates a packed board.
+     *
+     * @param board the packed board, see {@link BitBoard}
+     * @return the estimated value of the board
+     */
+    float evaluate(long board);
+
+    /**
+     * Picks the move maximizing the merge score plus the value of the board after the move, before a tile spawns.
+     *
+     * @param board the packed board
+     * @return the best direction, or null if no move changes the board
+     */
+    default Direction greedyMove(long board) {
+        Direction best = null;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (Direction direction : Direction.values()) {
+            long after = BitBoard.move(board, direction);
+            if (after == board) {
+                continue;
+            }
+            float value = BitBoard.score(board, direction) + evaluate(after);
+            if (value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.BitBoard;
+import com.example.tilesumgame.engine.Symmetry;
+import com.example.tilesumgame.metrics.GameMetrics;
+import com.example.tilesumgame.metrics.SolveEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expectimax search over packed 4x4 boards, either to a fixed depth or iteratively deepened within a time budget.
+ * Chance nodes are cached in a {@link TranspositionTable}, optionally keyed by the canonical form of the board so
+ * that symmetric positions share entries. Not thread-safe, use one solver per thread, except for {@link #cancel()}.
+ */
+public class ExpectimaxSolver {
+    // Chance branches less likely than this are evaluated instead of searched
+    private static final float PROBABILITY_THRESHOLD = 0.0001f;
+    private static final int DEFAULT_CACHE_BITS = 20;
+    // How often, in visited nodes, a timed search checks the clock
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+    private static final int MAX_DEPTH = 10;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final BoardEvaluator evaluator;
+    private final TranspositionTable cache;
+    private final boolean canonicalize;
+    private long nodes;
+    private long deadline = Long.MAX_VALUE;
+    // Bumped by every cancel, a timed search stops once it differs from the token the search was started with
+    private final AtomicLong cancellations = new AtomicLong();
+    private long searchToken;
+    private boolean cancellable;
+    private GameMetrics metrics;
+
+    /**
+     * Statistics of the last search.
+     *
+     * @param depth       the search depth
+     * @param nodes       the number of visited nodes
+     * @param cacheLookups the number of transposition table lookups
+     * @param cacheHits   the number of lookups that found a usable entry
+     * @param nanos       the duration of the search in nanoseconds
+     */
+    public record SearchStats(int depth, long nodes, long cacheLookups, long cacheHits, long nanos) {
+        /**
+         * Returns the share of cache lookups that hit.
+         *
+         * @return the hit rate between 0 and 1
+         */
+        public double hitRate() {
+            return cacheLookups == 0 ? 0 : (double) cacheHits / cacheLookups;
+        }
+
+        /**
+         * Returns the search speed.
+         *
+         * @return the number of visited nodes per second
+         */
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+    }
+
+    private SearchStats lastStats = new SearchStats(0, 0, 0, 0, 0);
+
+    /**
+     * Thrown to unwind a timed search when the deadline passes. Preallocated, as it carries no stack trace.
+     */
+    private static final class SearchTimeout extends RuntimeException {
+        private static final SearchTimeout INSTANCE = new SearchTimeout();
+
+        private SearchTimeout() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Creates a solver with the default heuristic evaluator and a canonicalizing cache.
+     */
+    public ExpectimaxSolver() {
+        this(new HeuristicTables(), DEFAULT_CACHE_BITS, true);
+    }
+
+    /**
+     * Creates a solver.
+     *
+     * @param evaluator    the evaluator for leaf nodes, expected to give symmetric boards the same value
+     * @param cacheBits    the base-2 logarithm of the transposition table size
+     * @param canonicalize whether to key the cache by the canonical form of the board
+     */
+    public ExpectimaxSolver(BoardEvaluator evaluator, int cacheBits, boolean canonicalize) {
+        this.evaluator = evaluator;
+        this.cache = new TranspositionTable(cacheBits);
+        this.canonicalize = canonicalize;
+    }
+
+    /**
+     * Records the statistics of every search into the given metrics and emits a flight recorder event per search.
+     * Solvers record nothing by default, so only the solver playing the game feeds the metrics shown to the player.
+     *
+     * @param metrics the metrics to record into, or null to stop recording
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Searches the board to a fixed depth and returns the best move.
+     *
+     * @param board the packed board
+     * @param depth the number of moves to look ahead, at least 1
+     * @return the best direction, or null if no move changes the board
+     */
+    public Direction bestMove(long board, int depth) {
+        long start = System.nanoTime();
+        SolveEvent event = metrics != null ? new SolveEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long lookups = cache.getLookups();
+        long hits = cache.getHits();
+        nodes = 0;
+        deadline = Long.MAX_VALUE;
+        // Fixed-depth searches always finish, cancelling only applies to timed searches
+        cancellable = false;
+        Direction best = searchRoot(board, depth, null);
+        recordStats(depth, lookups, hits, start, best, event);
+        return best;
+    }
+
+    /**
+     * Searches the board with iterative deepening until the time budget runs out and returns the best move of the
+     * deepest completed iteration. The depth is capped by {@link #maxDepthFor}, so sparse boards with many spawn
+     * outcomes do not waste the budget on depths they cannot finish.
+     *
+     * @param board  the packed board
+     * @param budget the wall-clock time allowed for the search
+     * @return the best direction found so far, or null if no move changes the board
+     */
+    public Direction bestMove(long board, Duration budget) {
+        return bestMove(board, budget, cancellations.get());
+    }
+
+    /**
+     * Searches the board like {@link #bestMove(long, Duration)}, stopping after depth 1 as soon as {@link #cancel()}
+     * was called after the token was taken, even if that happened before this search started.
+     *
+     * @param board  the packed board
+     * @param budget the wall-clock time allowed for the search
+     * @param token  the token the search belongs to, from {@link #getCancelToken()} or {@link #cancel()}
+     * @return the best direction found so far, or null if no move changes the board
+     */
+    public Direction bestMove(long board, Duration budget, long token) {
+        long start = System.nanoTime();
+        SolveEvent event = metrics != null ? new SolveEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long lookups = cache.getLookups();
+        long hits = cache.getHits();
+        nodes = 0;
+        searchToken = token;
+        cancellable = true;
+
+        // Depth 1 is cheap and always completes, so there is a move even with a zero budget
+        deadline = Long.MAX_VALUE;
+        Direction best = searchRoot(board, 1, null);
+        deadline = start + budget.toNanos();
+        int completedDepth = 1;
+        int maxDepth = maxDepthFor(board);
+        long previousIteration = System.nanoTime() - start;
+        try {
+            for (int depth = 2; depth <= maxDepth && best != null; depth++) {
+                long iterationStart = System.nanoTime();
+                // Stop early if the next iteration is unlikely to finish, assuming each level costs about 4x the last
+                if (iterationStart + previousIteration * 4 > deadline || isCancelled()) {
+                    break;
+                }
+                best = searchRoot(board, depth, best);
+                completedDepth = depth;
+                previousIteration = System.nanoTime() - iterationStart;
+            }
+        } catch (SearchTimeout _) {
+            // Keep the best move of the last completed depth
+        }
+        deadline = Long.MAX_VALUE;
+        recordStats(completedDepth, lookups, hits, start, best, event);
+        return best;
+    }
+
+    /**
+     * Stores the statistics of a finished search and reports them to the metrics and the flight recorder, if any.
+     *
+     * @param depth   the completed search depth
+     * @param lookups the cache lookup count before the search
+     * @param hits    the cache hit count before the search
+     * @param start   the start time of the search in nanoseconds
+     * @param best    the chosen direction, or null
+     * @param event   the flight recorder event started with the search, null without metrics
+     */
+    private void recordStats(int depth, long lookups, long hits, long start, Direction best, SolveEvent event) {
+        lastStats = new SearchStats(depth, nodes, cache.getLookups() - lookups, cache.getHits() - hits,
+                System.nanoTime() - start);
+        if (metrics == null) {
+            return;
+        }
+        metrics.recordSearch(depth, lastStats.nodes(), lastStats.cacheLookups(), lastStats.cacheHits(),
+                lastStats.nanos());
+        if (event.shouldCommit()) {
+            event.direction = best == null ? null : best.name();
+            event.depth = depth;
+            event.nodes = lastStats.nodes();
+            event.cacheHits = lastStats.cacheHits();
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the deepest search worth attempting for a board. Boards with many empty cells have many spawn outcomes
+     * per level, crowded boards are cheaper per level and need deeper lookahead to survive.
+     *
+     * @param board the packed board
+     * @return the maximum search depth
+     */
+    public static int maxDepthFor(long board) {
+        int empty = BitBoard.countEmpty(board);
+        if (empty >= 10) {
+            return 3;
+        } else if (empty >= 6) {
+            return 5;
+        } else if (empty >= 3) {
+            return 7;
+        }
+        return MAX_DEPTH;
+    }
+
+    /**
+     * Evaluates every move of the root board to the given depth, searching the previous best move first so its
+     * subtree warms the cache.
+     *
+     * @param board     the packed board
+     * @param depth     the search depth
+     * @param firstMove the move to search first, or null
+     * @return the best direction, or null if no move changes the board
+     */
+    private Direction searchRoot(long board, int depth, Direction firstMove) {
+        Direction best = null;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (int i = -1; i < DIRECTIONS.length; i++) {
+            Direction direction = i < 0 ? firstMove : DIRECTIONS[i];
+            if (direction == null || (i >= 0 && direction == firstMove)) {
+                continue;
+            }
+            long after = BitBoard.move(board, direction);
+            if (after == board) {
+                continue;
+            }
+            float value = chanceNode(after, depth - 1, 1f);
+            if (value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the value of the best move from a board where the player is to move.
+     */
+    private float maxNode(long board, int depth, float probability) {
+        nodes++;
+        float best = 0; // A board without moves is lost
+        for (Direction direction : DIRECTIONS) {
+            long after = BitBoard.move(board, direction);
+            if (after != board) {
+                best = Math.max(best, chanceNode(after, depth, probability));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the expected value over all tile spawns on a board after a move.
+     */
+    private float chanceNode(long board, int depth, float probability) {
+        if (++nodes % CLOCK_CHECK_INTERVAL == 0 && (System.nanoTime() > deadline || isCancelled())) {
+            throw SearchTimeout.INSTANCE;
+        }
+        if (depth <= 0 || probability < PROBABILITY_THRESHOLD) {
+            return evaluator.evaluate(board);
+        }
+        long key = canonicalize ? Symmetry.canonical(board) : board;
+        float cached = cache.get(key, depth);
+        if (!Float.isNaN(cached)) {
+            return cached;
+        }
+        int empty = BitBoard.countEmpty(board);
+        float cellProbability = probability / empty;
+        float sum = 0;
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            if (BitBoard.exponent(board, cell) != 0) {
+                continue;
+            }
+            sum += 0.9f * maxNode(BitBoard.withExponent(board, cell, 1), depth - 1, cellProbability * 0.9f);
+            sum += 0.1f * maxNode(BitBoard.withExponent(board, cell, 2), depth - 1, cellProbability * 0.1f);
+        }
+        float value = sum / empty;
+        cache.put(key, depth, value);
+        return value;
+    }
+
+    /**
+     * Checks if the running search should stop because it was cancelled.
+     *
+     * @return true if the search is timed and a cancel arrived after its token was taken
+     */
+    private boolean isCancelled() {
+        return cancellable && cancellations.get() != searchToken;
+    }
+
+    /**
+     * Stops a running timed search from another thread. The search returns the best move of the deepest completed
+     * iteration, and cache entries of completed subtrees stay available to later searches. Searches started later
+     * without a token are not affected.
+     *
+     * @return a new token, for a search that only a later cancel should stop
+     */
+    public long cancel() {
+        return cancellations.incrementAndGet();
+    }
+
+    /**
+     * Returns the current cancel token. A search started with it stops at the next {@link #cancel()}, even if the
+     * cancel arrives before the search starts.
+     *
+     * @return the token
+     */
+    public long getCancelToken() {
+        return cancellations.get();
+    }
+
+    /**
+     * Returns the statistics of the last search.
+     *
+     * @return the search statistics
+     */
+    public SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Clears the transposition table, e.g. when a new game starts.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.BitBoard;
+
+import java.time.Duration;
+
+/**
+ * Expectimax search within a time budget per move, see {@link ExpectimaxSolver}. Plays 4x4 boards only.
+ */
+public class ExpectimaxStrategy implements Strategy {
+    private final ExpectimaxSolver solver;
+    private final Duration budget;
+
+    /**
+     * Creates an expectimax strategy with its own solver.
+     *
+     * @param evaluator the evaluator for leaf nodes
+     * @param budget    the search time per move
+     */
+    public ExpectimaxStrategy(BoardEvaluator evaluator, Duration budget) {
+        this.solver = new ExpectimaxSolver(evaluator, 20, true);
+        this.budget = budget;
+    }
+
+    @Override
+    public String getName() {
+        return "expectimax";
+    }
+
+    @Override
+    public boolean supports(int gridSize) {
+        return gridSize == BitBoard.SIZE;
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        return solver.bestMove(BitBoard.fromGrid(board.getBoardState()), budget);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.BitBoard;
+
+/**
+ * One-move lookahead with a board evaluator, see {@link BoardEvaluator#greedyMove}. Plays 4x4 boards only.
+ */
+public class GreedyStrategy implements Strategy {
+    private final String name;
+    private final BoardEvaluator evaluator;
+
+    /**
+     * Creates a greedy strategy.
+     *
+     * @param name      the name of the strategy
+     * @param evaluator the evaluator of the boards after each move
+     */
+    public GreedyStrategy(String name, BoardEvaluator evaluator) {
+        this.name = name;
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean supports(int gridSize) {
+        return gridSize == BitBoard.SIZE;
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        return evaluator.greedyMove(BitBoard.fromGrid(board.getBoardState()));
+    }
+}
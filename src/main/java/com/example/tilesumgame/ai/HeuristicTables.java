@@ -0,0 +1,154 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.engine.BitBoard;
+
+/**
+ * Heuristic evaluator for packed 4x4 boards backed by per-row lookup tables.
+ * Every heuristic term is precomputed once for each of the 65536 possible packed rows. The weighted sum of the terms
+ * is folded into a single table, so evaluating a board takes 8 lookups: 4 rows and 4 columns.
+ */
+public class HeuristicTables implements BoardEvaluator {
+    private static final int ROWS = 1 << 16;
+    private static final float MONOTONICITY_POWER = 4;
+    private static final float SUM_POWER = 3.5f;
+
+    // Heuristic terms per packed row
+    private static final float[] EMPTY = new float[ROWS];
+    private static final float[] MERGES = new float[ROWS];
+    private static final float[] MONOTONICITY = new float[ROWS];
+    private static final float[] SMOOTHNESS = new float[ROWS];
+    private static final float[] SUM = new float[ROWS];
+
+    static {
+        int[] cells = new int[BitBoard.SIZE];
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < BitBoard.SIZE; col++) {
+                cells[col] = (row >>> (4 * col)) & 0xF;
+            }
+            computeTerms(row, cells);
+        }
+    }
+
+    /**
+     * Weights of the heuristic terms. Penalties are subtracted, so all weights are expected to be non-negative.
+     *
+     * @param base         constant added per row, keeps values of live boards positive
+     * @param empty        reward per empty cell
+     * @param merges       reward per pair of equal tiles that can merge
+     * @param monotonicity penalty for rows that are not monotonic
+     * @param smoothness   penalty for exponent differences between neighbours
+     * @param sum          penalty for large tiles away from being merged
+     */
+    public record Weights(float base, float empty, float merges, float monotonicity, float smoothness, float sum) {
+        /**
+         * Weights tuned for expectimax search on 4x4 boards.
+         */
+        public static final Weights DEFAULT = new Weights(200_000f, 270f, 700f, 47f, 0f, 11f);
+    }
+
+    private final Weights weights;
+    private final float[] rowValues = new float[ROWS];
+
+    /**
+     * Creates an evaluator with the default weights.
+     */
+    public HeuristicTables() {
+        this(Weights.DEFAULT);
+    }
+
+    /**
+     * Creates an evaluator with the given weights.
+     *
+     * @param weights the weights of the heuristic terms
+     */
+    public HeuristicTables(Weights weights) {
+        this.weights = weights;
+        for (int row = 0; row < ROWS; row++) {
+            rowValues[row] = weights.base()
+                    + weights.empty() * EMPTY[row]
+                    + weights.merges() * MERGES[row]
+                    - weights.monotonicity() * MONOTONICITY[row]
+                    - weights.smoothness() * SMOOTHNESS[row]
+                    - weights.sum() * SUM[row];
+        }
+    }
+
+    /**
+     * Returns the weights this evaluator was built with.
+     *
+     * @return the weights of the heuristic terms
+     */
+    public Weights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Computes every heuristic term of a row and stores it in the term tables.
+     *
+     * @param row   the packed row
+     * @param cells the exponents of the row
+     */
+    private static void computeTerms(int row, int[] cells) {
+        int empty = 0;
+        int merges = 0;
+        int previous = 0;
+        int counter = 0;
+        float sum = 0;
+        for (int cell : cells) {
+            sum += (float) Math.pow(cell, SUM_POWER);
+            if (cell == 0) {
+                empty++;
+                continue;
+            }
+            // Count runs of equal tiles, possibly separated by empty cells
+            if (previous == cell) {
+                counter++;
+            } else if (counter > 0) {
+                merges += 1 + counter;
+                counter = 0;
+            }
+            previous = cell;
+        }
+        if (counter > 0) {
+            merges += 1 + counter;
+        }
+
+        float monotonicityLeft = 0;
+        float monotonicityRight = 0;
+        float smoothness = 0;
+        for (int col = 1; col < cells.length; col++) {
+            float left = (float) Math.pow(cells[col - 1], MONOTONICITY_POWER);
+            float right = (float) Math.pow(cells[col], MONOTONICITY_POWER);
+            if (cells[col - 1] > cells[col]) {
+                monotonicityLeft += left - right;
+            } else {
+                monotonicityRight += right - left;
+            }
+            if (cells[col - 1] != 0 && cells[col] != 0) {
+                smoothness += Math.abs(cells[col - 1] - cells[col]);
+            }
+        }
+
+        EMPTY[row] = empty;
+        MERGES[row] = merges;
+        MONOTONICITY[row] = Math.min(monotonicityLeft, monotonicityRight);
+        SMOOTHNESS[row] = smoothness;
+        SUM[row] = sum;
+    }
+
+    /**
+     * Evaluates a packed board by looking up all rows and all columns.
+     *
+     * @param board the packed board
+     * @return the estimated value of the board
+     */
+    @Override
+    public float evaluate(long board) {
+        long transposed = BitBoard.transpose(board);
+        float[] values = rowValues;
+        return values[BitBoard.row(board, 0)] + values[BitBoard.row(board, 1)]
+                + values[BitBoard.row(board, 2)] + values[BitBoard.row(board, 3)]
+                + values[BitBoard.row(transposed, 0)] + values[BitBoard.row(transposed, 1)]
+                + values[BitBoard.row(transposed, 2)] + values[BitBoard.row(transposed, 3)];
+    }
+}
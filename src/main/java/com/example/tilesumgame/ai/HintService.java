@@ -0,0 +1,170 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.engine.BitBoard;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Computes move hints for packed 4x4 boards on a background thread while the player thinks.
+ * After every position change the current search is cancelled and the new position is searched. Once the hint is
+ * known, the positions that follow the hinted move are searched speculatively, so the next hint is ready at once if the
+ * player follows the suggestion. Completed subtrees stay in the solver cache, so cancelled work is reused as well.
+ */
+public class HintService {
+    private static final int RESULT_CACHE_SIZE = 256;
+
+    private final ExpectimaxSolver solver;
+    private final BoardEvaluator quickEvaluator;
+    private final Duration budget;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hint-service");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Direction> results = new LinkedHashMap<>(RESULT_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Direction> eldest) {
+            return size() > RESULT_CACHE_SIZE;
+        }
+    };
+    private volatile long currentBoard;
+
+    /**
+     * Creates a hint service with its own solver.
+     *
+     * @param budget the search time per position
+     */
+    public HintService(Duration budget) {
+        HeuristicTables heuristic = new HeuristicTables();
+        this.solver = new ExpectimaxSolver(heuristic, 20, true);
+        this.quickEvaluator = heuristic;
+        this.budget = budget;
+    }
+
+    /**
+     * Notifies the service that the board changed. Cancels the running search and starts searching the new position,
+     * unless its hint is already known.
+     *
+     * @param board the packed board
+     */
+    public void positionChanged(long board) {
+        if (board == currentBoard) {
+            return;
+        }
+        currentBoard = board;
+        // The cancel token doubles as the generation of the task: searches started with it stop at the next change,
+        // even if the change arrives before the search starts
+        long taskGeneration = solver.cancel();
+        executor.execute(() -> search(board, taskGeneration));
+    }
+
+    /**
+     * Returns the hint for the current position. If the background search has not finished yet, falls back to a
+     * greedy one-move lookahead, so the answer is always immediate.
+     *
+     * @return the suggested direction, or null if no move is possible
+     */
+    public Direction getHint() {
+        long board = currentBoard;
+        Direction hint = cachedResult(board);
+        return hint != null ? hint : quickEvaluator.greedyMove(board);
+    }
+
+    /**
+     * Checks if the background search has finished for the current position.
+     *
+     * @return true if {@link #getHint()} returns the searched move
+     */
+    public boolean isReady() {
+        return cachedResult(currentBoard) != null;
+    }
+
+    /**
+     * Checks if the searched hint of a position is known, e.g. from a speculative search.
+     *
+     * @param board the packed board
+     * @return true if the position was searched to the end of its budget
+     */
+    boolean isKnown(long board) {
+        return cachedResult(board) != null;
+    }
+
+    /**
+     * Returns the searched hint of a position.
+     *
+     * @param board the packed board
+     * @return the hint, or null if the position was not searched
+     */
+    private Direction cachedResult(long board) {
+        synchronized (results) {
+            return results.get(board);
+        }
+    }
+
+    /**
+     * Searches the position, then speculatively searches the positions after the hinted move and a spawned 2,
+     * until a newer position arrives.
+     *
+     * @param board          the packed board
+     * @param taskGeneration the generation the task was submitted for
+     */
+    private void search(long board, long taskGeneration) {
+        Direction hint = searchOne(board, taskGeneration);
+        if (hint == null) {
+            return;
+        }
+        long afterstate = BitBoard.move(board, hint);
+        for (int exponent = 1; exponent <= 2; exponent++) {
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                if (BitBoard.exponent(afterstate, cell) != 0) {
+                    continue;
+                }
+                if (solver.getCancelToken() != taskGeneration) {
+                    return;
+                }
+                searchOne(BitBoard.withExponent(afterstate, cell, exponent), taskGeneration);
+            }
+        }
+    }
+
+    /**
+     * Searches a single position unless it is already known or the task became stale.
+     *
+     * @param board          the packed board
+     * @param taskGeneration the generation the task was submitted for
+     * @return the best direction, or null if the task became stale or no move is possible
+     */
+    private Direction searchOne(long board, long taskGeneration) {
+        Direction known = cachedResult(board);
+        if (known != null || solver.getCancelToken() != taskGeneration) {
+            return known;
+        }
+        Direction direction = solver.bestMove(board, budget, taskGeneration);
+        // A cancelled search stopped early, its shallower move is not worth keeping
+        if (direction != null && solver.getCancelToken() == taskGeneration) {
+            synchronized (results) {
+                results.put(board, direction);
+            }
+            GameLogger logger = GameLogger.getInstance();
+            if (logger != null) {
+                logger.log(Level.FINE, () -> "Hint " + direction + ": " + solver.getLastStats());
+            }
+        }
+        return direction;
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    public void shutdown() {
+        solver.cancel();
+        executor.shutdownNow();
+    }
+}
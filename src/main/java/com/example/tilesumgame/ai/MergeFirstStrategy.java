@@ -0,0 +1,29 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+
+/**
+ * The original solver heuristic: takes the first direction where tiles can merge, otherwise the first direction in
+ * which the board can move.
+ */
+public class MergeFirstStrategy implements Strategy {
+    @Override
+    public String getName() {
+        return "merge-first";
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        Direction direction = board.canMerge();
+        if (direction != null) {
+            return direction;
+        }
+        for (Direction dir : Direction.values()) {
+            if (board.canMove(dir)) {
+                return dir;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.engine.BitBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * N-tuple network evaluator for packed 4x4 boards.
+ * Every tuple is a list of 4 to 6 cells whose exponents index a flat weight table. Each tuple is sampled on all
+ * 8 symmetric images of the board, so symmetric positions share weights and get the same value.
+ */
+public class NTupleNetwork implements BoardEvaluator {
+    /**
+     * Four 6-tuples covering the two outer rows and the adjacent 2x3 rectangles, cells are {@code 4 * row + col}.
+     */
+    public static final int[][] DEFAULT_TUPLES = {
+            {0, 1, 2, 3, 4, 5},
+            {4, 5, 6, 7, 8, 9},
+            {0, 1, 2, 4, 5, 6},
+            {4, 5, 6, 8, 9, 10},
+    };
+    private static final int SYMMETRIES = 8;
+    private static final int MAGIC = 0x4E544E31; // "NTN1"
+
+    private final int[][] tuples;
+    // Cell indices of every tuple under every symmetry, [tuple][symmetry * tupleLength + i]
+    private final int[][] sampledCells;
+    private final float[][] weights;
+
+    /**
+     * Creates a network with the default tuples and all weights set to zero.
+     */
+    public NTupleNetwork() {
+        this(DEFAULT_TUPLES);
+    }
+
+    /**
+     * Creates a network with the given tuples and all weights set to zero.
+     *
+     * @param tuples the cells of every tuple, each tuple holding 4 to 6 cell indices
+     */
+    public NTupleNetwork(int[][] tuples) {
+        this.tuples = new int[tuples.length][];
+        this.sampledCells = new int[tuples.length][];
+        this.weights = new float[tuples.length][];
+        for (int t = 0; t < tuples.length; t++) {
+            int[] tuple = tuples[t];
+            if (tuple.length < 4 || tuple.length > 6) {
+                throw new IllegalArgumentException("Tuples must have 4 to 6 cells, got " + tuple.length);
+            }
+            this.tuples[t] = tuple.clone();
+            this.sampledCells[t] = sampleSymmetries(tuple);
+            this.weights[t] = new float[1 << (4 * tuple.length)];
+        }
+    }
+
+    /**
+     * Maps the cells of a tuple through the 8 symmetries of the square.
+     *
+     * @param tuple the cells of the tuple
+     * @return the cells of all symmetric images, one image after another
+     */
+    private static int[] sampleSymmetries(int[] tuple) {
+        int[] cells = new int[SYMMETRIES * tuple.length];
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            for (int i = 0; i < tuple.length; i++) {
+                int row = tuple[i] / BitBoard.SIZE;
+                int col = tuple[i] % BitBoard.SIZE;
+                if ((symmetry & 4) != 0) {
+                    int swap = row;
+                    row = col;
+                    col = swap;
+                }
+                if ((symmetry & 1) != 0) {
+                    col = BitBoard.SIZE - 1 - col;
+                }
+                if ((symmetry & 2) != 0) {
+                    row = BitBoard.SIZE - 1 - row;
+                }
+                cells[symmetry * tuple.length + i] = BitBoard.SIZE * row + col;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Evaluates a packed board by summing the weights of all tuples over all symmetries.
+     *
+     * @param board the packed board
+     * @return the estimated value of the board
+     */
+    @Override
+    public float evaluate(long board) {
+        float value = 0;
+        for (int t = 0; t < tuples.length; t++) {
+            int[] cells = sampledCells[t];
+            float[] table = weights[t];
+            int length = tuples[t].length;
+            for (int offset = 0; offset < cells.length; offset += length) {
+                value += table[index(board, cells, offset, length)];
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Adds a delta to every weight used to evaluate the board.
+     * Updates from several threads may race, a lost update only slows learning down slightly.
+     *
+     * @param board the packed board
+     * @param delta the amount to add to every weight
+     */
+    public void update(long board, float delta) {
+        for (int t = 0; t < tuples.length; t++) {
+            int[] cells = sampledCells[t];
+            float[] table = weights[t];
+            int length = tuples[t].length;
+            for (int offset = 0; offset < cells.length; offset += length) {
+                table[index(board, cells, offset, length)] += delta;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of weights updated by a single call to {@link #update}.
+     *
+     * @return the number of sampled tuples
+     */
+    public int getSampleCount() {
+        return tuples.length * SYMMETRIES;
+    }
+
+    private static int index(long board, int[] cells, int offset, int length) {
+        int index = 0;
+        for (int i = offset; i < offset + length; i++) {
+            index = (index << 4) | (int) ((board >>> (cells[i] << 2)) & 0xF);
+        }
+        return index;
+    }
+
+    /**
+     * Saves the tuples and weights to a compact little-endian binary file.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(8 + tuples.length * 7).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(tuples.length);
+            for (int[] tuple : tuples) {
+                header.put((byte) tuple.length);
+                for (int i = 0; i < 6; i++) {
+                    header.put((byte) (i < tuple.length ? tuple[i] : 0));
+                }
+            }
+            header.flip();
+            channel.write(header);
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            for (float[] table : weights) {
+                int position = 0;
+                while (position < table.length) {
+                    int count = Math.min(chunk.capacity() / Float.BYTES, table.length - position);
+                    chunk.clear();
+                    chunk.asFloatBuffer().put(table, position, count);
+                    chunk.limit(count * Float.BYTES);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                    position += count;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads a network saved by {@link #save}. The weights are read into the heap tables in 1 MB chunks, as training
+     * updates them in place and every evaluation touches random entries.
+     *
+     * @param path the file to read
+     * @return the loaded network
+     * @throws IOException if the file cannot be read or is not a network file
+     */
+    public static NTupleNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, path);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not an n-tuple network file: " + path);
+            }
+            int tupleCount = header.getInt();
+            if (tupleCount <= 0 || tupleCount > 64) {
+                throw new IOException("Invalid tuple count " + tupleCount + " in " + path);
+            }
+            ByteBuffer tupleBytes = ByteBuffer.allocate(tupleCount * 7);
+            readFully(channel, tupleBytes, path);
+            int[][] tuples = new int[tupleCount][];
+            for (int t = 0; t < tuples.length; t++) {
+                int length = tupleBytes.get();
+                // Checked here, so a damaged file fails with an IOException rather than in the constructor
+                if (length < 4 || length > 6) {
+                    throw new IOException("Invalid tuple length " + length + " in " + path);
+                }
+                tuples[t] = new int[length];
+                for (int i = 0; i < 6; i++) {
+                    int cell = tupleBytes.get();
+                    if (i < length) {
+                        if (cell < 0 || cell >= BitBoard.CELLS) {
+                            throw new IOException("Invalid tuple cell " + cell + " in " + path);
+                        }
+                        tuples[t][i] = cell;
+                    }
+                }
+            }
+            NTupleNetwork network = new NTupleNetwork(tuples);
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            for (float[] table : network.weights) {
+                int position = 0;
+                while (position < table.length) {
+                    int count = Math.min(chunk.capacity() / Float.BYTES, table.length - position);
+                    chunk.clear().limit(count * Float.BYTES);
+                    readFully(channel, chunk, path);
+                    chunk.asFloatBuffer().get(table, position, count);
+                    position += count;
+                }
+            }
+            return network;
+        }
+    }
+
+    /**
+     * Fills a buffer from a channel and flips it for reading.
+     *
+     * @param channel the channel to read
+     * @param buffer  the buffer to fill up to its limit
+     * @param path    the file, for the error message
+     * @throws IOException if the file ends before the buffer is full
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, Path path) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated n-tuple network file: " + path);
+            }
+        }
+        buffer.flip();
+    }
+}
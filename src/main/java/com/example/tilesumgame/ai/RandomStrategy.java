@@ -0,0 +1,45 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+
+import java.util.Random;
+
+/**
+ * Baseline strategy choosing uniformly among the directions in which the board can move.
+ */
+public class RandomStrategy implements Strategy {
+    private final Random random;
+    private final Direction[] candidates = new Direction[Direction.values().length];
+
+    /**
+     * Creates a random strategy.
+     *
+     * @param random the random generator to choose moves with
+     */
+    public RandomStrategy(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+
+    @Override
+    public void startGame(long gameSeed) {
+        // Mixed, so the moves are not drawn from the same sequence as the tile spawns of a board seeded alike
+        random.setSeed(gameSeed * 0x9E3779B97F4A7C15L + 1);
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        int count = 0;
+        for (Direction direction : Direction.values()) {
+            if (board.canMove(direction)) {
+                candidates[count++] = direction;
+            }
+        }
+        return count == 0 ? null : candidates[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+import com.example.tilesumgame.engine.BitBoard;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+
+/**
+ * Measures the effect of symmetry canonicalization on the solver cache.
+ * Searches the same seeded sequence of positions with and without canonical cache keys and reports the cache hit rate
+ * and the search speed of both runs.
+ * With a {@code budgetMs} argument the positions are searched with the time-budgeted solver instead of a fixed depth.
+ * <p>
+ * Usage: {@code --positions=2000 --depth=3 --budgetMs=5 --seed=1 --logLevel=INFO}
+ */
+public class SolverBenchmark {
+    /**
+     * Runs the benchmark from the command line.
+     *
+     * @param args the named command line arguments
+     */
+    public static void main(String[] args) {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        GameLogger logger = GameLogger.getInstance();
+
+        long[] positions = samplePositions(arguments.getInt("positions", 2000), arguments.getLong("seed", 1));
+        int depth = arguments.getInt("depth", 3);
+        long budgetMs = arguments.getLong("budgetMs", 0);
+        Duration budget = budgetMs > 0 ? Duration.ofMillis(budgetMs) : null;
+        // Warm up the JIT before measuring
+        search(new ExpectimaxSolver(new HeuristicTables(), 20, true), Arrays.copyOf(positions, 200), depth, budget);
+        for (boolean canonicalize : new boolean[]{false, true}) {
+            ExpectimaxSolver solver = new ExpectimaxSolver(new HeuristicTables(), 20, canonicalize);
+            ExpectimaxSolver.SearchStats total = search(solver, positions, depth, budget);
+            logger.log(Level.INFO, String.format("Canonical keys: %-5b hit rate: %5.1f%%, nodes: %d, nodes/s: %.0f, "
+                            + "average depth: %.2f, time: %d ms", canonicalize, 100 * total.hitRate(), total.nodes(),
+                    total.nodesPerSecond(), (double) total.depth() / positions.length, total.nanos() / 1_000_000));
+        }
+    }
+
+    /**
+     * Searches all positions in order with one solver, keeping its cache between positions like a real game does.
+     *
+     * @param solver    the solver to use
+     * @param positions the packed boards to search
+     * @param depth     the search depth, used when there is no time budget
+     * @param budget    the time budget per position, or null to search to a fixed depth
+     * @return the summed statistics of all searches, with the depths summed as well
+     */
+    static ExpectimaxSolver.SearchStats search(ExpectimaxSolver solver, long[] positions, int depth, Duration budget) {
+        long nodes = 0, lookups = 0, hits = 0, nanos = 0;
+        int depths = 0;
+        for (long position : positions) {
+            if (budget != null) {
+                solver.bestMove(position, budget);
+            } else {
+                solver.bestMove(position, depth);
+            }
+            ExpectimaxSolver.SearchStats stats = solver.getLastStats();
+            depths += stats.depth();
+            nodes += stats.nodes();
+            lookups += stats.cacheLookups();
+            hits += stats.cacheHits();
+            nanos += stats.nanos();
+        }
+        return new ExpectimaxSolver.SearchStats(depths, nodes, lookups, hits, nanos);
+    }
+
+    /**
+     * Collects consecutive positions of seeded games played greedily with the heuristic evaluator.
+     *
+     * @param count the number of positions to collect
+     * @param seed  the seed of the tile spawns
+     * @return the packed boards
+     */
+    static long[] samplePositions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        HeuristicTables heuristic = new HeuristicTables();
+        long[] positions = new long[count];
+        long board = BitBoard.spawn(BitBoard.spawn(0L, random), random);
+        for (int i = 0; i < count; i++) {
+            Direction direction = heuristic.greedyMove(board);
+            if (direction == null) {
+                board = BitBoard.spawn(BitBoard.spawn(0L, random), random);
+                direction = heuristic.greedyMove(board);
+            }
+            positions[i] = board;
+            board = BitBoard.spawn(BitBoard.move(board, direction), random);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.tilesumgame.ai;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates strategies by name, so harnesses can select them on the command line.
+ */
+public class Strategies {
+    public static final List<String> NAMES = List.of("merge-first", "random", "greedy", "expectimax", "ntuple",
+            "tablebase");
+    private static final Path NTUPLE_WEIGHTS = Path.of("ntuple.bin");
+    private static volatile NTupleNetwork network;
+
+    private Strategies() {
+    }
+
+    /**
+     * Creates a new instance of a strategy.
+     *
+     * @param name   one of {@link #NAMES}
+     * @param seed   the seed for strategies that make random choices
+     * @param budget the search time per move for searching strategies
+     * @return the strategy
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Strategy create(String name, long seed, Duration budget) {
+        return switch (name) {
+            case "merge-first" -> new MergeFirstStrategy();
+            case "random" -> new RandomStrategy(new Random(seed));
+            case "greedy" -> new GreedyStrategy(name, new HeuristicTables());
+            case "expectimax" -> new ExpectimaxStrategy(new HeuristicTables(), budget);
+            case "ntuple" -> new GreedyStrategy(name, loadNetwork());
+            case "tablebase" -> new TablebaseStrategy(new MergeFirstStrategy());
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name + ", expected one of " + NAMES);
+        };
+    }
+
+    /**
+     * Loads the n-tuple network from {@code ntuple.bin} once and shares it between all strategies.
+     *
+     * @return the shared network
+     */
+    private static NTupleNetwork loadNetwork() {
+        if (network == null) {
+            synchronized (Strategies.class) {
+                if (network == null) {
+                    if (!Files.exists(NTUPLE_WEIGHTS)) {
+                        throw new IllegalArgumentException("The ntuple strategy needs trained weights in " + NTUPLE_WEIGHTS);
+                    }
+                    try {
+                        network = NTupleNetwork.load(NTUPLE_WEIGHTS);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        }
+        return network;
+    }
+}
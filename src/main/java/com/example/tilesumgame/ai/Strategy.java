@@ -0,0 +1,44 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+
+/**
+ * A way of choosing moves on a {@link Board}. Implementations may keep state, e.g. a search cache, and are used by
+ * one thread at a time.
+ */
+public interface Strategy {
+    /**
+     * Returns the name of the strategy, as used on the command line and in reports.
+     *
+     * @return the name of the strategy
+     */
+    String getName();
+
+    /**
+     * Checks if the strategy can play on boards of the given size.
+     *
+     * @param gridSize the number of rows and columns
+     * @return true if the strategy supports the size, false otherwise
+     */
+    default boolean supports(int gridSize) {
+        return true;
+    }
+
+    /**
+     * Prepares the strategy for a new game. Strategies making random choices reseed from the game seed, so a game
+     * plays the same whichever instance or thread runs it.
+     *
+     * @param gameSeed the seed of the game
+     */
+    default void startGame(long gameSeed) {
+    }
+
+    /**
+     * Chooses the next move without changing the board.
+     *
+     * @param board the board to move on
+     * @return the direction to move in, or null if no move is possible
+     */
+    Direction chooseMove(Board board);
+}
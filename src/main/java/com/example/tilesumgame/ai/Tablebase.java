@@ -0,0 +1,172 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.PackedGrid;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped table of the optimal move of every reachable position on a small board, built by
+ * {@link TablebaseBuilder}. A move is optimal if it maximizes the probability of reaching the target tile.
+ * <p>
+ * Positions are indexed by their tile exponents as the digits of a number in base {@code targetExponent}, so a lookup
+ * is a single read. The file holds a 32-byte little-endian header (magic, size, target exponent, base, number of
+ * reachable positions, win probability from the start), a bitset of the reachable positions that still have a legal
+ * move and 2 bits per position with the ordinal of the optimal {@link Direction}.
+ */
+public class Tablebase {
+    static final int MAGIC = 0x54424153; // "SABT"
+    static final int HEADER_BYTES = 32;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int targetExponent;
+    private final long stateCount;
+    private final double winProbability;
+    private final long movesOffset;
+
+    private Tablebase(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.size = buffer.getInt(4);
+        this.targetExponent = buffer.getInt(8);
+        this.stateCount = buffer.getLong(16);
+        this.winProbability = buffer.getDouble(24);
+        this.movesOffset = HEADER_BYTES + bitsetBytes(indexCount(size, targetExponent));
+    }
+
+    /**
+     * Maps a tablebase file.
+     *
+     * @param path the file written by {@link TablebaseBuilder}
+     * @return the tablebase
+     * @throws IOException if the file cannot be read or is not a tablebase
+     */
+    public static Tablebase load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            Tablebase tablebase = new Tablebase(buffer);
+            long indexCount = indexCount(tablebase.size, tablebase.targetExponent);
+            if (channel.size() < tablebase.movesOffset + bitsetBytes(2 * indexCount)) {
+                throw new IOException("Truncated tablebase file: " + path);
+            }
+            return tablebase;
+        }
+    }
+
+    /**
+     * Returns the file name a tablebase of the given board size is looked for under, e.g. {@code tablebase-3x3.bin}.
+     *
+     * @param size the number of rows and columns
+     * @return the default path of the tablebase
+     */
+    public static Path defaultPath(int size) {
+        return Path.of("tablebase-" + size + "x" + size + ".bin");
+    }
+
+    /**
+     * Returns the optimal move in a position.
+     *
+     * @param cells the tile exponents of the board, row by row
+     * @return the optimal direction, or null if the position is not in the table, e.g. because it already holds the
+     * target tile, is lost or cannot be reached in a game
+     */
+    public Direction bestMove(byte[] cells) {
+        if (cells.length != size * size) {
+            return null;
+        }
+        long index = 0;
+        for (int i = cells.length - 1; i >= 0; i--) {
+            if (cells[i] >= targetExponent) {
+                return null;
+            }
+            index = index * targetExponent + cells[i];
+        }
+        if ((buffer.get((int) (HEADER_BYTES + (index >>> 3))) & (1 << (index & 7))) == 0) {
+            return null;
+        }
+        long bit = 2 * index;
+        int code = (buffer.get((int) (movesOffset + (bit >>> 3))) >>> (bit & 7)) & 3;
+        return DIRECTIONS[code];
+    }
+
+    /**
+     * Returns the optimal move in a position.
+     *
+     * @param grid the tile values of the board
+     * @return the optimal direction, or null if the position is not in the table
+     */
+    public Direction bestMove(int[][] grid) {
+        return grid.length == size ? bestMove(PackedGrid.fromGrid(grid)) : null;
+    }
+
+    /**
+     * Returns the number of rows and columns of the boards in the table.
+     *
+     * @return the board size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the tile whose creation wins a game.
+     *
+     * @return the target tile value
+     */
+    public int getTargetTile() {
+        return 1 << targetExponent;
+    }
+
+    /**
+     * Returns the number of positions reachable in a game before the target tile is created.
+     *
+     * @return the number of positions in the table
+     */
+    public long getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * Returns the probability of reaching the target tile with optimal play from a random two-tile start.
+     *
+     * @return the win probability
+     */
+    public double getWinProbability() {
+        return winProbability;
+    }
+
+    /**
+     * Returns the number of position indices of a board size and target, the base raised to the number of cells.
+     *
+     * @param size           the number of rows and columns
+     * @param targetExponent the exponent of the target tile, also the base of the index
+     * @return the number of indices
+     */
+    static long indexCount(int size, int targetExponent) {
+        long count = 1;
+        for (int i = 0; i < size * size; i++) {
+            count = Math.multiplyExact(count, targetExponent);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes of a bitset, rounded up to whole longs.
+     *
+     * @param bits the number of bits
+     * @return the number of bytes
+     */
+    static long bitsetBytes(long bits) {
+        return (bits + 63) / 64 * Long.BYTES;
+    }
+}
@@ -0,0 +1,489 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+import com.example.tilesumgame.engine.PackedGrid;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+/**
+ * Offline solver writing the {@link Tablebase} of a small board, e.g. 3x3.
+ * <p>
+ * A move keeps the sum of the tiles and a spawn adds 2 or 4, so positions fall into layers by tile sum and every
+ * position only leads to the next two layers. A forward pass enumerates the reachable positions layer by layer,
+ * deduplicating them in an off-heap bitset, and spills every layer to a temporary file. A backward pass then goes from
+ * the highest layer down and computes the probability of reaching the target tile from every position, keeping only
+ * the values of the two layers above in memory. Both passes split each layer across threads.
+ * <p>
+ * Usage: {@code --size=3 --target=256 --threads=8 --out=tablebase-3x3.bin --logLevel=INFO}
+ */
+public class TablebaseBuilder {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final double TWO_PROBABILITY = 0.9;
+    private static final int CHUNK = 4096;
+    private static GameLogger logger;
+
+    private final int size;
+    private final int cells;
+    private final int targetExponent;
+    private final long[] powers; // Index weight of every cell
+    private final ExecutorService executor;
+    private final int threads;
+
+    /**
+     * A layer of positions with the same tile sum, sorted by index.
+     *
+     * @param states the position indices
+     * @param values the win probability of every position, filled by the backward pass
+     */
+    private record Layer(LongBuffer states, FloatBuffer values) {
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @param size       the number of rows and columns
+     * @param targetTile the tile whose creation wins a game, a power of two from 8
+     * @param executor   the executor running the parts of every layer
+     * @param threads    the number of threads of the executor
+     */
+    public TablebaseBuilder(int size, int targetTile, ExecutorService executor, int threads) {
+        if (targetTile < 8 || Integer.bitCount(targetTile) != 1) {
+            throw new IllegalArgumentException("Target must be a power of two from 8, got " + targetTile);
+        }
+        this.size = size;
+        this.cells = size * size;
+        this.targetExponent = Integer.numberOfTrailingZeros(targetTile);
+        long indexCount;
+        try {
+            indexCount = Tablebase.indexCount(size, targetExponent);
+        } catch (ArithmeticException _) {
+            indexCount = Long.MAX_VALUE;
+        }
+        if (size < 2 || Tablebase.HEADER_BYTES + Tablebase.bitsetBytes(3 * indexCount) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A " + size + "x" + size + " board with target " + targetTile
+                    + " is too large for a tablebase");
+        }
+        this.powers = new long[cells];
+        for (int i = 0; i < cells; i++) {
+            powers[i] = i == 0 ? 1 : powers[i - 1] * targetExponent;
+        }
+        this.executor = executor;
+        this.threads = threads;
+    }
+
+    /**
+     * Solves every reachable position and writes the tablebase.
+     *
+     * @param out the tablebase file to write
+     * @return the written tablebase
+     * @throws IOException          if a file cannot be written
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public Tablebase build(Path out) throws IOException, InterruptedException {
+        long indexCount = Tablebase.indexCount(size, targetExponent);
+        long movesOffset = Tablebase.HEADER_BYTES + Tablebase.bitsetBytes(indexCount);
+        long fileSize = movesOffset + Tablebase.bitsetBytes(2 * indexCount);
+        Path spill = Files.createTempFile(out.toAbsolutePath().getParent(), "tablebase", ".layers");
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel layers = FileChannel.open(spill, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                     StandardOpenOption.DELETE_ON_CLOSE)) {
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer reachable = file.slice(Tablebase.HEADER_BYTES, (int) (movesOffset - Tablebase.HEADER_BYTES));
+            ByteBuffer moves = file.slice((int) movesOffset, (int) (fileSize - movesOffset));
+
+            long start = System.nanoTime();
+            TreeMap<Integer, long[]> layerRanges = enumerate(reachable, layers);
+            long stateCount = layerRanges.values().stream().mapToLong(range -> range[1]).sum();
+            log(Level.INFO, String.format("Enumerated %d positions in %d layers in %.1f s", stateCount,
+                    layerRanges.size(), (System.nanoTime() - start) / 1e9));
+
+            start = System.nanoTime();
+            double winProbability = solve(layerRanges, layers, reachable, moves);
+            log(Level.INFO, String.format("Solved in %.1f s, win probability %.4f",
+                    (System.nanoTime() - start) / 1e9, winProbability));
+
+            file.putInt(0, Tablebase.MAGIC).putInt(4, size).putInt(8, targetExponent).putInt(12, targetExponent)
+                    .putLong(16, stateCount).putDouble(24, winProbability);
+            file.force();
+        } finally {
+            Files.deleteIfExists(spill);
+        }
+        return Tablebase.load(out);
+    }
+
+    /**
+     * Forward pass: enumerates the reachable positions by tile sum, marking them in the bitset and appending every
+     * completed layer to the spill file.
+     *
+     * @param reachable the bitset of reachable positions
+     * @param spill     the file receiving the sorted position indices of every layer
+     * @return the offset and length in the spill file of every layer, by tile sum
+     * @throws IOException          if the spill file cannot be written
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private TreeMap<Integer, long[]> enumerate(ByteBuffer reachable, FileChannel spill)
+            throws IOException, InterruptedException {
+        TreeMap<Integer, LongList> pending = new TreeMap<>();
+        for (int first = 0; first < cells; first++) {
+            for (int second = first + 1; second < cells; second++) {
+                for (int firstExponent = 1; firstExponent <= 2; firstExponent++) {
+                    for (int secondExponent = 1; secondExponent <= 2; secondExponent++) {
+                        long index = firstExponent * powers[first] + secondExponent * powers[second];
+                        markReachable(reachable, index);
+                        int sum = (1 << firstExponent) + (1 << secondExponent);
+                        pending.computeIfAbsent(sum, _ -> new LongList()).add(index);
+                    }
+                }
+            }
+        }
+        TreeMap<Integer, long[]> ranges = new TreeMap<>();
+        long offset = 0;
+        while (!pending.isEmpty()) {
+            Map.Entry<Integer, LongList> entry = pending.pollFirstEntry();
+            int sum = entry.getKey();
+            long[] states = entry.getValue().toSortedArray();
+            ranges.put(sum, new long[]{offset, states.length});
+            ByteBuffer bytes = ByteBuffer.allocate(states.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            bytes.asLongBuffer().put(states);
+            while (bytes.hasRemaining()) {
+                offset += spill.write(bytes, offset);
+            }
+
+            List<LongList[]> successors = runChunks(states.length, (from, to) -> {
+                LongList[] found = {new LongList(), new LongList()};
+                byte[] position = new byte[cells];
+                byte[] after = new byte[cells];
+                for (int i = from; i < to; i++) {
+                    decode(states[i], position);
+                    for (Direction direction : DIRECTIONS) {
+                        System.arraycopy(position, 0, after, 0, cells);
+                        if (PackedGrid.move(after, size, direction) < 0 || PackedGrid.maxExponent(after) >= targetExponent) {
+                            continue;
+                        }
+                        long afterIndex = encode(after);
+                        for (int cell = 0; cell < cells; cell++) {
+                            if (after[cell] != 0) {
+                                continue;
+                            }
+                            for (int exponent = 1; exponent <= 2; exponent++) {
+                                long successor = afterIndex + exponent * powers[cell];
+                                if (markReachable(reachable, successor)) {
+                                    found[exponent - 1].add(successor);
+                                }
+                            }
+                        }
+                    }
+                }
+                return found;
+            });
+            for (LongList[] found : successors) {
+                for (int exponent = 1; exponent <= 2; exponent++) {
+                    if (found[exponent - 1].size() > 0) {
+                        pending.computeIfAbsent(sum + (1 << exponent), _ -> new LongList()).addAll(found[exponent - 1]);
+                    }
+                }
+            }
+            log(Level.FINE, "Layer " + sum + ": " + states.length + " positions");
+        }
+        return ranges;
+    }
+
+    /**
+     * Backward pass: computes the win probability and optimal move of every position from the highest layer down.
+     *
+     * Lost positions, where no move is possible, are removed from the bitset so the table has no move for them.
+     *
+     * @param ranges    the layers in the spill file, by tile sum
+     * @param spill     the file holding the sorted position indices of every layer
+     * @param reachable the bitset of reachable positions
+     * @param moves     the 2-bit optimal moves, by position index
+     * @return the win probability from a random two-tile start
+     * @throws IOException          if the spill file cannot be read
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private double solve(TreeMap<Integer, long[]> ranges, FileChannel spill, ByteBuffer reachable, ByteBuffer moves)
+            throws IOException, InterruptedException {
+        TreeMap<Integer, Layer> solved = new TreeMap<>();
+        for (Map.Entry<Integer, long[]> entry : ranges.descendingMap().entrySet()) {
+            int sum = entry.getKey();
+            long[] range = entry.getValue();
+            LongBuffer states = spill.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] * Long.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            FloatBuffer values = ByteBuffer.allocateDirect((int) range[1] * Float.BYTES)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+            Layer plusTwo = solved.get(sum + 2);
+            Layer plusFour = solved.get(sum + 4);
+            runChunks((int) range[1], (from, to) -> {
+                byte[] position = new byte[cells];
+                byte[] after = new byte[cells];
+                for (int i = from; i < to; i++) {
+                    long index = states.get(i);
+                    decode(index, position);
+                    double best = -1;
+                    int bestMove = 0;
+                    for (Direction direction : DIRECTIONS) {
+                        System.arraycopy(position, 0, after, 0, cells);
+                        if (PackedGrid.move(after, size, direction) < 0) {
+                            continue;
+                        }
+                        double value = PackedGrid.maxExponent(after) >= targetExponent ? 1
+                                : spawnValue(after, plusTwo, plusFour);
+                        if (value > best) {
+                            best = value;
+                            bestMove = direction.ordinal();
+                        }
+                    }
+                    values.put(i, (float) Math.max(best, 0));
+                    if (best < 0) {
+                        // Move ordinal 0 is a valid direction, so a lost position must not look like one
+                        clearReachable(reachable, index);
+                    } else if (bestMove != 0) {
+                        LONGS.getAndBitwiseOr(moves, (int) (index >>> 5) * Long.BYTES, (long) bestMove << (2 * (index & 31)));
+                    }
+                }
+                return null;
+            });
+            solved.put(sum, new Layer(states, values));
+            // Lower layers only look two layers up
+            solved.tailMap(sum + 4, false).clear();
+        }
+
+        double winProbability = 0;
+        for (int first = 0; first < cells; first++) {
+            for (int second = 0; second < cells; second++) {
+                if (first == second) {
+                    continue;
+                }
+                for (int firstExponent = 1; firstExponent <= 2; firstExponent++) {
+                    for (int secondExponent = 1; secondExponent <= 2; secondExponent++) {
+                        long index = firstExponent * powers[first] + secondExponent * powers[second];
+                        Layer layer = solved.get((1 << firstExponent) + (1 << secondExponent));
+                        winProbability += spawnProbability(firstExponent) * spawnProbability(secondExponent)
+                                * valueOf(layer, index) / (cells * (cells - 1));
+                    }
+                }
+            }
+        }
+        return winProbability;
+    }
+
+    /**
+     * Returns the win probability after a move, averaged over the spawns that can follow it.
+     *
+     * @param after    the position after the move, with at least one empty cell
+     * @param plusTwo  the layer reached by spawning a 2
+     * @param plusFour the layer reached by spawning a 4
+     * @return the win probability
+     */
+    private double spawnValue(byte[] after, Layer plusTwo, Layer plusFour) {
+        long afterIndex = encode(after);
+        double total = 0;
+        int empty = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (after[cell] == 0) {
+                empty++;
+                total += TWO_PROBABILITY * valueOf(plusTwo, afterIndex + powers[cell])
+                        + (1 - TWO_PROBABILITY) * valueOf(plusFour, afterIndex + 2 * powers[cell]);
+            }
+        }
+        return total / empty;
+    }
+
+    /**
+     * Looks up the win probability of a solved position.
+     *
+     * @param layer the layer of the position
+     * @param index the index of the position
+     * @return the win probability
+     */
+    private static double valueOf(Layer layer, long index) {
+        int low = 0;
+        int high = layer.states().limit() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long state = layer.states().get(middle);
+            if (state < index) {
+                low = middle + 1;
+            } else if (state > index) {
+                high = middle - 1;
+            } else {
+                return layer.values().get(middle);
+            }
+        }
+        throw new IllegalStateException("Position " + index + " was not enumerated");
+    }
+
+    private static double spawnProbability(int exponent) {
+        return exponent == 1 ? TWO_PROBABILITY : 1 - TWO_PROBABILITY;
+    }
+
+    /**
+     * Sets the bit of a position, safely from several threads.
+     *
+     * @param reachable the bitset
+     * @param index     the index of the position
+     * @return true if the bit was not set before
+     */
+    private static boolean markReachable(ByteBuffer reachable, long index) {
+        long bit = 1L << (index & 63);
+        long previous = (long) LONGS.getAndBitwiseOr(reachable, (int) (index >>> 6) * Long.BYTES, bit);
+        return (previous & bit) == 0;
+    }
+
+    /**
+     * Clears the bit of a position, safely from several threads.
+     *
+     * @param reachable the bitset
+     * @param index     the index of the position
+     */
+    private static void clearReachable(ByteBuffer reachable, long index) {
+        LONGS.getAndBitwiseAnd(reachable, (int) (index >>> 6) * Long.BYTES, ~(1L << (index & 63)));
+    }
+
+    private long encode(byte[] position) {
+        long index = 0;
+        for (int i = 0; i < cells; i++) {
+            index += position[i] * powers[i];
+        }
+        return index;
+    }
+
+    private void decode(long index, byte[] position) {
+        for (int i = 0; i < cells; i++) {
+            position[i] = (byte) (index % targetExponent);
+            index /= targetExponent;
+        }
+    }
+
+    /**
+     * Part of a layer processed by one task.
+     *
+     * @param <T> the result of the part
+     */
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T run(int from, int to);
+    }
+
+    /**
+     * Splits a layer into parts of at most {@value #CHUNK} positions and runs them on the executor.
+     *
+     * @param count the number of positions of the layer
+     * @param task  the work on one part
+     * @param <T>   the result of a part
+     * @return the results of the parts in order
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private <T> List<T> runChunks(int count, ChunkTask<T> task) throws InterruptedException {
+        List<Callable<T>> parts = new ArrayList<>();
+        int chunk = Math.max(1, Math.min(CHUNK, (count + threads - 1) / threads));
+        for (int from = 0; from < count; from += chunk) {
+            int partFrom = from;
+            int partTo = Math.min(count, from + chunk);
+            parts.add(() -> task.run(partFrom, partTo));
+        }
+        List<T> results = new ArrayList<>(parts.size());
+        for (Future<T> future : executor.invokeAll(parts)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tablebase worker failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Logs progress when run from the command line.
+     *
+     * @param level   the level of the message
+     * @param message the message
+     */
+    private static void log(Level level, String message) {
+        if (logger != null) {
+            logger.log(level, message);
+        }
+    }
+
+    /**
+     * Growable array of position indices.
+     */
+    private static class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Builds a tablebase from the command line.
+     *
+     * @param args named arguments, see the class description
+     * @throws IOException          if the tablebase cannot be written
+     * @throws InterruptedException if interrupted while building
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        logger = GameLogger.getInstance();
+        int size = arguments.getInt("size", 3);
+        int target = arguments.getInt("target", 256);
+        int threads = arguments.getInt("threads", Runtime.getRuntime().availableProcessors());
+        Path out = Path.of(arguments.getString("out", Tablebase.defaultPath(size).toString()));
+        logger.log(Level.INFO, "Solving " + size + "x" + size + " for tile " + target + " on " + threads + " threads");
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            Tablebase tablebase = new TablebaseBuilder(size, target, executor, threads).build(out);
+            logger.log(Level.INFO, "Saved " + tablebase.getStateCount() + " positions to " + out.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Plays the optimal move from a {@link Tablebase} in one lookup. Tablebases are mapped on first use from
+ * {@link Tablebase#defaultPath}, and positions not in the table, e.g. after the target tile, are left to a fallback
+ * strategy. Safe to share between threads.
+ */
+public class TablebaseStrategy implements Strategy {
+    private final Map<Integer, Optional<Tablebase>> tablebases = new ConcurrentHashMap<>();
+    private final Strategy fallback;
+
+    /**
+     * Creates a strategy using the tablebase files in the working directory.
+     *
+     * @param fallback the strategy for positions not in a tablebase
+     */
+    public TablebaseStrategy(Strategy fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Creates a strategy using the given tablebase.
+     *
+     * @param tablebase the tablebase
+     * @param fallback  the strategy for positions not in the tablebase
+     */
+    public TablebaseStrategy(Tablebase tablebase, Strategy fallback) {
+        this(fallback);
+        tablebases.put(tablebase.getSize(), Optional.of(tablebase));
+    }
+
+    @Override
+    public String getName() {
+        return "tablebase";
+    }
+
+    @Override
+    public boolean supports(int gridSize) {
+        return tablebase(gridSize).isPresent();
+    }
+
+    @Override
+    public Direction chooseMove(Board board) {
+        Direction direction = tablebase(board.getSize())
+                .map(tablebase -> tablebase.bestMove(board.getBoardState()))
+                .orElse(null);
+        return direction != null ? direction : fallback.chooseMove(board);
+    }
+
+    /**
+     * Returns the tablebase of a board size, mapping its file on first use.
+     *
+     * @param gridSize the number of rows and columns
+     * @return the tablebase, or empty if there is none for the size
+     */
+    private Optional<Tablebase> tablebase(int gridSize) {
+        return tablebases.computeIfAbsent(gridSize, size -> {
+            Path path = Tablebase.defaultPath(size);
+            if (!Files.exists(path)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Tablebase.load(path));
+            } catch (IOException e) {
+                GameLogger logger = GameLogger.getInstance();
+                if (logger != null) {
+                    logger.log(Level.WARNING, "Error loading tablebase: " + e.getMessage());
+                }
+                return Optional.empty();
+            }
+        });
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+import com.example.tilesumgame.engine.BitBoard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Headless temporal-difference trainer for the {@link NTupleNetwork}.
+ * Plays self-play games on packed 4x4 boards across several threads and learns afterstate values with TD(0).
+ * The threads share one network without locking.
+ * <p>
+ * Usage: {@code --games=1000000 --threads=8 --alpha=0.1 --in=ntuple.bin --out=ntuple.bin --seed=1 --logLevel=INFO}
+ */
+public class TdTrainer {
+    private static final int REPORT_INTERVAL = 10_000;
+
+    private final NTupleNetwork network;
+    private final float learningRate;
+    private final AtomicLong gamesPlayed = new AtomicLong();
+    private final LongAdder totalScore = new LongAdder();
+    // Number of games reaching each exponent since the last report
+    private final AtomicLongArray maxTileCounts = new AtomicLongArray(BitBoard.MAX_EXPONENT + 1);
+    private static GameLogger logger;
+
+    /**
+     * Creates a trainer for the given network.
+     *
+     * @param network the network to train
+     * @param alpha   the learning rate, split evenly across all sampled tuples
+     */
+    public TdTrainer(NTupleNetwork network, double alpha) {
+        this.network = network;
+        this.learningRate = (float) (alpha / network.getSampleCount());
+    }
+
+    /**
+     * Plays the given number of games split across threads.
+     *
+     * @param games   the total number of games to play
+     * @param threads the number of threads to use
+     * @param seed    the seed of the random generators
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public void train(long games, int threads, long seed) throws InterruptedException {
+        SplittableRandom root = new SplittableRandom(seed);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = root.split();
+            long share = games / threads + (i < games % threads ? 1 : 0);
+            workers[i] = new Thread(() -> {
+                for (long game = 0; game < share; game++) {
+                    playGame(random);
+                }
+            }, "td-trainer-" + i);
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * Plays one greedy self-play game, updating the network after every move.
+     *
+     * @param random the random generator for tile spawns
+     * @return the final score of the game
+     */
+    int playGame(SplittableRandom random) {
+        long board = BitBoard.spawn(BitBoard.spawn(0L, random), random);
+        long previousAfterstate = 0;
+        boolean hasPrevious = false;
+        int score = 0;
+        while (true) {
+            Direction direction = network.greedyMove(board);
+            if (direction == null) {
+                break;
+            }
+            int reward = BitBoard.score(board, direction);
+            long afterstate = BitBoard.move(board, direction);
+            if (hasPrevious) {
+                learn(previousAfterstate, reward + network.evaluate(afterstate));
+            }
+            previousAfterstate = afterstate;
+            hasPrevious = true;
+            score += reward;
+            board = BitBoard.spawn(afterstate, random);
+        }
+        if (hasPrevious) {
+            // The value of a terminal afterstate is zero
+            learn(previousAfterstate, 0);
+        }
+        recordGame(score, BitBoard.maxExponent(board));
+        return score;
+    }
+
+    /**
+     * Moves the value of an afterstate towards its TD target by the learning rate.
+     *
+     * @param afterstate the packed afterstate
+     * @param target     the reward of the next move plus the value of the next afterstate, 0 at the end of a game
+     */
+    void learn(long afterstate, float target) {
+        network.update(afterstate, learningRate * (target - network.evaluate(afterstate)));
+    }
+
+    /**
+     * Counts a finished game and reports the statistics every {@value #REPORT_INTERVAL} games.
+     *
+     * @param score       the final score of the game
+     * @param maxExponent the exponent of the highest tile reached
+     */
+    private void recordGame(int score, int maxExponent) {
+        totalScore.add(score);
+        maxTileCounts.incrementAndGet(maxExponent);
+        long played = gamesPlayed.incrementAndGet();
+        if (played % REPORT_INTERVAL == 0) {
+            report(played);
+        }
+    }
+
+    /**
+     * Logs the average score and the share of games reaching the big tiles since the last report.
+     *
+     * @param played the number of games played so far
+     */
+    private void report(long played) {
+        long sum = totalScore.sumThenReset();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Games: %d, average score: %.1f", played, (double) sum / REPORT_INTERVAL));
+        // Share of games reaching at least 2048, 4096 and 8192
+        long reached = 0;
+        for (int exponent = BitBoard.MAX_EXPONENT; exponent >= 11; exponent--) {
+            reached += maxTileCounts.getAndSet(exponent, 0);
+            if (exponent <= 13) {
+                sb.append(String.format(", %d: %.1f%%", 1 << exponent, 100.0 * reached / REPORT_INTERVAL));
+            }
+        }
+        for (int exponent = 0; exponent < 11; exponent++) {
+            maxTileCounts.set(exponent, 0);
+        }
+        log(Level.INFO, sb.toString());
+    }
+
+    /**
+     * Logs a message if the logger is initialized, which only the command line does.
+     *
+     * @param level   the level of the message
+     * @param message the message
+     */
+    private static void log(Level level, String message) {
+        if (logger != null) {
+            logger.log(level, message);
+        }
+    }
+
+    /**
+     * Trains a network from the command line and saves the weights.
+     *
+     * @param args the named command line arguments
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        logger = GameLogger.getInstance();
+
+        Path in = Path.of(arguments.getString("in", "ntuple.bin"));
+        Path out = Path.of(arguments.getString("out", "ntuple.bin"));
+        NTupleNetwork network = Files.exists(in) ? NTupleNetwork.load(in) : new NTupleNetwork();
+        TdTrainer trainer = new TdTrainer(network, arguments.getDouble("alpha", 0.1));
+
+        long games = arguments.getLong("games", 1_000_000);
+        int threads = arguments.getInt("threads", Runtime.getRuntime().availableProcessors());
+        logger.log(Level.INFO, "Training " + games + " games on " + threads + " threads");
+        long start = System.nanoTime();
+        trainer.train(games, threads, arguments.getLong("seed", System.nanoTime()));
+        logger.log(Level.INFO, String.format("Trained in %.1f s", (System.nanoTime() - start) / 1e9));
+
+        network.save(out);
+        logger.log(Level.INFO, "Saved weights to " + out.toAbsolutePath());
+    }
+}
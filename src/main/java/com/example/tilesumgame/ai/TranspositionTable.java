@@ -0,0 +1,92 @@
+package com.example.tilesumgame.ai;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of expectimax values keyed by packed board, replacing entries on collision.
+ * Not thread-safe, every search thread needs its own table.
+ */
+public class TranspositionTable {
+    private final long[] keys;
+    private final float[] values;
+    private final byte[] depths;
+    private final int mask;
+    private long lookups;
+    private long hits;
+
+    /**
+     * Creates a table with {@code 2^bits} entries.
+     *
+     * @param bits the base-2 logarithm of the number of entries
+     */
+    public TranspositionTable(int bits) {
+        int size = 1 << bits;
+        keys = new long[size];
+        values = new float[size];
+        depths = new byte[size];
+        mask = size - 1;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 40) & mask;
+    }
+
+    /**
+     * Looks up the value of a board searched at least as deep as requested.
+     *
+     * @param key   the packed board, 0 is reserved for empty slots
+     * @param depth the remaining search depth
+     * @return the cached value, or NaN if there is no usable entry
+     */
+    public float get(long key, int depth) {
+        lookups++;
+        int slot = slot(key);
+        if (keys[slot] == key && depths[slot] >= depth) {
+            hits++;
+            return values[slot];
+        }
+        return Float.NaN;
+    }
+
+    /**
+     * Stores the value of a board searched to the given depth.
+     *
+     * @param key   the packed board
+     * @param depth the remaining search depth
+     * @param value the value of the board
+     */
+    public void put(long key, int depth, float value) {
+        int slot = slot(key);
+        keys[slot] = key;
+        depths[slot] = (byte) depth;
+        values[slot] = value;
+    }
+
+    /**
+     * Removes all entries and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        lookups = 0;
+        hits = 0;
+    }
+
+    /**
+     * Returns the number of lookups since the table was created or cleared.
+     *
+     * @return the number of lookups
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Returns the number of lookups that found a usable entry.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.tilesumgame.analytics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistics gathered from game journals and score files: {@link SizeStats} per board size for journaled games and a
+ * histogram of the saved scores. Not thread-safe; reports of different file segments are combined with
+ * {@link #merge}.
+ */
+public class AnalyticsReport {
+    private final Map<Integer, SizeStats> sizes = new TreeMap<>();
+    private final ValueHistogram savedScores = new ValueHistogram();
+    private long skippedLines;
+
+    /**
+     * Returns the statistics of a board size, creating them when missing.
+     *
+     * @param size the board size
+     * @return the statistics
+     */
+    SizeStats sizeStats(int size) {
+        return sizes.computeIfAbsent(size, SizeStats::new);
+    }
+
+    /**
+     * Adds a score of the score file.
+     *
+     * @param score the score
+     */
+    void addSavedScore(long score) {
+        savedScores.record(score);
+    }
+
+    /**
+     * Counts a line that is neither a journal nor a score line.
+     */
+    void skipLine() {
+        skippedLines++;
+    }
+
+    /**
+     * Adds the statistics of another report.
+     *
+     * @param other the report to add
+     * @return this report
+     */
+    public AnalyticsReport merge(AnalyticsReport other) {
+        other.sizes.forEach((size, stats) -> sizeStats(size).merge(stats));
+        savedScores.merge(other.savedScores);
+        skippedLines += other.skippedLines;
+        return this;
+    }
+
+    /**
+     * Returns the statistics of the journaled games of a board size.
+     *
+     * @param size the board size
+     * @return the statistics, empty when no game of that size was found
+     */
+    public SizeStats getSizeStats(int size) {
+        SizeStats stats = sizes.get(size);
+        return stats == null ? new SizeStats(size) : stats;
+    }
+
+    /**
+     * Returns the board sizes of the journaled games.
+     *
+     * @return the sizes in ascending order
+     */
+    public Iterable<Integer> getSizes() {
+        return sizes.keySet();
+    }
+
+    /**
+     * Returns the scores of the score files.
+     *
+     * @return the score histogram
+     */
+    public ValueHistogram getSavedScores() {
+        return savedScores;
+    }
+
+    /**
+     * Returns the number of lines that could not be parsed.
+     *
+     * @return the number of skipped lines
+     */
+    public long getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Formats the report as a JSON object.
+     *
+     * @param curveStep the distance in moves between the points of the survival curves
+     * @return the JSON object
+     */
+    public String toJson(int curveStep) {
+        StringBuilder json = new StringBuilder("{\n  \"savedScores\": ")
+                .append(SizeStats.histogramJson(savedScores))
+                .append(",\n  \"skippedLines\": ").append(skippedLines)
+                .append(",\n  \"sizes\": [");
+        String separator = "\n    ";
+        for (SizeStats stats : sizes.values()) {
+            json.append(separator).append(stats.toJson(curveStep));
+            separator = ",\n    ";
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.tilesumgame.analytics;
+
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Streams over game journals written by {@link com.example.tilesumgame.events.JournalRecorder} and score files written
+ * by {@link com.example.tilesumgame.ScoreManager} and gathers an {@link AnalyticsReport} in one pass.
+ * <p>
+ * Every file is split into segments of {@code --segmentMb} megabytes, which are memory-mapped and parsed in a
+ * parallel stream without decoding lines into strings. A line belongs to the segment its first byte lies in, so lines
+ * crossing a segment boundary are read by exactly one segment. Each segment fills its own report and the reports are
+ * merged, so memory depends on the number of threads and not on the size of the files. The line format is detected
+ * per line, journals and score files can be mixed.
+ * <p>
+ * Usage: {@code --files=games.journal,scores.txt --segmentMb=64 --curveStep=50 --out=analytics.json}, where
+ * directories in {@code --files} stand for the regular files they contain.
+ */
+public class GameAnalytics {
+    private static final long INITIAL_TAIL = 64 * 1024;
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+    private static GameLogger logger;
+
+    /**
+     * A byte range of a file. Its lines are the ones starting in the range.
+     *
+     * @param file  the file
+     * @param start the first byte
+     * @param end   the byte after the range
+     */
+    private record Segment(Path file, long start, long end) {
+    }
+
+    /**
+     * Analyzes files in parallel.
+     *
+     * @param files        the journal and score files
+     * @param segmentBytes the size of the segments the files are split into
+     * @return the combined report
+     * @throws IOException if a file cannot be read
+     */
+    public static AnalyticsReport analyze(List<Path> files, long segmentBytes) throws IOException {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentBytes);
+        }
+        List<Segment> segments = new ArrayList<>();
+        for (Path file : files) {
+            long size = Files.size(file);
+            for (long start = 0; start < size; start += segmentBytes) {
+                segments.add(new Segment(file, start, Math.min(size, start + segmentBytes)));
+            }
+        }
+        try {
+            return segments.parallelStream()
+                    .map(GameAnalytics::analyzeSegment)
+                    .reduce(AnalyticsReport::merge)
+                    .orElseGet(AnalyticsReport::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses the lines starting in a segment. The mapping reaches past the segment end so the last line can be
+     * completed, and is extended when that line is longer.
+     *
+     * @param segment the segment
+     * @return the report of the segment
+     */
+    private static AnalyticsReport analyzeSegment(Segment segment) {
+        AnalyticsReport report = new AnalyticsReport();
+        LineCursor cursor = new LineCursor();
+        try (FileChannel channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            // Before the first line of a segment that does not start the file is the end of the previous line
+            long position = segment.start() == 0 ? 0 : segment.start() - 1;
+            boolean aligned = segment.start() == 0;
+            long tail = INITIAL_TAIL;
+            while (position < segment.end()) {
+                int length = (int) Math.min(fileSize - position,
+                        Math.min(MAX_MAPPING, segment.end() - position + tail));
+                boolean atEnd = position + length == fileSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int lineStart = 0;
+                if (!aligned) {
+                    int newline = indexOfNewline(buffer, 0, length);
+                    if (newline < 0) {
+                        if (atEnd) {
+                            break;
+                        }
+                        tail = grow(tail, length);
+                        continue;
+                    }
+                    lineStart = newline + 1;
+                    aligned = true;
+                }
+                boolean complete = false;
+                while (!complete && position + lineStart < segment.end()) {
+                    int newline = indexOfNewline(buffer, lineStart, length);
+                    if (newline < 0 && !atEnd) {
+                        break;
+                    }
+                    int lineEnd = newline < 0 ? length : newline;
+                    cursor.reset(buffer, lineStart, lineEnd);
+                    parseLine(cursor, report);
+                    lineStart = lineEnd + 1;
+                    complete = newline < 0;
+                }
+                if (complete || position + lineStart >= segment.end()) {
+                    break;
+                }
+                // The line at lineStart runs past the mapping
+                if (lineStart == 0) {
+                    tail = grow(tail, length);
+                }
+                position += lineStart;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report;
+    }
+
+    /**
+     * Doubles the bytes mapped past a segment end.
+     *
+     * @param tail   the current number of bytes
+     * @param mapped the number of bytes mapped, which did not contain a whole line
+     * @return the new number of bytes
+     * @throws IOException if the line cannot be mapped at once
+     */
+    private static long grow(long tail, int mapped) throws IOException {
+        if (mapped >= MAX_MAPPING) {
+            throw new IOException("Line longer than " + MAX_MAPPING + " bytes");
+        }
+        return tail * 2;
+    }
+
+    /**
+     * Finds the next line feed.
+     *
+     * @param buffer the mapped bytes
+     * @param from   the first byte to check
+     * @param to     the byte after the last one to check
+     * @return the index of the line feed, -1 when none
+     */
+    private static int indexOfNewline(MappedByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a line to a report. Journal lines start with two numbers, the size and the start time; score lines with
+     * the score followed by a date.
+     *
+     * @param cursor the cursor at the start of the line
+     * @param report the report to add to
+     */
+    private static void parseLine(LineCursor cursor, AnalyticsReport report) {
+        ByteBuffer buffer = cursor.buffer;
+        int to = cursor.end;
+        if (to > cursor.position && buffer.get(to - 1) == '\r') {
+            to = --cursor.end;
+        }
+        if (cursor.position == to) {
+            return;
+        }
+        long first = cursor.number();
+        if (first < 0 || !cursor.skip('|')) {
+            report.skipLine();
+            return;
+        }
+        int afterFirst = cursor.position;
+        long startMillis = cursor.number();
+        if (startMillis < 0 || !cursor.skip('|')) {
+            // Score lines continue with a date such as 2024-05-01 12:00:00
+            cursor.position = afterFirst;
+            if (cursor.number() >= 0 && cursor.skip('-')) {
+                report.addSavedScore(first);
+            } else {
+                report.skipLine();
+            }
+            return;
+        }
+        int outcome = cursor.position < to ? buffer.get(cursor.position) : 0;
+        if (!cursor.skipField()) {
+            report.skipLine();
+            return;
+        }
+        long score = cursor.number();
+        boolean valid = score >= 0 && cursor.skip('|');
+        long moves = valid ? cursor.number() : -1;
+        valid = moves >= 0 && moves <= Integer.MAX_VALUE && cursor.skip('|');
+        long maxTile = valid ? cursor.number() : -1;
+        if (maxTile < 0 || maxTile > Integer.MAX_VALUE || !cursor.skip('|') || first <= 0 || first > Integer.MAX_VALUE) {
+            report.skipLine();
+            return;
+        }
+        SizeStats stats = report.sizeStats((int) first);
+        stats.addGame((char) outcome, score, (int) moves, (int) maxTile);
+        // firstMoves: tile:move pairs separated by commas, the directions after it are not needed
+        while (cursor.position < to && buffer.get(cursor.position) != '|') {
+            long tile = cursor.number();
+            if (tile < 0 || !cursor.skip(':')) {
+                return;
+            }
+            long move = cursor.number();
+            if (move < 0 || tile > Integer.MAX_VALUE || move > Integer.MAX_VALUE) {
+                return;
+            }
+            stats.addFirstMove((int) tile, (int) move);
+            cursor.skip(',');
+        }
+    }
+
+    /**
+     * Reads fields of a line without copying them. One cursor is reused for all lines of a segment.
+     */
+    private static class LineCursor {
+        private ByteBuffer buffer;
+        private int end;
+        private int position;
+
+        /**
+         * Moves the cursor to the start of a line.
+         *
+         * @param buffer the bytes
+         * @param start  the first byte of the line
+         * @param end    the byte after the line
+         */
+        void reset(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.position = start;
+            this.end = end;
+        }
+
+        /**
+         * Reads a non-negative decimal number.
+         *
+         * @return the number, -1 when there is no digit or it overflows
+         */
+        long number() {
+            int start = position;
+            long value = 0;
+            while (position < end) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+                position++;
+            }
+            return position == start ? -1 : value;
+        }
+
+        /**
+         * Skips a separator.
+         *
+         * @param separator the expected byte
+         * @return whether the next byte was the separator
+         */
+        boolean skip(char separator) {
+            if (position < end && buffer.get(position) == separator) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips the rest of a field and its separator.
+         *
+         * @return whether a separator followed
+         */
+        boolean skipField() {
+            while (position < end && buffer.get(position) != '|') {
+                position++;
+            }
+            return skip('|');
+        }
+    }
+
+    /**
+     * Expands directories to the regular files they contain.
+     *
+     * @param names comma-separated file or directory names
+     * @return the files
+     * @throws IOException if a directory cannot be listed
+     */
+    private static List<Path> listFiles(String names) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String name : names.split(",")) {
+            Path path = Path.of(name.trim());
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> entries = Files.list(path)) {
+                    entries.filter(Files::isRegularFile).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Analyzes the given files and writes the report.
+     *
+     * @param args named arguments, see the class description
+     * @throws IOException if a file cannot be read or the report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        logger = GameLogger.getInstance();
+        List<Path> files = listFiles(arguments.getString("files", "scores.txt"));
+        long segmentBytes = arguments.getLong("segmentMb", 64) * 1024 * 1024;
+        int curveStep = Math.max(1, arguments.getInt("curveStep", 50));
+
+        long started = System.nanoTime();
+        AnalyticsReport report = analyze(files, segmentBytes);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long bytes = 0;
+        for (Path file : files) {
+            bytes += Files.size(file);
+        }
+        logger.log(Level.INFO, String.format(Locale.ROOT, "Analyzed %d files, %.1f MB in %.1f s",
+                files.size(), bytes / 1e6, seconds));
+        for (int size : report.getSizes()) {
+            SizeStats stats = report.getSizeStats(size);
+            logger.log(Level.INFO, String.format(Locale.ROOT,
+                    "%dx%d: %d games, %.1f%% won, median score %d, median length %d moves",
+                    size, size, stats.getGames(), 100.0 * stats.getWon() / stats.getGames(),
+                    stats.getScores().getPercentile(50), stats.getLengths().getPercentile(50)));
+        }
+        if (report.getSavedScores().getCount() > 0) {
+            logger.log(Level.INFO, "Saved scores: " + report.getSavedScores().getCount() + ", median "
+                    + report.getSavedScores().getPercentile(50));
+        }
+        if (report.getSkippedLines() > 0) {
+            logger.log(Level.WARNING, "Skipped " + report.getSkippedLines() + " unreadable lines");
+        }
+        String json = report.toJson(curveStep);
+        String out = arguments.getString("out", "");
+        if (out.isEmpty()) {
+            System.out.print(json);
+        } else {
+            Files.writeString(Path.of(out), json, StandardCharsets.UTF_8);
+            logger.log(Level.INFO, "Wrote " + out);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.tilesumgame.analytics;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Statistics of the journaled games of one board size. Memory depends on the length of the longest game, not on the
+ * number of games. Not thread-safe; statistics gathered on different threads are combined with {@link #merge}.
+ */
+public class SizeStats {
+    private static final int MAX_EXPONENT = 31;
+
+    private final int size;
+    private long won;
+    private long lost;
+    private long abandoned;
+    private final ValueHistogram scores = new ValueHistogram();
+    private final ValueHistogram lengths = new ValueHistogram();
+    // endedAt[n] counts the games that ended after exactly n moves
+    private long[] endedAt = new long[256];
+    private final long[] maxTiles = new long[MAX_EXPONENT + 1];
+    private final ValueHistogram[] firstMoves = new ValueHistogram[MAX_EXPONENT + 1];
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param size the board size
+     */
+    public SizeStats(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Adds a game.
+     *
+     * @param outcome the outcome: 'W' won, 'L' lost, anything else abandoned
+     * @param score   the final score
+     * @param moves   the number of moves played
+     * @param maxTile the highest tile value reached
+     */
+    void addGame(char outcome, long score, int moves, int maxTile) {
+        switch (outcome) {
+            case 'W' -> won++;
+            case 'L' -> lost++;
+            default -> abandoned++;
+        }
+        scores.record(score);
+        lengths.record(moves);
+        if (moves >= endedAt.length) {
+            endedAt = Arrays.copyOf(endedAt, Math.max(moves + 1, endedAt.length * 2));
+        }
+        endedAt[moves]++;
+        maxTiles[exponent(maxTile)]++;
+    }
+
+    /**
+     * Adds the move at which a game first reached a tile value.
+     *
+     * @param tile the tile value
+     * @param move the move number
+     */
+    void addFirstMove(int tile, int move) {
+        int exponent = exponent(tile);
+        if (firstMoves[exponent] == null) {
+            firstMoves[exponent] = new ValueHistogram();
+        }
+        firstMoves[exponent].record(move);
+    }
+
+    /**
+     * Adds the games of other statistics of the same size.
+     *
+     * @param other the statistics to add
+     */
+    public void merge(SizeStats other) {
+        won += other.won;
+        lost += other.lost;
+        abandoned += other.abandoned;
+        scores.merge(other.scores);
+        lengths.merge(other.lengths);
+        if (other.endedAt.length > endedAt.length) {
+            endedAt = Arrays.copyOf(endedAt, other.endedAt.length);
+        }
+        for (int i = 0; i < other.endedAt.length; i++) {
+            endedAt[i] += other.endedAt[i];
+        }
+        for (int i = 0; i <= MAX_EXPONENT; i++) {
+            maxTiles[i] += other.maxTiles[i];
+            if (other.firstMoves[i] != null) {
+                if (firstMoves[i] == null) {
+                    firstMoves[i] = new ValueHistogram();
+                }
+                firstMoves[i].merge(other.firstMoves[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the board size.
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of games.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return won + lost + abandoned;
+    }
+
+    /**
+     * Returns the number of won games.
+     *
+     * @return the number of won games
+     */
+    public long getWon() {
+        return won;
+    }
+
+    /**
+     * Returns the number of lost games.
+     *
+     * @return the number of lost games
+     */
+    public long getLost() {
+        return lost;
+    }
+
+    /**
+     * Returns the final scores.
+     *
+     * @return the score histogram
+     */
+    public ValueHistogram getScores() {
+        return scores;
+    }
+
+    /**
+     * Returns the game lengths in moves.
+     *
+     * @return the length histogram
+     */
+    public ValueHistogram getLengths() {
+        return lengths;
+    }
+
+    /**
+     * Returns the share of games still running after a number of moves.
+     *
+     * @param move the move number
+     * @return the share of games with more than {@code move} moves
+     */
+    public double getSurvival(int move) {
+        long games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+        long ended = 0;
+        for (int i = 0; i <= move && i < endedAt.length; i++) {
+            ended += endedAt[i];
+        }
+        return (double) (games - ended) / games;
+    }
+
+    /**
+     * Returns the number of games whose highest tile was a value.
+     *
+     * @param tile the tile value
+     * @return the number of games
+     */
+    public long getMaxTileCount(int tile) {
+        return maxTiles[exponent(tile)];
+    }
+
+    /**
+     * Returns the moves at which games first reached a tile value.
+     *
+     * @param tile the tile value
+     * @return the histogram of moves, empty when no game reached the tile
+     */
+    public ValueHistogram getFirstMoves(int tile) {
+        ValueHistogram histogram = firstMoves[exponent(tile)];
+        return histogram == null ? new ValueHistogram() : histogram;
+    }
+
+    /**
+     * Formats the statistics as a JSON object.
+     *
+     * @param curveStep the distance in moves between the points of the survival curve
+     * @return the JSON object
+     */
+    public String toJson(int curveStep) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"size\": ").append(size)
+                .append(", \"games\": ").append(getGames())
+                .append(", \"won\": ").append(won)
+                .append(", \"lost\": ").append(lost)
+                .append(", \"abandoned\": ").append(abandoned)
+                .append(", \"score\": ").append(histogramJson(scores))
+                .append(", \"moves\": ").append(histogramJson(lengths))
+                .append(", \"maxTiles\": {");
+        String separator = "";
+        for (int i = 1; i <= MAX_EXPONENT; i++) {
+            if (maxTiles[i] > 0) {
+                json.append(separator).append('"').append(1L << i).append("\": ").append(maxTiles[i]);
+                separator = ", ";
+            }
+        }
+        json.append("}, \"tiles\": {");
+        separator = "";
+        for (int i = 1; i <= MAX_EXPONENT; i++) {
+            if (firstMoves[i] != null) {
+                json.append(separator).append('"').append(1L << i).append("\": {\"reached\": ")
+                        .append(format((double) firstMoves[i].getCount() / getGames()))
+                        .append(", \"firstMove\": ").append(histogramJson(firstMoves[i])).append('}');
+                separator = ", ";
+            }
+        }
+        json.append("}, \"survival\": [");
+        int last = (int) lengths.getMax();
+        for (int move = 0; move <= last; move += curveStep) {
+            json.append(move == 0 ? "" : ", ").append("[").append(move).append(", ")
+                    .append(format(getSurvival(move))).append(']');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Formats a histogram as a JSON object of its mean and percentiles.
+     *
+     * @param histogram the histogram
+     * @return the JSON object
+     */
+    static String histogramJson(ValueHistogram histogram) {
+        return String.format(Locale.ROOT,
+                "{\"count\": %d, \"mean\": %.1f, \"min\": %d, \"p10\": %d, \"p50\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d}",
+                histogram.getCount(), histogram.getMean(), histogram.getMin(), histogram.getPercentile(10),
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99),
+                histogram.getMax());
+    }
+
+    /**
+     * Formats a share with four decimals.
+     *
+     * @param share the share
+     * @return the formatted share
+     */
+    private static String format(double share) {
+        return String.format(Locale.ROOT, "%.4f", share);
+    }
+
+    /**
+     * Returns the exponent of a tile value, clamped to the supported range.
+     *
+     * @param tile the tile value
+     * @return the exponent
+     */
+    private static int exponent(int tile) {
+        return tile <= 1 ? 0 : Math.min(MAX_EXPONENT, 31 - Integer.numberOfLeadingZeros(tile));
+    }
+}
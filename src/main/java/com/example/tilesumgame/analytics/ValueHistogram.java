@@ -0,0 +1,142 @@
+package com.example.tilesumgame.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative values in a fixed number of log-linear buckets: values below 64 are counted exactly and
+ * larger ones within 1/32 of their magnitude, so percentiles of any number of values take constant memory. Not
+ * thread-safe; histograms filled on different threads are combined with {@link #merge}.
+ */
+public class ValueHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT = 2 * SUB_BUCKETS; // Values below this have a bucket of their own
+    private static final int BUCKETS = EXACT + (63 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records a value.
+     *
+     * @param value the value, negative values are counted as 0
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[bucket(clamped)]++;
+        count++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Adds the values of another histogram.
+     *
+     * @param other the histogram to add
+     */
+    public void merge(ValueHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean, 0 when empty
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return the minimum, 0 when empty
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the maximum, 0 when empty
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns a percentile of the recorded values, as the lowest value of its bucket.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the value, 0 when empty
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, lowestValue(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the bucket of a value.
+     *
+     * @param value the value, not negative
+     * @return the bucket index
+     */
+    static int bucket(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value); // At least SUB_BUCKET_BITS + 1
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (magnitude - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the lowest value of a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the lowest value counted in the bucket
+     */
+    static long lowestValue(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int magnitude = (bucket - EXACT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        long subBucket = (bucket - EXACT) % SUB_BUCKETS;
+        return (1L << magnitude) | (subBucket << (magnitude - SUB_BUCKET_BITS));
+    }
+
+    @Override
+    public String toString() {
+        return "ValueHistogram" + Arrays.toString(new long[]{count, getPercentile(50), getPercentile(99), max});
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+import com.example.tilesumgame.ai.HeuristicTables;
+import com.example.tilesumgame.engine.BitBoard;
+import com.example.tilesumgame.engine.BoardBatch;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+
+/**
+ * Compares expanding many candidate boards one {@link Board} object at a time with doing the same work on a
+ * {@link BoardBatch}. Both paths move every board in the four directions, evaluate the results and drop the boards that
+ * cannot move any more; 4x4 boards are evaluated with {@link HeuristicTables}, other sizes by their empty cells.
+ * <p>
+ * Usage: {@code --size=4 --boards=100000 --rounds=10 --seed=1 --logLevel=INFO}
+ */
+public class BatchBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Runs the benchmark from the command line.
+     *
+     * @param args the named command line arguments
+     */
+    public static void main(String[] args) {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        GameLogger logger = GameLogger.getInstance();
+
+        int size = arguments.getInt("size", 4);
+        int rounds = arguments.getInt("rounds", 10);
+        int[][][] grids = randomGrids(arguments.getInt("boards", 100_000), size, arguments.getLong("seed", 1));
+        HeuristicTables heuristic = new HeuristicTables();
+        BoardBatch batch = new BoardBatch(size, grids.length);
+        for (int i = 0; i < grids.length; i++) {
+            batch.add(grids[i], i);
+        }
+        // The first round of each path warms up the JIT and is not measured
+        double objectSum = 0, batchSum = 0;
+        long objectNanos = 0, batchNanos = 0;
+        for (int round = 0; round <= rounds; round++) {
+            long start = System.nanoTime();
+            objectSum = expandObjects(grids, heuristic);
+            long middle = System.nanoTime();
+            batchSum = expandBatch(batch, heuristic);
+            long end = System.nanoTime();
+            if (round > 0) {
+                objectNanos += middle - start;
+                batchNanos += end - middle;
+            }
+        }
+        if (objectSum != batchSum) {
+            logger.log(Level.WARNING, "Results differ: objects " + objectSum + ", batch " + batchSum);
+        }
+        double boards = (double) grids.length * rounds;
+        logger.log(Level.INFO, String.format("%dx%d, %d boards x %d rounds: objects %.0f boards/s, batch %.0f boards/s, "
+                        + "speedup %.1fx", size, size, grids.length, rounds, boards * 1e9 / objectNanos,
+                boards * 1e9 / batchNanos, (double) objectNanos / batchNanos));
+    }
+
+    /**
+     * Expands every board as a {@link Board} object.
+     *
+     * @param grids     the boards
+     * @param heuristic the evaluation of 4x4 boards
+     * @return the summed values of the moved boards that can still move
+     */
+    static double expandObjects(int[][][] grids, HeuristicTables heuristic) {
+        double sum = 0;
+        for (int[][] grid : grids) {
+            for (Direction direction : DIRECTIONS) {
+                Board board = new Board(grid.length, new Random(0));
+                board.setBoardState(grid);
+                if (board.move(direction) && board.canMove()) {
+                    int[][] state = board.getBoardState();
+                    sum += state.length == BitBoard.SIZE ? heuristic.evaluate(BitBoard.fromGrid(state)) : emptyCells(state);
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Expands all boards of a batch at once.
+     *
+     * @param batch     the boards, left unchanged
+     * @param heuristic the evaluation of 4x4 boards
+     * @return the summed values of the moved boards that can still move
+     */
+    static double expandBatch(BoardBatch batch, HeuristicTables heuristic) {
+        BoardBatch moved = new BoardBatch(batch.getBoardSize(), batch.count());
+        int[] gained = new int[batch.count()];
+        float[] values = new float[batch.count()];
+        double sum = 0;
+        for (Direction direction : DIRECTIONS) {
+            moved.copyFrom(batch);
+            moved.moveAll(direction, gained);
+            moved.filterTerminal();
+            if (moved.isPacked()) {
+                moved.evaluateAll(heuristic::evaluate, values);
+            } else {
+                moved.evaluateAll(BoardBatch::emptyCells, values);
+            }
+            for (int i = 0; i < moved.count(); i++) {
+                // Tags point back at the original board, so the gained scores survive filtering
+                if (gained[moved.getTag(i)] >= 0) {
+                    sum += values[i];
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Counts the empty cells of a board.
+     *
+     * @param grid the tile values
+     * @return the number of empty cells
+     */
+    private static int emptyCells(int[][] grid) {
+        int empty = 0;
+        for (int[] row : grid) {
+            for (int value : row) {
+                empty += value == 0 ? 1 : 0;
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Creates random boards with about a quarter of the cells empty.
+     *
+     * @param count the number of boards
+     * @param size  the number of rows and columns
+     * @param seed  the seed of the tiles
+     * @return the tile values of the boards
+     */
+    private static int[][][] randomGrids(int count, int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][][] grids = new int[count][size][size];
+        for (int[][] grid : grids) {
+            for (int[] row : grid) {
+                for (int col = 0; col < size; col++) {
+                    row[col] = random.nextInt(4) == 0 ? 0 : 2 << random.nextInt(10);
+                }
+            }
+        }
+        return grids;
+    }
+}
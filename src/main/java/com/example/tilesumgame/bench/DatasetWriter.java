@@ -0,0 +1,372 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.BitBoard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends training positions of many games to memory-mapped binary files, {@code <prefix>-00000.bin},
+ * {@code <prefix>-00001.bin} and so on, each at most one segment long.
+ * <p>
+ * Every move is a fixed-width little-endian record:
+ * <ul>
+ *     <li>the board before the move: a {@link BitBoard} {@code long} on 4x4 boards, otherwise one exponent byte per
+ *     cell, row by row, padded with zeros to a multiple of 8 bytes</li>
+ *     <li>the {@link Direction} ordinal of the move (1 byte)</li>
+ *     <li>the outcome of the game: {@link #LOST}, {@link #WON} or {@link #UNFINISHED} (1 byte)</li>
+ *     <li>the highest tile exponent reached in the game (1 byte)</li>
+ *     <li>a reserved zero byte</li>
+ *     <li>the score gained by the move (4 bytes)</li>
+ * </ul>
+ * Games are buffered by a {@link GameRecorder} per thread until they end, then a single atomic add claims the space of
+ * all their records, so threads copy into the segments in parallel without locking. Segments are mapped in blocks of
+ * {@value #BLOCK_BYTES} bytes once a block is entirely claimed; the claimed tail after the last such block is written
+ * through the file channel. A file therefore never grows past its records and is never truncated while mapped, which
+ * Windows does not allow.
+ */
+public class DatasetWriter implements AutoCloseable {
+    public static final int LOST = 1;
+    public static final int WON = 2;
+    public static final int UNFINISHED = 3;
+    private static final int BLOCK_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final String prefix;
+    private final int gridSize;
+    private final int boardBytes;
+    private final int recordBytes;
+    private final long segmentBytes;
+    private final AtomicLong claimed = new AtomicLong();
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * An open segment file, its mapped blocks and the number of its bytes written so far.
+     *
+     * @param channel the channel of the file, writing the tail and mapping the blocks
+     * @param blocks  the mapped blocks by index
+     * @param written the number of bytes copied into the segment
+     */
+    private record Segment(FileChannel channel, Map<Integer, MappedByteBuffer> blocks, AtomicLong written) {
+    }
+
+    /**
+     * Creates a writer. Existing segments with the same prefix are overwritten.
+     *
+     * @param directory    the directory of the segment files, created if missing
+     * @param prefix       the file name prefix of the segments
+     * @param gridSize     the number of rows and columns of the boards
+     * @param segmentBytes the maximum size of a segment file, rounded down to whole records
+     * @throws IOException if the directory cannot be created
+     */
+    public DatasetWriter(Path directory, String prefix, int gridSize, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.gridSize = gridSize;
+        this.boardBytes = boardBytes(gridSize);
+        this.recordBytes = recordBytes(gridSize);
+        this.segmentBytes = Math.min(segmentBytes, Integer.MAX_VALUE) / recordBytes * recordBytes;
+        if (this.segmentBytes == 0) {
+            throw new IllegalArgumentException("Segments must hold at least one record of " + recordBytes + " bytes");
+        }
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Returns the size of a record for boards of the given size.
+     *
+     * @param gridSize the number of rows and columns
+     * @return the number of bytes per record
+     */
+    public static int recordBytes(int gridSize) {
+        return boardBytes(gridSize) + 8;
+    }
+
+    /**
+     * Returns the size of the board field of a record.
+     *
+     * @param gridSize the number of rows and columns
+     * @return the number of bytes of a board
+     */
+    private static int boardBytes(int gridSize) {
+        return gridSize == BitBoard.SIZE ? Long.BYTES : (gridSize * gridSize + 7) / 8 * 8;
+    }
+
+    /**
+     * Returns the path of a segment file.
+     *
+     * @param index the index of the segment, from 0
+     * @return the path of the segment
+     */
+    public Path segmentPath(int index) {
+        return directory.resolve(String.format("%s-%05d.bin", prefix, index));
+    }
+
+    /**
+     * Creates a recorder buffering the moves of one game at a time. Every thread needs its own recorder.
+     *
+     * @return the recorder
+     */
+    public GameRecorder newRecorder() {
+        return new GameRecorder();
+    }
+
+    /**
+     * Returns the number of records of all finished games.
+     *
+     * @return the number of records written
+     */
+    public long getRecordCount() {
+        return claimed.get() / recordBytes;
+    }
+
+    /**
+     * Copies the records of a game to the segments. The space is claimed with one atomic add, so concurrent games never
+     * overlap; records of one game may continue in the next segment.
+     *
+     * @param records the records
+     * @param length  the number of bytes of the records
+     */
+    private void append(byte[] records, int length) {
+        if (closed) {
+            throw new IllegalStateException("The dataset is closed");
+        }
+        long offset = claimed.getAndAdd(length);
+        long claimedEnd = offset + length;
+        int position = 0;
+        while (position < length) {
+            int index = (int) (offset / segmentBytes);
+            long segmentStart = index * segmentBytes;
+            int within = (int) (offset - segmentStart);
+            int count = (int) Math.min(length - position, segmentBytes - within);
+            Segment segment = segments.computeIfAbsent(index, this::open);
+            write(segment, within, records, position, count, Math.min(segmentBytes, claimedEnd - segmentStart));
+            if (segment.written().addAndGet(count) == segmentBytes) {
+                // Full: no other thread can write to it, the mappings are released when collected
+                segments.remove(index);
+                closeChannel(segment);
+            }
+            position += count;
+            offset += count;
+        }
+    }
+
+    /**
+     * Copies records into a segment, block by block. Blocks entirely within the claimed space are mapped, the part of
+     * the last, partly claimed block is written through the channel, so the file only grows as far as it is claimed.
+     *
+     * @param segment      the segment
+     * @param within       the offset in the segment
+     * @param records      the buffer of the records
+     * @param position     the offset of the records in the buffer
+     * @param count        the number of bytes to copy
+     * @param claimedBytes the number of bytes of the segment claimed so far, at least {@code within + count}
+     */
+    private void write(Segment segment, int within, byte[] records, int position, int count, long claimedBytes) {
+        while (count > 0) {
+            int block = within / BLOCK_BYTES;
+            int blockStart = block * BLOCK_BYTES;
+            int blockSize = (int) Math.min(BLOCK_BYTES, segmentBytes - blockStart);
+            int piece = Math.min(count, blockStart + blockSize - within);
+            if (blockStart + blockSize <= claimedBytes) {
+                MappedByteBuffer buffer = segment.blocks().computeIfAbsent(block, _ -> map(segment, blockStart, blockSize));
+                buffer.put(within - blockStart, records, position, piece);
+            } else {
+                ByteBuffer tail = ByteBuffer.wrap(records, position, piece);
+                try {
+                    for (long at = within; tail.hasRemaining(); ) {
+                        at += segment.channel().write(tail, at);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            within += piece;
+            position += piece;
+            count -= piece;
+        }
+    }
+
+    /**
+     * Creates a segment file.
+     *
+     * @param index the index of the segment
+     * @return the open segment
+     */
+    private Segment open(int index) {
+        try {
+            FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new Segment(channel, new ConcurrentHashMap<>(), new AtomicLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps a block of a segment, growing the file to the end of the block.
+     *
+     * @param segment    the segment
+     * @param blockStart the offset of the block in the segment
+     * @param blockSize  the size of the block
+     * @return the mapping
+     */
+    private static MappedByteBuffer map(Segment segment, int blockStart, int blockSize) {
+        try {
+            return segment.channel().map(FileChannel.MapMode.READ_WRITE, blockStart, blockSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the channel of a segment. Its mappings stay valid.
+     *
+     * @param segment the segment
+     */
+    private static void closeChannel(Segment segment) {
+        try {
+            segment.channel().close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes and closes the segments in use. Call after all games are finished. The files already end with their
+     * last record, so nothing is truncated.
+     *
+     * @throws IOException if a segment cannot be flushed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        for (Segment segment : segments.values()) {
+            for (MappedByteBuffer block : segment.blocks().values()) {
+                block.force();
+            }
+            try (FileChannel channel = segment.channel()) {
+                channel.force(false);
+            }
+        }
+        segments.clear();
+    }
+
+    /**
+     * Buffers the moves of one game until its outcome is known. Reused for the following games of the same thread.
+     */
+    public final class GameRecorder {
+        private byte[] records = new byte[recordBytes * 256];
+        private ByteBuffer view = ByteBuffer.wrap(records).order(ByteOrder.LITTLE_ENDIAN);
+        private int length;
+        private int maxExponent;
+
+        private GameRecorder() {
+        }
+
+        /**
+         * Records a move on a 4x4 board.
+         *
+         * @param board      the packed board before the move
+         * @param direction  the direction of the move
+         * @param scoreDelta the score gained by the move
+         */
+        public void record(long board, Direction direction, int scoreDelta) {
+            if (gridSize != BitBoard.SIZE) {
+                throw new IllegalArgumentException("Packed boards are 4x4, the dataset has " + gridSize + "x" + gridSize);
+            }
+            int start = reserve();
+            view.putLong(start, board);
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                maxExponent = Math.max(maxExponent, BitBoard.exponent(board, cell));
+            }
+            finishRecord(start, direction, scoreDelta);
+        }
+
+        /**
+         * Records a move.
+         *
+         * @param cells      the tile exponents of the board before the move, row by row
+         * @param direction  the direction of the move
+         * @param scoreDelta the score gained by the move
+         */
+        public void record(byte[] cells, Direction direction, int scoreDelta) {
+            if (cells.length != gridSize * gridSize) {
+                throw new IllegalArgumentException("Expected " + gridSize * gridSize + " cells, got " + cells.length);
+            }
+            if (gridSize == BitBoard.SIZE) {
+                long board = 0;
+                for (int cell = 0; cell < cells.length; cell++) {
+                    board |= (long) cells[cell] << (4 * cell);
+                }
+                record(board, direction, scoreDelta);
+                return;
+            }
+            int start = reserve();
+            System.arraycopy(cells, 0, records, start, cells.length);
+            Arrays.fill(records, start + cells.length, start + boardBytes, (byte) 0);
+            for (byte exponent : cells) {
+                maxExponent = Math.max(maxExponent, exponent);
+            }
+            finishRecord(start, direction, scoreDelta);
+        }
+
+        /**
+         * Ends the game, writing its records with the outcome, and starts the next game.
+         *
+         * @param outcome {@link #LOST}, {@link #WON} or {@link #UNFINISHED}
+         */
+        public void finish(int outcome) {
+            if (length > 0) {
+                for (int start = 0; start < length; start += recordBytes) {
+                    records[start + boardBytes + 1] = (byte) outcome;
+                    records[start + boardBytes + 2] = (byte) maxExponent;
+                }
+                append(records, length);
+            }
+            length = 0;
+            maxExponent = 0;
+        }
+
+        /**
+         * Makes room for one more record.
+         *
+         * @return the offset of the record in the buffer
+         */
+        private int reserve() {
+            if (length == records.length) {
+                records = Arrays.copyOf(records, records.length * 2);
+                view = ByteBuffer.wrap(records).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            int start = length;
+            length += recordBytes;
+            return start;
+        }
+
+        /**
+         * Writes the move fields of a record; the outcome is filled in when the game ends.
+         *
+         * @param start      the offset of the record in the buffer
+         * @param direction  the direction of the move
+         * @param scoreDelta the score gained by the move
+         */
+        private void finishRecord(int start, Direction direction, int scoreDelta) {
+            records[start + boardBytes] = (byte) direction.ordinal();
+            records[start + boardBytes + 3] = 0;
+            view.putInt(start + boardBytes + 4, scoreDelta);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tilesumgame.bench;
+
+/**
+ * Outcome of one benchmark game.
+ *
+ * @param seed      the seed of the tile spawns
+ * @param score     the final score
+ * @param maxTile   the highest tile on the board
+ * @param won       whether the 2048 tile was reached
+ * @param moveNanos the time the strategy took to choose each move, in nanoseconds
+ */
+public record GameResult(long seed, int score, int maxTile, boolean won, long[] moveNanos) {
+}
@@ -0,0 +1,324 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Plays seeded games across several worker JVMs, so large sweeps are not limited by the heap and GC of one process.
+ * <p>
+ * The games are split into ranges of consecutive seeds. Every {@link SimulationWorker} process is fed one range at a
+ * time over its standard input and streams a line per game back, which is merged into {@link SimulationStats} as it
+ * arrives. When a worker dies, the unplayed rest of its range goes back to the queue for the other workers and a
+ * replacement is started, up to {@code --maxRestarts} times. Game {@code i} always uses the seed {@code seed + i}, so
+ * the results match a {@link Tournament} run with the same seed.
+ * <p>
+ * Usage: {@code --workers=4 --strategy=merge-first --size=4 --games=100000 --seed=1 --rangeSize=100 --budgetMs=5
+ * --workerHeapMb=512 --maxRestarts=8 --label=dev --out=reports}
+ */
+public class SimulationCoordinator {
+    private static GameLogger logger;
+
+    private final List<String> workerCommand;
+    private final int games;
+    private final long seed;
+    private final int maxRestarts;
+    private final SimulationStats stats = new SimulationStats();
+    // Work state, guarded by this
+    private final Deque<Range> pending = new ArrayDeque<>();
+    private final BitSet finished = new BitSet();
+    private int finishedCount;
+    private int restarts;
+
+    /**
+     * Consecutive games handed to one worker.
+     *
+     * @param first the index of the first game
+     * @param count the number of games
+     */
+    private record Range(int first, int count) {
+    }
+
+    /**
+     * Creates a coordinator.
+     *
+     * @param workerCommand the command starting a worker process
+     * @param games         the number of games
+     * @param seed          the seed of the first game
+     * @param rangeSize     the number of games handed to a worker at once
+     * @param maxRestarts   the number of dead workers that are replaced
+     */
+    public SimulationCoordinator(List<String> workerCommand, int games, long seed, int rangeSize, int maxRestarts) {
+        this.workerCommand = List.copyOf(workerCommand);
+        this.games = games;
+        this.seed = seed;
+        this.maxRestarts = maxRestarts;
+        for (int first = 0; first < games; first += rangeSize) {
+            pending.add(new Range(first, Math.min(rangeSize, games - first)));
+        }
+    }
+
+    /**
+     * Returns the command starting a worker JVM with the same Java runtime, class or module path and preview and
+     * module options as this one.
+     *
+     * @param heapMb     the maximum heap of the worker in megabytes
+     * @param workerArgs the named arguments of the worker
+     * @return the command
+     */
+    public static List<String> workerCommand(int heapMb, List<String> workerArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.add("-Xmx" + heapMb + "m");
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (option.startsWith("--enable-preview") || option.startsWith("--add-modules")) {
+                command.add(option);
+            }
+        }
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null) {
+            command.addAll(List.of("-p", modulePath, "-m",
+                    SimulationWorker.class.getModule().getName() + "/" + SimulationWorker.class.getName()));
+        } else {
+            // The game classes may come from a class loader of their own, e.g. in a test runner
+            String classPath = System.getProperty("java.class.path");
+            CodeSource source = SimulationWorker.class.getProtectionDomain().getCodeSource();
+            if (source != null) {
+                try {
+                    classPath = Path.of(source.getLocation().toURI()) + File.pathSeparator + classPath;
+                } catch (URISyntaxException _) {
+                    // Keep the class path of this JVM
+                }
+            }
+            command.addAll(List.of("-cp", classPath, SimulationWorker.class.getName()));
+        }
+        command.addAll(workerArgs);
+        return command;
+    }
+
+    /**
+     * Plays all games on the given number of workers.
+     *
+     * @param workers the number of worker processes
+     * @return the merged statistics of all games
+     * @throws InterruptedException  if interrupted while waiting for the workers
+     * @throws IllegalStateException if the workers died more often than they may be replaced
+     */
+    public SimulationStats run(int workers) throws InterruptedException {
+        List<Thread> supervisors = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            supervisors.add(Thread.ofPlatform().name("worker-supervisor-" + i).start(this::superviseWorkers));
+        }
+        for (Thread supervisor : supervisors) {
+            supervisor.join();
+        }
+        synchronized (this) {
+            if (finishedCount < games) {
+                throw new IllegalStateException("Only " + finishedCount + " of " + games + " games finished after "
+                        + restarts + " worker restarts");
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Keeps one worker process running until all games are finished, replacing it while restarts are left.
+     */
+    private void superviseWorkers() {
+        while (true) {
+            Process process;
+            try {
+                process = new ProcessBuilder(workerCommand).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            } catch (IOException e) {
+                log(Level.WARNING, "Error starting worker: " + e.getMessage());
+                return;
+            }
+            if (serve(process)) {
+                return;
+            }
+            synchronized (this) {
+                if (finishedCount == games || restarts >= maxRestarts) {
+                    notifyAll();
+                    return;
+                }
+                restarts++;
+            }
+            log(Level.WARNING, "Worker " + process.pid() + " died with exit code " + process.exitValue()
+                    + ", starting a replacement");
+        }
+    }
+
+    /**
+     * Feeds ranges to a worker process and merges its results until all games are finished or the worker dies.
+     *
+     * @param process the worker process
+     * @return true if all games are finished, false if the worker died
+     */
+    private boolean serve(Process process) {
+        Range range = null;
+        int received = 0;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8))) {
+            while ((range = nextRange()) != null) {
+                received = 0;
+                out.write("RANGE " + (seed + range.first()) + " " + range.count());
+                out.newLine();
+                out.flush();
+                String line;
+                while (received < range.count() && (line = in.readLine()) != null) {
+                    record(range.first() + received, line);
+                    received++;
+                }
+                if (received < range.count()) {
+                    break;
+                }
+            }
+            if (range == null) {
+                out.write("QUIT");
+                out.newLine();
+                out.flush();
+                process.waitFor(10, TimeUnit.SECONDS);
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            log(Level.WARNING, "Lost worker " + process.pid() + ": " + e);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+        process.destroyForcibly();
+        try {
+            process.waitFor();
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+        if (range != null && received < range.count()) {
+            requeue(new Range(range.first() + received, range.count() - received));
+        }
+        return false;
+    }
+
+    /**
+     * Takes the next range to play, waiting while other workers still play the last ones, as they may die and give
+     * their ranges back.
+     *
+     * @return the range, or null when all games are finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private synchronized Range nextRange() throws InterruptedException {
+        while (pending.isEmpty() && finishedCount < games) {
+            wait();
+        }
+        return pending.poll();
+    }
+
+    /**
+     * Puts the unplayed rest of a range back in the queue.
+     *
+     * @param range the unplayed games
+     */
+    private synchronized void requeue(Range range) {
+        pending.addFirst(range);
+        notifyAll();
+    }
+
+    /**
+     * Merges the result line of a game, unless the game was already merged from a worker that died.
+     *
+     * @param game the index of the game
+     * @param line the {@code RESULT} line of the worker
+     */
+    private synchronized void record(int game, String line) {
+        String[] fields = line.split(" ");
+        if (fields.length != 6 || !fields[0].equals("RESULT") || Long.parseLong(fields[1]) != seed + game) {
+            throw new IllegalStateException("Unexpected worker output for game " + game + ": " + line);
+        }
+        if (finished.get(game)) {
+            return;
+        }
+        finished.set(game);
+        stats.add(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), fields[4].equals("1"),
+                Integer.parseInt(fields[5]));
+        finishedCount++;
+        if (finishedCount % Math.max(1, games / 10) == 0) {
+            log(Level.INFO, finishedCount + "/" + games + " games, " + stats);
+        }
+        if (finishedCount == games) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Logs progress when run from the command line.
+     *
+     * @param level   the level of the message
+     * @param message the message
+     */
+    private static void log(Level level, String message) {
+        if (logger != null) {
+            logger.log(level, message);
+        }
+    }
+
+    /**
+     * Runs the games from the command line and writes {@code <label>.json} with the statistics.
+     *
+     * @param args named arguments, see the class description
+     * @throws IOException          if the report cannot be written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        logger = GameLogger.getInstance();
+
+        String strategy = arguments.getString("strategy", "merge-first");
+        int size = arguments.getInt("size", 4);
+        long seed = arguments.getLong("seed", 1);
+        List<String> workerArgs = new ArrayList<>(List.of("--strategy=" + strategy, "--size=" + size,
+                "--seed=" + seed, "--budgetMs=" + arguments.getLong("budgetMs", 5),
+                "--maxMoves=" + arguments.getInt("maxMoves", 1_000_000),
+                "--logLevel=" + arguments.getString("workerLogLevel", "WARNING")));
+        String exitAfterGames = arguments.getString("exitAfterGames", null);
+        if (exitAfterGames != null) {
+            workerArgs.add("--exitAfterGames=" + exitAfterGames);
+        }
+        int workers = arguments.getInt("workers", Runtime.getRuntime().availableProcessors());
+        int games = arguments.getInt("games", 1000);
+        SimulationCoordinator coordinator = new SimulationCoordinator(
+                workerCommand(arguments.getInt("workerHeapMb", 512), workerArgs), games, seed,
+                arguments.getInt("rangeSize", 100), arguments.getInt("maxRestarts", 8));
+
+        logger.log(Level.INFO, "Playing " + games + " games of " + strategy + " on " + size + "x" + size + " in "
+                + workers + " worker processes");
+        long start = System.nanoTime();
+        SimulationStats stats = coordinator.run(workers);
+        logger.log(Level.INFO, String.format("Finished in %.1f s: %s", (System.nanoTime() - start) / 1e9, stats));
+
+        Path out = Path.of(arguments.getString("out", "reports"));
+        Files.createDirectories(out);
+        Path report = out.resolve(arguments.getString("label", "dev") + ".json");
+        Files.writeString(report, "{\"strategy\": \"" + strategy + "\", \"size\": " + size + ", \"seed\": " + seed
+                + ", \"stats\": " + stats.toJson() + "}" + System.lineSeparator());
+        logger.log(Level.INFO, "Wrote " + report.toAbsolutePath());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.tilesumgame.bench;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Score and max tile statistics merged one game at a time, so results can be summarized while they stream in without
+ * keeping them.
+ */
+public class SimulationStats {
+    private long games;
+    private long wins;
+    private long moves;
+    private double meanScore;
+    private double squaredDeviations; // Sum of squared deviations from the mean, updated with Welford's method
+    private int minScore = Integer.MAX_VALUE;
+    private int maxScore;
+    private final Map<Integer, Long> maxTiles = new TreeMap<>();
+
+    /**
+     * Adds the result of a game.
+     *
+     * @param score   the final score
+     * @param maxTile the highest tile on the board
+     * @param won     whether the 2048 tile was reached
+     * @param moves   the number of moves of the game
+     */
+    public void add(int score, int maxTile, boolean won, int moves) {
+        games++;
+        wins += won ? 1 : 0;
+        this.moves += moves;
+        double delta = score - meanScore;
+        meanScore += delta / games;
+        squaredDeviations += delta * (score - meanScore);
+        minScore = Math.min(minScore, score);
+        maxScore = Math.max(maxScore, score);
+        maxTiles.merge(maxTile, 1L, Long::sum);
+    }
+
+    /**
+     * Returns the number of games added.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of won games.
+     *
+     * @return the number of wins
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * Returns the mean final score.
+     *
+     * @return the mean score, 0 without games
+     */
+    public double getMeanScore() {
+        return meanScore;
+    }
+
+    /**
+     * Returns how many games ended with each highest tile.
+     *
+     * @return the number of games by max tile, in ascending tile order
+     */
+    public Map<Integer, Long> getMaxTiles() {
+        return maxTiles;
+    }
+
+    /**
+     * Formats the statistics as a JSON object.
+     *
+     * @return the JSON object
+     */
+    public String toJson() {
+        double[] winRate = StrategyReport.wilsonInterval((int) wins, (int) Math.max(1, games));
+        StringBuilder sb = new StringBuilder("{");
+        sb.append(String.format(Locale.ROOT, "\"games\": %d, \"wins\": %d, ", games, wins));
+        sb.append(String.format(Locale.ROOT, "\"winRate\": {\"value\": %.4f, \"low\": %.4f, \"high\": %.4f}, ",
+                games == 0 ? 0 : (double) wins / games, winRate[0], winRate[1]));
+        sb.append(String.format(Locale.ROOT, "\"meanScore\": %.1f, \"scoreStdDev\": %.1f, \"minScore\": %d, "
+                + "\"maxScore\": %d, \"moves\": %d, \"maxTiles\": {", meanScore, standardDeviation(),
+                games == 0 ? 0 : minScore, maxScore, moves));
+        StringBuilder tiles = new StringBuilder();
+        maxTiles.forEach((tile, count) -> tiles.append(tiles.isEmpty() ? "" : ", ").append('"').append(tile)
+                .append("\": ").append(count));
+        return sb.append(tiles).append("}}").toString();
+    }
+
+    private double standardDeviation() {
+        return games > 1 ? Math.sqrt(squaredDeviations / (games - 1)) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d games: win rate %.1f%%, mean score %.0f (sd %.0f), max tiles %s",
+                games, games == 0 ? 0 : 100.0 * wins / games, meanScore, standardDeviation(), maxTiles);
+    }
+}
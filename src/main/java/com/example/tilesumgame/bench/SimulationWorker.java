@@ -0,0 +1,68 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+import com.example.tilesumgame.ai.Strategies;
+import com.example.tilesumgame.ai.Strategy;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.logging.Level;
+
+/**
+ * Worker process of a {@link SimulationCoordinator}. Reads commands from standard input and streams one line per game
+ * to standard output; logging goes to standard error.
+ * <ul>
+ *     <li>{@code RANGE <firstSeed> <count>} plays the games with seeds {@code firstSeed} to
+ *     {@code firstSeed + count - 1} and answers each with {@code RESULT <seed> <score> <maxTile> <won> <moves>}</li>
+ *     <li>{@code QUIT} ends the worker</li>
+ * </ul>
+ * Usage: {@code --strategy=merge-first --size=4 --seed=1 --budgetMs=5 --maxMoves=1000000 --logLevel=WARNING}, and
+ * {@code --exitAfterGames=N} to exit abruptly after N games, for testing the recovery of the coordinator.
+ */
+public class SimulationWorker {
+    /**
+     * Serves ranges of games until told to quit or the input ends.
+     *
+     * @param args named arguments, see the class description
+     * @throws IOException if the pipes to the coordinator fail
+     */
+    public static void main(String[] args) throws IOException {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "WARNING")));
+        int size = arguments.getInt("size", 4);
+        Duration budget = Duration.ofMillis(arguments.getLong("budgetMs", 5));
+        Tournament tournament = new Tournament(0, 0, budget, arguments.getInt("maxMoves", 1_000_000));
+        Strategy strategy = Strategies.create(arguments.getString("strategy", "merge-first"),
+                arguments.getLong("seed", 1), budget);
+        long exitAfterGames = arguments.getLong("exitAfterGames", Long.MAX_VALUE);
+        long played = 0;
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null && !line.equals("QUIT")) {
+            String[] command = line.split(" ");
+            if (!command[0].equals("RANGE") || command.length != 3) {
+                throw new IllegalArgumentException("Unknown command: " + line);
+            }
+            long firstSeed = Long.parseLong(command[1]);
+            int count = Integer.parseInt(command[2]);
+            for (long seed = firstSeed; seed < firstSeed + count; seed++) {
+                if (played++ == exitAfterGames) {
+                    Runtime.getRuntime().halt(1);
+                }
+                GameResult result = tournament.playGame(strategy, size, seed, null);
+                out.write("RESULT " + seed + " " + result.score() + " " + result.maxTile() + " "
+                        + (result.won() ? 1 : 0) + " " + result.moveNanos().length);
+                out.newLine();
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.tilesumgame.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary statistics of one strategy on one board size, with 95% confidence intervals.
+ */
+public class StrategyReport {
+    private static final double Z_95 = 1.959964;
+
+    private final String strategy;
+    private final int gridSize;
+    private final int games;
+    private final int wins;
+    private final double[] winRateInterval;
+    private final double meanScore;
+    private final double[] meanScoreInterval;
+    private final double medianScore;
+    private final double[] medianScoreInterval;
+    private final Map<Integer, Integer> maxTiles = new TreeMap<>();
+    private final long moves;
+    private final double[] movePercentilesMicros;
+
+    /**
+     * Percentiles of the time per move reported in {@link #toCsv()} and {@link #toJson()}.
+     */
+    public static final double[] MOVE_PERCENTILES = {50, 90, 99, 100};
+
+    /**
+     * Computes the statistics of a set of games.
+     *
+     * @param strategy the name of the strategy
+     * @param gridSize the board size
+     * @param results  the results of all games, not empty
+     */
+    public StrategyReport(String strategy, int gridSize, List<GameResult> results) {
+        this.strategy = strategy;
+        this.gridSize = gridSize;
+        this.games = results.size();
+
+        int winCount = 0;
+        double[] scores = new double[games];
+        long moveCount = 0;
+        for (int i = 0; i < games; i++) {
+            GameResult result = results.get(i);
+            winCount += result.won() ? 1 : 0;
+            scores[i] = result.score();
+            maxTiles.merge(result.maxTile(), 1, Integer::sum);
+            moveCount += result.moveNanos().length;
+        }
+        this.wins = winCount;
+        this.winRateInterval = wilsonInterval(winCount, games);
+
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        this.meanScore = sum / games;
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - meanScore) * (score - meanScore);
+        }
+        double standardError = games > 1 ? Math.sqrt(squares / (games - 1) / games) : 0;
+        this.meanScoreInterval = new double[]{meanScore - Z_95 * standardError, meanScore + Z_95 * standardError};
+
+        Arrays.sort(scores);
+        this.medianScore = games % 2 == 1 ? scores[games / 2] : (scores[games / 2 - 1] + scores[games / 2]) / 2;
+        // Distribution-free interval from the order statistics around the median
+        int offset = (int) Math.ceil(Z_95 * Math.sqrt(games) / 2);
+        this.medianScoreInterval = new double[]{scores[Math.max(0, games / 2 - offset)],
+                scores[Math.min(games - 1, (games - 1) / 2 + offset)]};
+
+        long[] moveNanos = new long[(int) moveCount];
+        int position = 0;
+        for (GameResult result : results) {
+            System.arraycopy(result.moveNanos(), 0, moveNanos, position, result.moveNanos().length);
+            position += result.moveNanos().length;
+        }
+        Arrays.sort(moveNanos);
+        this.moves = moveCount;
+        this.movePercentilesMicros = new double[MOVE_PERCENTILES.length];
+        for (int i = 0; i < MOVE_PERCENTILES.length; i++) {
+            movePercentilesMicros[i] = percentile(moveNanos, MOVE_PERCENTILES[i]) / 1000.0;
+        }
+    }
+
+    /**
+     * Computes the Wilson score interval of a proportion.
+     *
+     * @param successes the number of successes
+     * @param trials    the number of trials
+     * @return the lower and upper bound of the interval
+     */
+    static double[] wilsonInterval(int successes, int trials) {
+        double p = (double) successes / trials;
+        double z2 = Z_95 * Z_95;
+        double center = (p + z2 / (2 * trials)) / (1 + z2 / trials);
+        double margin = Z_95 * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials)) / (1 + z2 / trials);
+        return new double[]{Math.max(0, center - margin), Math.min(1, center + margin)};
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Returns the header line of the CSV report.
+     *
+     * @return the comma-separated column names
+     */
+    public static String csvHeader() {
+        StringBuilder sb = new StringBuilder("label,strategy,size,games,wins,win_rate,win_rate_low,win_rate_high,"
+                + "mean_score,mean_score_low,mean_score_high,median_score,median_score_low,median_score_high,moves");
+        for (double percentile : MOVE_PERCENTILES) {
+            sb.append(",move_us_p").append((int) percentile);
+        }
+        return sb.append(",max_tiles").toString();
+    }
+
+    /**
+     * Formats the report as a CSV line matching {@link #csvHeader()}, without the label column.
+     *
+     * @return the comma-separated values
+     */
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.4f,%.4f,%.4f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%d",
+                strategy, gridSize, games, wins, (double) wins / games, winRateInterval[0], winRateInterval[1],
+                meanScore, meanScoreInterval[0], meanScoreInterval[1],
+                medianScore, medianScoreInterval[0], medianScoreInterval[1], moves));
+        for (double value : movePercentilesMicros) {
+            sb.append(String.format(Locale.ROOT, ",%.2f", value));
+        }
+        sb.append(',');
+        StringBuilder tiles = new StringBuilder();
+        maxTiles.forEach((tile, count) -> tiles.append(tiles.isEmpty() ? "" : ";").append(tile).append(':').append(count));
+        return sb.append(tiles).toString();
+    }
+
+    /**
+     * Formats the report as a JSON object.
+     *
+     * @return the JSON object
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append(String.format(Locale.ROOT, "\"strategy\": \"%s\", \"size\": %d, \"games\": %d, \"wins\": %d, ",
+                strategy, gridSize, games, wins));
+        sb.append(String.format(Locale.ROOT, "\"winRate\": {\"value\": %.4f, \"low\": %.4f, \"high\": %.4f}, ",
+                (double) wins / games, winRateInterval[0], winRateInterval[1]));
+        sb.append(String.format(Locale.ROOT, "\"meanScore\": {\"value\": %.1f, \"low\": %.1f, \"high\": %.1f}, ",
+                meanScore, meanScoreInterval[0], meanScoreInterval[1]));
+        sb.append(String.format(Locale.ROOT, "\"medianScore\": {\"value\": %.1f, \"low\": %.1f, \"high\": %.1f}, ",
+                medianScore, medianScoreInterval[0], medianScoreInterval[1]));
+        sb.append("\"moves\": ").append(moves).append(", \"moveMicros\": {");
+        for (int i = 0; i < MOVE_PERCENTILES.length; i++) {
+            sb.append(i == 0 ? "" : ", ").append(String.format(Locale.ROOT, "\"p%d\": %.2f",
+                    (int) MOVE_PERCENTILES[i], movePercentilesMicros[i]));
+        }
+        sb.append("}, \"maxTiles\": {");
+        StringBuilder tiles = new StringBuilder();
+        maxTiles.forEach((tile, count) -> tiles.append(tiles.isEmpty() ? "" : ", ").append('"').append(tile)
+                .append("\": ").append(count));
+        return sb.append(tiles).append("}}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-12s %dx%d: win rate %.1f%% [%.1f, %.1f], mean score %.0f [%.0f, %.0f], "
+                        + "median %.0f, move p50/p99 %.1f/%.1f us", strategy, gridSize, gridSize,
+                100.0 * wins / games, 100 * winRateInterval[0], 100 * winRateInterval[1],
+                meanScore, meanScoreInterval[0], meanScoreInterval[1], medianScore,
+                movePercentilesMicros[0], movePercentilesMicros[2]);
+    }
+}
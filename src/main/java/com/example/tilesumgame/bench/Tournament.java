@@ -0,0 +1,235 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+import com.example.tilesumgame.ai.Strategies;
+import com.example.tilesumgame.ai.Strategy;
+import com.example.tilesumgame.engine.PackedGrid;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+/**
+ * Plays a fixed, seeded set of games for every strategy on every board size and writes CSV and JSON reports.
+ * Game {@code i} of every strategy uses the seed {@code seed + i}, so all strategies face the same tile spawns.
+ * Games follow the rules of the game: they end when the 2048 tile is reached or no move is left.
+ * <p>
+ * With {@code --dataset=<directory>} every move is also exported for training to {@link DatasetWriter} segments named
+ * {@code <strategy>-<size>x<size>}, of {@code --segmentMb} megabytes each.
+ * <p>
+ * Usage: {@code --strategies=merge-first,expectimax --sizes=4,5,6 --games=100 --seed=1 --threads=8 --budgetMs=5
+ * --label=dev --out=reports --dataset=dataset --segmentMb=256}
+ */
+public class Tournament {
+    private static final int WIN_TILE = 2048;
+    private static GameLogger logger;
+
+    private final int games;
+    private final long seed;
+    private final Duration budget;
+    private final int maxMoves;
+    private Path datasetDirectory;
+    private long segmentBytes = 256L << 20;
+
+    /**
+     * Creates a tournament.
+     *
+     * @param games    the number of games per strategy and board size
+     * @param seed     the seed of the first game
+     * @param budget   the search time per move for searching strategies
+     * @param maxMoves the maximum number of moves per game
+     */
+    public Tournament(int games, long seed, Duration budget, int maxMoves) {
+        this.games = games;
+        this.seed = seed;
+        this.budget = budget;
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Exports the moves of all following games to a training dataset.
+     *
+     * @param directory    the directory of the dataset segments
+     * @param segmentBytes the maximum size of a segment file
+     */
+    public void setDataset(Path directory, long segmentBytes) {
+        this.datasetDirectory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Plays all games of one strategy on one board size in parallel.
+     *
+     * @param strategyName the name of the strategy
+     * @param gridSize     the board size
+     * @param executor     the executor to run the games on
+     * @return the results ordered by seed
+     * @throws InterruptedException if interrupted while waiting for the games
+     * @throws ExecutionException   if a game fails
+     * @throws IOException          if the dataset cannot be written
+     */
+    public List<GameResult> play(String strategyName, int gridSize, ExecutorService executor)
+            throws InterruptedException, ExecutionException, IOException {
+        // Strategies keep state such as search caches, so every worker thread gets its own instance
+        ThreadLocal<Strategy> strategies = ThreadLocal.withInitial(() -> Strategies.create(strategyName, seed, budget));
+        DatasetWriter dataset = datasetDirectory == null ? null
+                : new DatasetWriter(datasetDirectory, strategyName + "-" + gridSize + "x" + gridSize, gridSize, segmentBytes);
+        ThreadLocal<DatasetWriter.GameRecorder> recorders = ThreadLocal.withInitial(
+                () -> dataset == null ? null : dataset.newRecorder());
+        List<Future<GameResult>> futures = new ArrayList<>();
+        List<GameResult> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < games; i++) {
+                long gameSeed = seed + i;
+                futures.add(executor.submit(() -> playGame(strategies.get(), gridSize, gameSeed, recorders.get())));
+            }
+            for (Future<GameResult> future : futures) {
+                results.add(future.get());
+            }
+        } finally {
+            // After a failed game the games not started yet are dropped, the dataset is closed either way
+            futures.forEach(future -> future.cancel(true));
+            if (dataset != null) {
+                dataset.close();
+            }
+        }
+        if (dataset != null && logger != null) {
+            logger.log(Level.INFO, "Exported " + dataset.getRecordCount() + " positions of " + strategyName + " on "
+                    + gridSize + "x" + gridSize);
+        }
+        return results;
+    }
+
+    /**
+     * Plays one game.
+     *
+     * @param strategy the strategy choosing the moves
+     * @param gridSize the board size
+     * @param gameSeed the seed of the tile spawns and of the random choices of the strategy
+     * @param recorder the recorder exporting the moves, or null
+     * @return the result of the game
+     */
+    GameResult playGame(Strategy strategy, int gridSize, long gameSeed, DatasetWriter.GameRecorder recorder) {
+        Board board = new Board(gridSize, new Random(gameSeed));
+        strategy.startGame(gameSeed);
+        board.spawnTile(); // The game starts with a single tile
+        long[] moveNanos = new long[1024];
+        int moves = 0;
+        while (moves < maxMoves && !board.hasWon() && board.canMove()) {
+            long start = System.nanoTime();
+            Direction direction = strategy.chooseMove(board);
+            long elapsed = System.nanoTime() - start;
+            int[][] before = recorder == null ? null : board.getBoardState();
+            int scoreBefore = board.getScore();
+            if (direction == null || !board.move(direction)) {
+                break;
+            }
+            if (recorder != null) {
+                recorder.record(PackedGrid.fromGrid(before), direction, board.getScore() - scoreBefore);
+            }
+            if (moves == moveNanos.length) {
+                moveNanos = Arrays.copyOf(moveNanos, moves * 2);
+            }
+            moveNanos[moves++] = elapsed;
+            board.spawnTile();
+        }
+        int maxTile = 0;
+        for (int[] row : board.getBoardState()) {
+            for (int value : row) {
+                maxTile = Math.max(maxTile, value);
+            }
+        }
+        if (recorder != null) {
+            recorder.finish(maxTile >= WIN_TILE ? DatasetWriter.WON
+                    : board.canMove() ? DatasetWriter.UNFINISHED : DatasetWriter.LOST);
+        }
+        return new GameResult(gameSeed, board.getScore(), maxTile, maxTile >= WIN_TILE, Arrays.copyOf(moveNanos, moves));
+    }
+
+    /**
+     * Runs the tournament from the command line.
+     *
+     * @param args the named command line arguments
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        logger = GameLogger.getInstance();
+
+        List<String> strategyNames = List.of(arguments.getString("strategies", "merge-first,random,expectimax").split(","));
+        int[] sizes = Arrays.stream(arguments.getString("sizes", "4,5,6").split(",")).mapToInt(Integer::parseInt).toArray();
+        int threads = arguments.getInt("threads", Runtime.getRuntime().availableProcessors());
+        String label = arguments.getString("label", "dev");
+        Path out = Path.of(arguments.getString("out", "reports"));
+        Tournament tournament = new Tournament(arguments.getInt("games", 100), arguments.getLong("seed", 1),
+                Duration.ofMillis(arguments.getLong("budgetMs", 5)), arguments.getInt("maxMoves", 1_000_000));
+        String dataset = arguments.getString("dataset", null);
+        if (dataset != null) {
+            tournament.setDataset(Path.of(dataset), arguments.getLong("segmentMb", 256) << 20);
+        }
+
+        List<StrategyReport> reports = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (String strategyName : strategyNames) {
+                for (int size : sizes) {
+                    if (!Strategies.create(strategyName, 0, tournament.budget).supports(size)) {
+                        logger.log(Level.INFO, "Skipping " + strategyName + " on " + size + "x" + size);
+                        continue;
+                    }
+                    StrategyReport report = new StrategyReport(strategyName, size,
+                            tournament.play(strategyName, size, executor));
+                    logger.log(Level.INFO, report.toString());
+                    reports.add(report);
+                }
+            }
+        }
+        writeReports(out, label, reports);
+    }
+
+    /**
+     * Writes the reports as {@code <label>.csv} and {@code <label>.json} to the output directory.
+     *
+     * @param out     the output directory
+     * @param label   the label identifying the run, e.g. a version
+     * @param reports the reports to write
+     * @throws IOException if a file cannot be written
+     */
+    static void writeReports(Path out, String label, List<StrategyReport> reports) throws IOException {
+        Files.createDirectories(out);
+        Path csv = out.resolve(label + ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write(StrategyReport.csvHeader());
+            writer.newLine();
+            for (StrategyReport report : reports) {
+                writer.write(label + "," + report.toCsv());
+                writer.newLine();
+            }
+        }
+        Path json = out.resolve(label + ".json");
+        try (BufferedWriter writer = Files.newBufferedWriter(json)) {
+            writer.write("{\"label\": \"" + label + "\", \"reports\": [");
+            for (int i = 0; i < reports.size(); i++) {
+                writer.newLine();
+                writer.write("  " + reports.get(i).toJson() + (i < reports.size() - 1 ? "," : ""));
+            }
+            writer.newLine();
+            writer.write("]}");
+            writer.newLine();
+        }
+        logger.log(Level.INFO, "Wrote " + csv.toAbsolutePath() + " and " + json.toAbsolutePath());
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.tilesumgame.engine;
+
+import com.example.tilesumgame.Direction;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Packed representation of a 4x4 board in a single long.
+ * Each cell stores the tile exponent in 4 bits (0 = empty, 1 = 2, 2 = 4, ...). Cell (row, col) lives in the nibble
+ * with index {@code 4 * row + col}, counted from the least significant bits. Exponents are capped at 15 (32768),
+ * two 32768 tiles do not merge.
+ */
+public final class BitBoard {
+    public static final int SIZE = 4;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int MAX_EXPONENT = 15;
+    private static final int ROW_BITS = 16;
+    private static final long ROW_MASK = 0xFFFFL;
+
+    // Lookup tables indexed by a packed 16-bit row
+    private static final char[] ROW_LEFT = new char[1 << ROW_BITS];
+    private static final char[] ROW_RIGHT = new char[1 << ROW_BITS];
+    private static final int[] ROW_SCORE = new int[1 << ROW_BITS];
+
+    static {
+        for (int row = 0; row < ROW_LEFT.length; row++) {
+            int[] cells = unpackRow(row);
+            int score = slideLeft(cells);
+            ROW_LEFT[row] = (char) packRow(cells);
+            ROW_SCORE[row] = score;
+        }
+        for (int row = 0; row < ROW_RIGHT.length; row++) {
+            ROW_RIGHT[row] = (char) reverseRow(ROW_LEFT[reverseRow(row)]);
+        }
+    }
+
+    private BitBoard() {
+    }
+
+    /**
+     * Slides and merges the cells of a row towards index 0, the same way {@code Board} does.
+     *
+     * @param cells the exponents of the row, modified in place
+     * @return the score gained by the merges
+     */
+    private static int slideLeft(int[] cells) {
+        int[] compacted = new int[SIZE];
+        int position = 0;
+        for (int cell : cells) {
+            if (cell != 0) {
+                compacted[position++] = cell;
+            }
+        }
+        int score = 0;
+        for (int col = 0; col < SIZE - 1; col++) {
+            int value = compacted[col];
+            if (value != 0 && value < MAX_EXPONENT && value == compacted[col + 1]) {
+                compacted[col]++;
+                compacted[col + 1] = 0;
+                score += 1 << compacted[col];
+            }
+        }
+        position = 0;
+        for (int col = 0; col < SIZE; col++) {
+            cells[col] = 0;
+        }
+        for (int value : compacted) {
+            if (value != 0) {
+                cells[position++] = value;
+            }
+        }
+        return score;
+    }
+
+    private static int[] unpackRow(int row) {
+        int[] cells = new int[SIZE];
+        for (int col = 0; col < SIZE; col++) {
+            cells[col] = (row >>> (4 * col)) & 0xF;
+        }
+        return cells;
+    }
+
+    private static int packRow(int[] cells) {
+        int row = 0;
+        for (int col = 0; col < SIZE; col++) {
+            row |= cells[col] << (4 * col);
+        }
+        return row;
+    }
+
+    private static int reverseRow(int row) {
+        return ((row >>> 12) & 0xF) | ((row >>> 4) & 0xF0) | ((row << 4) & 0xF00) | ((row << 12) & 0xF000);
+    }
+
+    /**
+     * Returns the packed 16-bit row with the given index.
+     *
+     * @param board the packed board
+     * @param row   the row index
+     * @return the packed row
+     */
+    public static int row(long board, int row) {
+        return (int) ((board >>> (ROW_BITS * row)) & ROW_MASK);
+    }
+
+    /**
+     * Returns the exponent stored in the given cell.
+     *
+     * @param board the packed board
+     * @param cell  the cell index, {@code 4 * row + col}
+     * @return the exponent of the tile, 0 for an empty cell
+     */
+    public static int exponent(long board, int cell) {
+        return (int) ((board >>> (4 * cell)) & 0xF);
+    }
+
+    /**
+     * Returns a copy of the board with the given cell set to an exponent.
+     *
+     * @param board    the packed board
+     * @param cell     the cell index, {@code 4 * row + col}
+     * @param exponent the new exponent of the cell
+     * @return the updated board
+     */
+    public static long withExponent(long board, int cell, int exponent) {
+        int shift = 4 * cell;
+        return (board & ~(0xFL << shift)) | ((long) exponent << shift);
+    }
+
+    /**
+     * Transposes the board, swapping rows and columns.
+     *
+     * @param board the packed board
+     * @return the transposed board
+     */
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    private static long moveRows(long board, char[] table) {
+        return (long) table[row(board, 0)]
+                | ((long) table[row(board, 1)] << 16)
+                | ((long) table[row(board, 2)] << 32)
+                | ((long) table[row(board, 3)] << 48);
+    }
+
+    private static int scoreRows(long board) {
+        return ROW_SCORE[row(board, 0)] + ROW_SCORE[row(board, 1)] + ROW_SCORE[row(board, 2)] + ROW_SCORE[row(board, 3)];
+    }
+
+    /**
+     * Moves the tiles of the board in the given direction.
+     *
+     * @param board     the packed board
+     * @param direction the direction to move the tiles
+     * @return the board after the move, equal to the input if nothing moved
+     */
+    public static long move(long board, Direction direction) {
+        return switch (direction) {
+            case LEFT -> moveRows(board, ROW_LEFT);
+            case RIGHT -> moveRows(board, ROW_RIGHT);
+            case UP -> transpose(moveRows(transpose(board), ROW_LEFT));
+            case DOWN -> transpose(moveRows(transpose(board), ROW_RIGHT));
+        };
+    }
+
+    /**
+     * Returns the score gained by moving the board in the given direction.
+     *
+     * @param board     the packed board
+     * @param direction the direction of the move
+     * @return the sum of the merged tile values
+     */
+    public static int score(long board, Direction direction) {
+        return switch (direction) {
+            case LEFT, RIGHT -> scoreRows(board);
+            case UP, DOWN -> scoreRows(transpose(board));
+        };
+    }
+
+    /**
+     * Counts the empty cells of the board.
+     *
+     * @param board the packed board
+     * @return the number of empty cells
+     */
+    public static int countEmpty(long board) {
+        // Fold each nibble into its lowest bit, set when the nibble is non-zero
+        long occupied = board | (board >>> 1);
+        occupied |= occupied >>> 2;
+        return CELLS - Long.bitCount(occupied & 0x1111111111111111L);
+    }
+
+    /**
+     * Returns the highest exponent on the board.
+     *
+     * @param board the packed board
+     * @return the highest exponent, 0 for an empty board
+     */
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            max = Math.max(max, exponent(board, cell));
+        }
+        return max;
+    }
+
+    /**
+     * Checks if the board can move in any direction.
+     *
+     * @param board the packed board
+     * @return true if at least one direction changes the board, false otherwise
+     */
+    public static boolean canMove(long board) {
+        for (Direction direction : Direction.values()) {
+            if (move(board, direction) != board) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spawns a new tile in a random empty cell, a 2 with probability 0.9 and a 4 otherwise.
+     *
+     * @param board  the packed board
+     * @param random the random generator to use
+     * @return the board with the new tile, equal to the input if the board is full
+     */
+    public static long spawn(long board, RandomGenerator random) {
+        int empty = countEmpty(board);
+        if (empty == 0) {
+            return board;
+        }
+        int target = random.nextInt(empty);
+        int exponent = random.nextDouble() < 0.9 ? 1 : 2;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (exponent(board, cell) == 0 && target-- == 0) {
+                return withExponent(board, cell, exponent);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Packs a 4x4 grid of tile values, as returned by {@code Board.getBoardState()}.
+     *
+     * @param grid the tile values
+     * @return the packed board
+     */
+    public static long fromGrid(int[][] grid) {
+        if (grid.length != SIZE) {
+            throw new IllegalArgumentException("Only 4x4 boards can be packed, got " + grid.length + "x" + grid.length);
+        }
+        long board = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int value = grid[row][col];
+                if (value != 0) {
+                    board = withExponent(board, SIZE * row + col, Integer.numberOfTrailingZeros(value));
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Unpacks a board into a 4x4 grid of tile values.
+     *
+     * @param board the packed board
+     * @return the tile values
+     */
+    public static int[][] toGrid(long board) {
+        int[][] grid = new int[SIZE][SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int exponent = exponent(board, SIZE * row + col);
+                grid[row][col] = exponent == 0 ? 0 : 1 << exponent;
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.tilesumgame.engine;
+
+import com.example.tilesumgame.Direction;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * Many boards of one size stored contiguously in primitive arrays, so searchers and trainers can move, evaluate and
+ * filter thousands of candidate boards in tight loops instead of one {@code Board} object at a time.
+ * <p>
+ * 4x4 boards are kept as one {@link BitBoard} {@code long} each, other sizes as consecutive {@link PackedGrid}
+ * exponent arrays in one flat {@code byte[]}. Every board carries an {@code int} tag, e.g. the index of the candidate
+ * it stands for, which stays with it when boards are filtered out. Not thread-safe.
+ */
+public final class BoardBatch {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final int size;
+    private final int cellCount;
+    private final boolean packed;
+    private long[] boards; // 4x4 boards, null otherwise
+    private byte[] cells; // Boards of other sizes, cellCount exponents each, null for 4x4
+    private int[] tags;
+    private int count;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param size     the number of rows and columns of every board
+     * @param capacity the number of boards held before the arrays grow
+     */
+    public BoardBatch(int size, int capacity) {
+        this.size = size;
+        this.cellCount = size * size;
+        this.packed = size == BitBoard.SIZE;
+        int initial = Math.max(1, capacity);
+        if (packed) {
+            boards = new long[initial];
+        } else {
+            cells = new byte[initial * cellCount];
+        }
+        tags = new int[initial];
+    }
+
+    /**
+     * Creates an empty batch with a default capacity.
+     *
+     * @param size the number of rows and columns of every board
+     */
+    public BoardBatch(int size) {
+        this(size, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the number of rows and columns of the boards.
+     *
+     * @return the board size
+     */
+    public int getBoardSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of boards.
+     *
+     * @return the number of boards
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Checks if the boards are stored as packed {@code long}s, which is the case for 4x4 boards.
+     *
+     * @return true for packed boards, false for exponent arrays
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    /**
+     * Removes all boards, keeping the arrays.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Adds a packed 4x4 board.
+     *
+     * @param board the packed board
+     * @param tag   the tag of the board
+     * @return the index of the board
+     * @throws IllegalStateException if the batch does not hold 4x4 boards
+     */
+    public int add(long board, int tag) {
+        if (!packed) {
+            throw new IllegalStateException("Packed boards need a 4x4 batch, this one is " + size + "x" + size);
+        }
+        ensureCapacity(count + 1);
+        boards[count] = board;
+        tags[count] = tag;
+        return count++;
+    }
+
+    /**
+     * Adds a board given as tile values, as returned by {@code Board.getBoardState()}.
+     *
+     * @param grid the tile values
+     * @param tag  the tag of the board
+     * @return the index of the board
+     * @throws IllegalArgumentException if the board has another size
+     */
+    public int add(int[][] grid, int tag) {
+        if (grid.length != size) {
+            throw new IllegalArgumentException("Expected a " + size + "x" + size + " board, got " + grid.length + " rows");
+        }
+        if (packed) {
+            return add(BitBoard.fromGrid(grid), tag);
+        }
+        ensureCapacity(count + 1);
+        System.arraycopy(PackedGrid.fromGrid(grid), 0, cells, count * cellCount, cellCount);
+        tags[count] = tag;
+        return count++;
+    }
+
+    /**
+     * Replaces the boards with copies of the boards of another batch of the same size, e.g. to try every move on
+     * the same candidates.
+     *
+     * @param other the batch to copy
+     */
+    public void copyFrom(BoardBatch other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Cannot copy " + other.size + "x" + other.size + " boards into a "
+                    + size + "x" + size + " batch");
+        }
+        ensureCapacity(other.count);
+        if (packed) {
+            System.arraycopy(other.boards, 0, boards, 0, other.count);
+        } else {
+            System.arraycopy(other.cells, 0, cells, 0, other.count * cellCount);
+        }
+        System.arraycopy(other.tags, 0, tags, 0, other.count);
+        count = other.count;
+    }
+
+    /**
+     * Returns a packed 4x4 board.
+     *
+     * @param index the index of the board
+     * @return the packed board
+     */
+    public long getPacked(int index) {
+        return boards[checkIndex(index)];
+    }
+
+    /**
+     * Returns the tile values of a board.
+     *
+     * @param index the index of the board
+     * @return the tile values
+     */
+    public int[][] getGrid(int index) {
+        checkIndex(index);
+        if (packed) {
+            return BitBoard.toGrid(boards[index]);
+        }
+        return PackedGrid.toGrid(Arrays.copyOfRange(cells, index * cellCount, (index + 1) * cellCount), size);
+    }
+
+    /**
+     * Returns the tile exponent of a cell.
+     *
+     * @param index the index of the board
+     * @param cell  the cell, {@code row * size + col}
+     * @return the exponent, 0 for an empty cell
+     */
+    public int getExponent(int index, int cell) {
+        checkIndex(index);
+        return packed ? BitBoard.exponent(boards[index], cell) : cells[index * cellCount + cell];
+    }
+
+    /**
+     * Sets the tile exponent of a cell.
+     *
+     * @param index    the index of the board
+     * @param cell     the cell, {@code row * size + col}
+     * @param exponent the exponent, 0 for an empty cell
+     */
+    public void setExponent(int index, int cell, int exponent) {
+        checkIndex(index);
+        if (packed) {
+            boards[index] = BitBoard.withExponent(boards[index], cell, exponent);
+        } else {
+            cells[index * cellCount + cell] = (byte) exponent;
+        }
+    }
+
+    /**
+     * Returns the tag of a board.
+     *
+     * @param index the index of the board
+     * @return the tag given when the board was added
+     */
+    public int getTag(int index) {
+        return tags[checkIndex(index)];
+    }
+
+    /**
+     * Moves the tiles of every board in the same direction.
+     *
+     * @param direction the direction to move the tiles
+     * @param gained    receives the score gained by every board, -1 for boards that did not move; may be null
+     * @return the number of boards that moved
+     */
+    public int moveAll(Direction direction, int[] gained) {
+        int moved = 0;
+        if (packed) {
+            for (int i = 0; i < count; i++) {
+                long board = boards[i];
+                long after = BitBoard.move(board, direction);
+                if (after != board) {
+                    moved++;
+                    boards[i] = after;
+                    if (gained != null) {
+                        gained[i] = BitBoard.score(board, direction);
+                    }
+                } else if (gained != null) {
+                    gained[i] = -1;
+                }
+            }
+        } else {
+            for (int i = 0, offset = 0; i < count; i++, offset += cellCount) {
+                int score = PackedGrid.move(cells, offset, size, direction);
+                if (score >= 0) {
+                    moved++;
+                }
+                if (gained != null) {
+                    gained[i] = score;
+                }
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Checks if a board can move in any direction.
+     *
+     * @param index the index of the board
+     * @return true if at least one direction changes the board
+     */
+    public boolean canMove(int index) {
+        checkIndex(index);
+        return packed ? BitBoard.canMove(boards[index]) : PackedGrid.canMove(cells, index * cellCount, size);
+    }
+
+    /**
+     * Removes the boards that cannot move in any direction, keeping the order of the others and their tags.
+     *
+     * @return the number of removed boards
+     */
+    public int filterTerminal() {
+        int kept = 0;
+        if (packed) {
+            for (int i = 0; i < count; i++) {
+                if (BitBoard.canMove(boards[i])) {
+                    boards[kept] = boards[i];
+                    tags[kept++] = tags[i];
+                }
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                if (PackedGrid.canMove(cells, i * cellCount, size)) {
+                    if (kept != i) {
+                        System.arraycopy(cells, i * cellCount, cells, kept * cellCount, cellCount);
+                    }
+                    tags[kept++] = tags[i];
+                }
+            }
+        }
+        int removed = count - kept;
+        count = kept;
+        return removed;
+    }
+
+    /**
+     * Evaluates every packed 4x4 board, e.g. with {@code HeuristicTables::evaluate}.
+     *
+     * @param evaluator the evaluation of a packed board
+     * @param values    receives the value of every board, at least {@link #count()} long
+     * @throws IllegalStateException if the batch does not hold 4x4 boards
+     */
+    public void evaluateAll(LongToDoubleFunction evaluator, float[] values) {
+        if (!packed) {
+            throw new IllegalStateException("Packed evaluators need a 4x4 batch, this one is " + size + "x" + size);
+        }
+        for (int i = 0; i < count; i++) {
+            values[i] = (float) evaluator.applyAsDouble(boards[i]);
+        }
+    }
+
+    /**
+     * Evaluates every board of a batch of exponent arrays.
+     *
+     * @param evaluator the evaluation of a board stored in the flat array
+     * @param values    receives the value of every board, at least {@link #count()} long
+     * @throws IllegalStateException if the batch holds packed 4x4 boards
+     */
+    public void evaluateAll(CellEvaluator evaluator, float[] values) {
+        if (packed) {
+            throw new IllegalStateException("4x4 batches hold packed boards, evaluate them as longs");
+        }
+        for (int i = 0, offset = 0; i < count; i++, offset += cellCount) {
+            values[i] = evaluator.evaluate(cells, offset, size);
+        }
+    }
+
+    /**
+     * Evaluation of a board stored in a flat exponent array, see {@link PackedGrid}.
+     */
+    @FunctionalInterface
+    public interface CellEvaluator {
+        /**
+         * Evaluates a board.
+         *
+         * @param cells  the array holding the board
+         * @param offset the index of the first cell of the board
+         * @param size   the number of rows and columns
+         * @return the estimated value of the board
+         */
+        float evaluate(byte[] cells, int offset, int size);
+    }
+
+    /**
+     * Counts the empty cells of a board stored in a flat exponent array, a cheap evaluation of boards of any size.
+     *
+     * @param cells  the array holding the board
+     * @param offset the index of the first cell of the board
+     * @param size   the number of rows and columns
+     * @return the number of empty cells
+     */
+    public static float emptyCells(byte[] cells, int offset, int size) {
+        int empty = 0;
+        for (int i = offset, end = offset + size * size; i < end; i++) {
+            if (cells[i] == 0) {
+                empty++;
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Grows the arrays to hold at least the given number of boards.
+     *
+     * @param boardCount the number of boards
+     */
+    private void ensureCapacity(int boardCount) {
+        if (boardCount <= tags.length) {
+            return;
+        }
+        int capacity = Math.max(boardCount, tags.length * 2);
+        if (packed) {
+            boards = Arrays.copyOf(boards, capacity);
+        } else {
+            cells = Arrays.copyOf(cells, capacity * cellCount);
+        }
+        tags = Arrays.copyOf(tags, capacity);
+    }
+
+    /**
+     * Checks a board index.
+     *
+     * @param index the index of the board
+     * @return the index
+     * @throws IndexOutOfBoundsException if there is no such board
+     */
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, count);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.tilesumgame.engine;
+
+import com.example.tilesumgame.Direction;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Operations on boards of any size stored as a flat byte array of tile exponents, row by row.
+ * Cell (row, col) of a board of size {@code n} is {@code cells[n * row + col]}, 0 is an empty cell and {@code e}
+ * a tile of value {@code 2^e}. Moves work in place and do not allocate.
+ */
+public final class PackedGrid {
+    private PackedGrid() {
+    }
+
+    /**
+     * Returns the board size of a flat cell array.
+     *
+     * @param cells the exponents of the board
+     * @return the number of rows and columns
+     */
+    public static int size(byte[] cells) {
+        return (int) Math.round(Math.sqrt(cells.length));
+    }
+
+    /**
+     * Moves the tiles in the given direction, the same way {@code Board} does.
+     *
+     * @param cells     the exponents of the board, modified in place
+     * @param size      the number of rows and columns
+     * @param direction the direction to move the tiles
+     * @return the score gained by merges, or -1 if nothing moved
+     */
+    public static int move(byte[] cells, int size, Direction direction) {
+        return move(cells, 0, size, direction);
+    }
+
+    /**
+     * Moves the tiles of a board stored at an offset of a larger array.
+     *
+     * @param cells     the array holding the board, modified in place
+     * @param offset    the index of the first cell of the board
+     * @param size      the number of rows and columns
+     * @param direction the direction to move the tiles
+     * @return the score gained by merges, or -1 if nothing moved
+     */
+    public static int move(byte[] cells, int offset, int size, Direction direction) {
+        int stride = switch (direction) {
+            case LEFT -> 1;
+            case RIGHT -> -1;
+            case UP -> size;
+            case DOWN -> -size;
+        };
+        boolean moved = false;
+        int score = 0;
+        for (int line = 0; line < size; line++) {
+            // Index of the cell at the edge the tiles move towards
+            int base = offset + switch (direction) {
+                case LEFT -> line * size;
+                case RIGHT -> line * size + size - 1;
+                case UP -> line;
+                case DOWN -> (size - 1) * size + line;
+            };
+            int write = 0;
+            int last = 0; // Exponent of the last written tile if it can still merge
+            for (int read = 0; read < size; read++) {
+                int value = cells[base + read * stride];
+                if (value == 0) {
+                    continue;
+                }
+                if (value == last) {
+                    cells[base + (write - 1) * stride] = (byte) (value + 1);
+                    score += 1 << (value + 1);
+                    last = 0;
+                    moved = true;
+                } else {
+                    if (read != write) {
+                        cells[base + write * stride] = (byte) value;
+                        moved = true;
+                    }
+                    write++;
+                    last = value;
+                }
+            }
+            for (int clear = write; clear < size; clear++) {
+                cells[base + clear * stride] = 0;
+            }
+        }
+        return moved ? score : -1;
+    }
+
+    /**
+     * Checks if the board can move in any direction.
+     *
+     * @param cells the exponents of the board
+     * @param size  the number of rows and columns
+     * @return true if there is an empty cell or two equal neighbours, false otherwise
+     */
+    public static boolean canMove(byte[] cells, int size) {
+        return canMove(cells, 0, size);
+    }
+
+    /**
+     * Checks if a board stored at an offset of a larger array can move in any direction.
+     *
+     * @param cells  the array holding the board
+     * @param offset the index of the first cell of the board
+     * @param size   the number of rows and columns
+     * @return true if there is an empty cell or two equal neighbours, false otherwise
+     */
+    public static boolean canMove(byte[] cells, int offset, int size) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int cell = offset + size * row + col;
+                int value = cells[cell];
+                if (value == 0
+                        || (col < size - 1 && value == cells[cell + 1])
+                        || (row < size - 1 && value == cells[cell + size])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the empty cells of the board.
+     *
+     * @param cells the exponents of the board
+     * @return the number of empty cells
+     */
+    public static int countEmpty(byte[] cells) {
+        int empty = 0;
+        for (byte cell : cells) {
+            if (cell == 0) {
+                empty++;
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Returns the highest exponent on the board.
+     *
+     * @param cells the exponents of the board
+     * @return the highest exponent, 0 for an empty board
+     */
+    public static int maxExponent(byte[] cells) {
+        int max = 0;
+        for (byte cell : cells) {
+            max = Math.max(max, cell);
+        }
+        return max;
+    }
+
+    /**
+     * Places a tile in the empty cell with the given rank.
+     *
+     * @param cells    the exponents of the board, modified in place
+     * @param target   the rank of the cell among the empty cells, counted row by row
+     * @param exponent the exponent of the new tile
+     * @return the index of the cell, or -1 if there are fewer empty cells
+     */
+    public static int spawn(byte[] cells, int target, int exponent) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == 0 && target-- == 0) {
+                cells[i] = (byte) exponent;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Spawns a new tile in a random empty cell, a 2 with probability 0.9 and a 4 otherwise.
+     *
+     * @param cells  the exponents of the board, modified in place
+     * @param random the random generator to use
+     * @return the index of the cell, or -1 if the board is full
+     */
+    public static int spawn(byte[] cells, RandomGenerator random) {
+        int empty = countEmpty(cells);
+        if (empty == 0) {
+            return -1;
+        }
+        return spawn(cells, random.nextInt(empty), random.nextDouble() < 0.9 ? 1 : 2);
+    }
+
+    /**
+     * Converts a grid of tile values, as returned by {@code Board.getBoardState()}, to exponents.
+     *
+     * @param grid the tile values
+     * @return the exponents of the board
+     */
+    public static byte[] fromGrid(int[][] grid) {
+        int size = grid.length;
+        byte[] cells = new byte[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = grid[row][col];
+                cells[size * row + col] = (byte) (value == 0 ? 0 : Integer.numberOfTrailingZeros(value));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Converts exponents to a grid of tile values.
+     *
+     * @param cells the exponents of the board
+     * @param size  the number of rows and columns
+     * @return the tile values
+     */
+    public static int[][] toGrid(byte[] cells, int size) {
+        int[][] grid = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int exponent = cells[size * row + col];
+                grid[row][col] = exponent == 0 ? 0 : 1 << exponent;
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.tilesumgame.engine;
+
+/**
+ * Slides and merges a single line of tile values towards its start, the way a move does to every row or column.
+ * The result packs the score gained and the number of merges into a {@code long}, read with {@link #score(long)}
+ * and {@link #merges(long)}, so engines neither allocate nor keep state.
+ */
+public interface RowEngine {
+    /**
+     * Slides the tiles of a line towards index 0 and merges equal neighbours, each tile merging at most once.
+     *
+     * @param line   the tile values, modified in place
+     * @param length the number of cells of the line, from index 0
+     * @return the packed score gained and number of merges
+     */
+    long slide(int[] line, int length);
+
+    /**
+     * Returns the name of the engine, e.g. for logging.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Packs the outcome of a slide.
+     *
+     * @param score   the score gained by merges
+     * @param merges  the number of merges
+     * @return the packed outcome
+     */
+    static long pack(int score, int merges) {
+        return (long) score << 32 | merges;
+    }
+
+    /**
+     * Returns the score gained by a slide.
+     *
+     * @param outcome the packed outcome of the slide
+     * @return the score gained
+     */
+    static int score(long outcome) {
+        return (int) (outcome >>> 32);
+    }
+
+    /**
+     * Returns the number of merges of a slide.
+     *
+     * @param outcome the packed outcome of the slide
+     * @return the number of merges
+     */
+    static int merges(long outcome) {
+        return (int) outcome;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.tilesumgame.engine;
+
+/**
+ * Chooses the row engine for a board size. The Vector API engine is used for wide boards when the
+ * {@code jdk.incubator.vector} module is present, e.g. when started with {@code --add-modules jdk.incubator.vector},
+ * and the scalar engine otherwise.
+ */
+public final class RowEngines {
+    /**
+     * Board size from which the vector engine measured faster than the scalar one, with 256 and 512 bit vectors.
+     */
+    public static final int MIN_VECTOR_SIZE = 14;
+
+    private static final RowEngine SCALAR = new ScalarRowEngine();
+    private static final RowEngine VECTOR = loadVectorEngine();
+
+    private RowEngines() {
+    }
+
+    private static RowEngine loadVectorEngine() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            // Loaded by name, so this class never links against the optional module
+            return (RowEngine) Class.forName("com.example.tilesumgame.engine.VectorRowEngine")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError _) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the engine for a board size.
+     *
+     * @param size the number of rows and columns
+     * @return the vector engine for wide boards if available, the scalar engine otherwise
+     */
+    public static RowEngine forSize(int size) {
+        return VECTOR != null && size >= MIN_VECTOR_SIZE ? VECTOR : SCALAR;
+    }
+
+    /**
+     * Returns the scalar engine, which is always available.
+     *
+     * @return the scalar engine
+     */
+    public static RowEngine scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns the Vector API engine.
+     *
+     * @return the vector engine, or null if the {@code jdk.incubator.vector} module is missing
+     */
+    public static RowEngine vector() {
+        return VECTOR;
+    }
+}
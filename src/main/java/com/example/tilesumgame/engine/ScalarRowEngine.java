@@ -0,0 +1,38 @@
+package com.example.tilesumgame.engine;
+
+/**
+ * Row engine sliding and merging in a single pass over the line.
+ */
+public final class ScalarRowEngine implements RowEngine {
+    @Override
+    public long slide(int[] line, int length) {
+        int write = 0;
+        int score = 0;
+        int merges = 0;
+        int mergeable = 0; // Value of the last written tile if it may still merge, 0 otherwise
+        for (int read = 0; read < length; read++) {
+            int value = line[read];
+            if (value == 0) {
+                continue;
+            }
+            if (value == mergeable) {
+                line[write - 1] = value * 2;
+                score += value * 2;
+                merges++;
+                mergeable = 0;
+            } else {
+                line[write++] = value;
+                mergeable = value;
+            }
+        }
+        for (int i = write; i < length; i++) {
+            line[i] = 0;
+        }
+        return RowEngine.pack(score, merges);
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
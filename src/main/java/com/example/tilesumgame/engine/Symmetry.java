@@ -0,0 +1,78 @@
+package com.example.tilesumgame.engine;
+
+/**
+ * Dihedral symmetries of packed 4x4 boards, see {@link BitBoard}.
+ * The 8 symmetries are generated by transposing, mirroring the columns and flipping the rows.
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+
+    private Symmetry() {
+    }
+
+    /**
+     * Mirrors the board left to right by reversing the cells of every row.
+     *
+     * @param board the packed board
+     * @return the mirrored board
+     */
+    public static long mirror(long board) {
+        return ((board & 0xF000F000F000F000L) >>> 12)
+                | ((board & 0x0F000F000F000F00L) >>> 4)
+                | ((board & 0x00F000F000F000F0L) << 4)
+                | ((board & 0x000F000F000F000FL) << 12);
+    }
+
+    /**
+     * Flips the board upside down by reversing the order of the rows.
+     *
+     * @param board the packed board
+     * @return the flipped board
+     */
+    public static long flip(long board) {
+        return (board >>> 48)
+                | ((board >>> 16) & 0xFFFF0000L)
+                | ((board << 16) & 0xFFFF00000000L)
+                | (board << 48);
+    }
+
+    /**
+     * Applies one of the 8 symmetries: bit 2 transposes, bit 0 mirrors the columns and bit 1 flips the rows.
+     *
+     * @param board    the packed board
+     * @param symmetry the index of the symmetry, 0 is the identity
+     * @return the transformed board
+     */
+    public static long apply(long board, int symmetry) {
+        if ((symmetry & 4) != 0) {
+            board = BitBoard.transpose(board);
+        }
+        if ((symmetry & 1) != 0) {
+            board = mirror(board);
+        }
+        if ((symmetry & 2) != 0) {
+            board = flip(board);
+        }
+        return board;
+    }
+
+    /**
+     * Returns the canonical form of the board, the smallest of its 8 symmetric images.
+     * Boards that are rotations or reflections of each other share the same canonical form.
+     *
+     * @param board the packed board
+     * @return the canonical board
+     */
+    public static long canonical(long board) {
+        long mirrored = mirror(board);
+        long transposed = BitBoard.transpose(board);
+        long transposedMirrored = mirror(transposed);
+        long min = Math.min(board, mirrored);
+        min = Math.min(min, flip(board));
+        min = Math.min(min, flip(mirrored));
+        min = Math.min(min, transposed);
+        min = Math.min(min, transposedMirrored);
+        min = Math.min(min, flip(transposed));
+        return Math.min(min, flip(transposedMirrored));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.tilesumgame.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Row engine using the Vector API: tiles are compacted and equal neighbours detected a full vector of lanes at a
+ * time, and only the part of the line from the first equal pair on is merged lane by lane.
+ * <p>
+ * Needs the {@code jdk.incubator.vector} module, so it is only created through {@link RowEngines}, which falls back to
+ * {@link ScalarRowEngine} when the module is missing.
+ */
+public final class VectorRowEngine implements RowEngine {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public long slide(int[] line, int length) {
+        int lanes = SPECIES.length();
+        // Compact the tiles towards the start, writing behind the vector being read
+        int write = 0;
+        for (int i = 0; i < length; i += lanes) {
+            VectorMask<Integer> inRange = SPECIES.indexInRange(i, length);
+            IntVector values = IntVector.fromArray(SPECIES, line, i, inRange);
+            VectorMask<Integer> occupied = values.compare(VectorOperators.NE, 0, inRange);
+            int count = occupied.trueCount();
+            if (count > 0) {
+                values.compress(occupied).intoArray(line, write, SPECIES.indexInRange(0, count));
+                write += count;
+            }
+        }
+        Arrays.fill(line, write, length, 0);
+        // Find the first pair of equal neighbours among the compacted tiles
+        int first = -1;
+        for (int i = 0; i < write - 1; i += lanes) {
+            VectorMask<Integer> inRange = SPECIES.indexInRange(i, write - 1);
+            IntVector left = IntVector.fromArray(SPECIES, line, i, inRange);
+            IntVector right = IntVector.fromArray(SPECIES, line, i + 1, inRange);
+            VectorMask<Integer> equal = left.compare(VectorOperators.EQ, right, inRange);
+            if (equal.anyTrue()) {
+                first = i + equal.firstTrue();
+                break;
+            }
+        }
+        if (first < 0) {
+            return RowEngine.pack(0, 0);
+        }
+        // Tiles before the first pair stay in place, pairs from there on are resolved from the start of the line
+        int score = 0;
+        int merges = 0;
+        int out = first;
+        int read = first;
+        while (read < write) {
+            int value = line[read];
+            if (read + 1 < write && line[read + 1] == value) {
+                line[out++] = value * 2;
+                score += value * 2;
+                merges++;
+                read += 2;
+            } else {
+                line[out++] = value;
+                read++;
+            }
+        }
+        Arrays.fill(line, out, write, 0);
+        return RowEngine.pack(score, merges);
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.length() * Integer.SIZE;
+    }
+}
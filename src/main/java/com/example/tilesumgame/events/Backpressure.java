@@ -0,0 +1,20 @@
+package com.example.tilesumgame.events;
+
+/**
+ * What a subscription does with new events while its buffer is full, because the subscriber is slower than the game.
+ * The publisher never waits for a subscriber.
+ */
+public enum Backpressure {
+    /**
+     * New events are dropped, the buffered ones are kept.
+     */
+    DROP,
+    /**
+     * The oldest buffered event is dropped to make room, so the subscriber always sees the latest events.
+     */
+    LATEST,
+    /**
+     * The buffer grows as needed and no event is lost.
+     */
+    BUFFER
+}
@@ -0,0 +1,62 @@
+package com.example.tilesumgame.events;
+
+import com.example.tilesumgame.Direction;
+
+/**
+ * Something that happened on a board, published by a {@link BoardEventPublisher}.
+ */
+public sealed interface BoardEvent {
+    /**
+     * A new game started on an empty board.
+     *
+     * @param size        the number of rows and columns
+     * @param startMillis the start time in milliseconds since the epoch
+     */
+    record GameStarted(int size, long startMillis) implements BoardEvent {
+    }
+
+    /**
+     * A move changed the board.
+     *
+     * @param direction   the direction of the move
+     * @param scoreGained the score gained by merges
+     * @param score       the score after the move
+     */
+    record Moved(Direction direction, int scoreGained, int score) implements BoardEvent {
+    }
+
+    /**
+     * Tiles merged during a move.
+     *
+     * @param merges  the number of merges of the move
+     * @param maxTile the highest tile value on the board after the move
+     */
+    record Merged(int merges, int maxTile) implements BoardEvent {
+    }
+
+    /**
+     * A new tile appeared.
+     *
+     * @param row   the row of the tile
+     * @param col   the column of the tile
+     * @param value the value of the tile
+     */
+    record Spawned(int row, int col, int value) implements BoardEvent {
+    }
+
+    /**
+     * The 2048 tile was reached.
+     *
+     * @param score the score of the game
+     */
+    record Won(int score) implements BoardEvent {
+    }
+
+    /**
+     * No move is left.
+     *
+     * @param score the score of the game
+     */
+    record Lost(int score) implements BoardEvent {
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.tilesumgame.events;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Publishes {@link BoardEvent}s to independent subscribers.
+ * <p>
+ * Every subscription has its own buffer and {@link Backpressure} policy and is delivered on an executor, one event at a
+ * time and in order. {@link #publish(BoardEvent)} only appends to the buffers, so a slow subscriber loses events or
+ * buffers them according to its policy but never stalls the game loop. Events are published from one thread.
+ */
+public class BoardEventPublisher implements Flow.Publisher<BoardEvent>, AutoCloseable {
+    /**
+     * The buffer size of subscriptions that do not choose one.
+     */
+    public static final int DEFAULT_CAPACITY = Flow.defaultBufferSize();
+
+    private final List<BoardSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+    private volatile boolean closed;
+
+    /**
+     * Creates a publisher delivering events on virtual threads.
+     */
+    public BoardEventPublisher() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Creates a publisher.
+     *
+     * @param executor the default executor delivering events to subscribers
+     */
+    public BoardEventPublisher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes with a buffer of {@link #DEFAULT_CAPACITY} events, keeping the latest ones when it is full.
+     *
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super BoardEvent> subscriber) {
+        subscribe(subscriber, Backpressure.LATEST, DEFAULT_CAPACITY, executor);
+    }
+
+    /**
+     * Subscribes with the given backpressure policy, delivering on the default executor.
+     *
+     * @param subscriber the subscriber
+     * @param policy     what to do with new events while the buffer is full
+     * @param capacity   the buffer size, the initial size for {@link Backpressure#BUFFER}
+     * @return the subscription, e.g. to read the number of dropped events
+     */
+    public BoardSubscription subscribe(Flow.Subscriber<? super BoardEvent> subscriber, Backpressure policy,
+                                       int capacity) {
+        return subscribe(subscriber, policy, capacity, executor);
+    }
+
+    /**
+     * Subscribes with the given backpressure policy.
+     *
+     * @param subscriber the subscriber
+     * @param policy     what to do with new events while the buffer is full
+     * @param capacity   the buffer size, the initial size for {@link Backpressure#BUFFER}
+     * @param executor   the executor calling the subscriber, e.g. {@code Platform::runLater} for the UI
+     * @return the subscription, e.g. to read the number of dropped events
+     */
+    public BoardSubscription subscribe(Flow.Subscriber<? super BoardEvent> subscriber, Backpressure policy,
+                                       int capacity, Executor executor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        BoardSubscription subscription = new BoardSubscription(subscriber, policy, capacity, executor);
+        // onSubscribe must be the first signal, so it is sent before any event can be scheduled
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+        return subscription;
+    }
+
+    /**
+     * Subscribes a consumer that requests every event, delivered on the default executor.
+     *
+     * @param consumer the consumer of events
+     * @param policy   what to do with new events while the buffer is full
+     * @param capacity the buffer size
+     * @return the subscription
+     */
+    public BoardSubscription subscribe(Consumer<? super BoardEvent> consumer, Backpressure policy, int capacity) {
+        return subscribe(consumer, policy, capacity, executor);
+    }
+
+    /**
+     * Subscribes a consumer that requests every event.
+     *
+     * @param consumer the consumer of events
+     * @param policy   what to do with new events while the buffer is full
+     * @param capacity the buffer size
+     * @param executor the executor calling the consumer
+     * @return the subscription
+     */
+    public BoardSubscription subscribe(Consumer<? super BoardEvent> consumer, Backpressure policy, int capacity,
+                                       Executor executor) {
+        return subscribe(new Flow.Subscriber<BoardEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(BoardEvent event) {
+                consumer.accept(event);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        }, policy, capacity, executor);
+    }
+
+    /**
+     * Offers an event to every subscriber without waiting for any of them.
+     *
+     * @param event the event
+     */
+    public void publish(BoardEvent event) {
+        if (closed) {
+            return;
+        }
+        for (BoardSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Returns whether anyone is subscribed, so publishers can skip building events nobody receives.
+     *
+     * @return true if there is at least one subscriber
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Stops publishing. Subscribers complete after receiving their buffered events.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (BoardSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * One subscriber's buffer and demand. Events are delivered by a drain loop that runs on the executor while there
+     * are buffered events and demand, and at most once at a time.
+     */
+    public final class BoardSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super BoardEvent> subscriber;
+        private final Backpressure policy;
+        private final int capacity;
+        private final Executor deliveryExecutor;
+        private final ArrayDeque<BoardEvent> buffer;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile boolean completing;
+        private boolean done;
+        private volatile Throwable error;
+
+        private BoardSubscription(Flow.Subscriber<? super BoardEvent> subscriber, Backpressure policy, int capacity,
+                                  Executor deliveryExecutor) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.capacity = capacity;
+            this.deliveryExecutor = deliveryExecutor;
+            this.buffer = new ArrayDeque<>(capacity);
+        }
+
+        /**
+         * Requests more events.
+         *
+         * @param n the number of events, must be positive
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " events");
+                completing = true;
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        /**
+         * Stops delivery and discards buffered events.
+         */
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+
+        /**
+         * Returns the number of events lost because the buffer was full.
+         *
+         * @return the number of dropped events
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * Returns the number of events waiting for delivery.
+         *
+         * @return the number of buffered events
+         */
+        public int getBuffered() {
+            synchronized (buffer) {
+                return buffer.size();
+            }
+        }
+
+        /**
+         * Buffers an event according to the policy and schedules its delivery.
+         *
+         * @param event the event
+         */
+        private void offer(BoardEvent event) {
+            if (cancelled) {
+                return;
+            }
+            synchronized (buffer) {
+                if (buffer.size() >= capacity) {
+                    switch (policy) {
+                        case DROP -> {
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                        case LATEST -> {
+                            buffer.pollFirst();
+                            dropped.incrementAndGet();
+                        }
+                        case BUFFER -> {
+                        }
+                    }
+                }
+                buffer.addLast(event);
+            }
+            schedule();
+        }
+
+        /**
+         * Marks the subscription complete once the buffered events are delivered.
+         */
+        private void complete() {
+            completing = true;
+            schedule();
+        }
+
+        /**
+         * Starts a drain on the executor unless one is running, in which case that one drains again.
+         */
+        private void schedule() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Delivers buffered events while there is demand, then signals completion or an error if it is due.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                while (!cancelled && !done) {
+                    if (error != null) {
+                        done = true;
+                        subscriber.onError(error);
+                        break;
+                    }
+                    BoardEvent event;
+                    synchronized (buffer) {
+                        event = requested.get() > 0 ? buffer.pollFirst() : null;
+                    }
+                    if (event == null) {
+                        if (completing && getBuffered() == 0) {
+                            done = true;
+                            subscriptions.remove(this);
+                            subscriber.onComplete();
+                        }
+                        break;
+                    }
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        // A failing subscriber is cancelled so it cannot affect the others
+                        cancel();
+                        subscriber.onError(e);
+                    }
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.tilesumgame.events;
+
+import com.example.tilesumgame.GameLogger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Subscriber appending one line per game to a journal file, in the format
+ * {@code size|startMillis|outcome|score|moves|maxTile|firstMoves|directions}:
+ * <ul>
+ *     <li>{@code outcome} is {@code WON}, {@code LOST} or {@code ABANDONED} for games left unfinished</li>
+ *     <li>{@code moves} counts the moves that changed the board</li>
+ *     <li>{@code firstMoves} lists the move number at which each tile value first appeared, e.g.
+ *     {@code 2:0,4:0,8:2,16:5}</li>
+ *     <li>{@code directions} has one letter per move: {@code L}, {@code R}, {@code U} or {@code D}</li>
+ * </ul>
+ * A game ends at its first win or loss. Subscribe it with {@link Backpressure#BUFFER}, so no move is lost.
+ */
+public class JournalRecorder implements Flow.Subscriber<BoardEvent> {
+    private static final int MAX_EXPONENT = 31;
+
+    private final Path file;
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private BufferedWriter writer;
+    // The game in progress, size 0 when none
+    private int size;
+    private long startMillis;
+    private int score;
+    private int maxTile;
+    private final int[] firstMoves = new int[MAX_EXPONENT + 1];
+    private final StringBuilder directions = new StringBuilder();
+
+    /**
+     * Creates a recorder appending to the given file.
+     *
+     * @param file the journal file, created if missing
+     */
+    public JournalRecorder(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(BoardEvent event) {
+        switch (event) {
+            case BoardEvent.GameStarted started -> {
+                finishGame("ABANDONED");
+                startGame(started);
+            }
+            case BoardEvent.Moved moved when size > 0 -> {
+                directions.append(moved.direction().name().charAt(0));
+                score = moved.score();
+            }
+            case BoardEvent.Merged merged when size > 0 -> reachTile(merged.maxTile());
+            case BoardEvent.Spawned spawned when size > 0 -> reachTile(spawned.value());
+            case BoardEvent.Won won -> {
+                score = won.score();
+                finishGame("WON");
+            }
+            case BoardEvent.Lost lost -> {
+                score = lost.score();
+                finishGame("LOST");
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        warn("Journal subscription failed: " + throwable);
+        onComplete();
+    }
+
+    @Override
+    public void onComplete() {
+        finishGame("ABANDONED");
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } catch (IOException e) {
+            warn("Error closing journal: " + e.getMessage());
+        }
+        completed.countDown();
+    }
+
+    /**
+     * Waits until the recorder has written its last game and closed the file, after the publisher is closed.
+     *
+     * @param timeout the maximum time to wait
+     * @return true if the journal is closed, false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return completed.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts recording a new game.
+     *
+     * @param started the start event of the game
+     */
+    private void startGame(BoardEvent.GameStarted started) {
+        size = started.size();
+        startMillis = started.startMillis();
+        score = 0;
+        maxTile = 0;
+        Arrays.fill(firstMoves, -1);
+        directions.setLength(0);
+    }
+
+    /**
+     * Records the first move at which the given tile value and the values below it appeared.
+     *
+     * @param value the value of a tile on the board
+     */
+    private void reachTile(int value) {
+        if (value <= maxTile) {
+            return;
+        }
+        maxTile = value;
+        for (int exponent = Integer.numberOfTrailingZeros(value); exponent > 0 && firstMoves[exponent] < 0; exponent--) {
+            firstMoves[exponent] = directions.length();
+        }
+    }
+
+    /**
+     * Appends the game in progress to the journal, if there is one.
+     *
+     * @param outcome the outcome of the game
+     */
+    private void finishGame(String outcome) {
+        if (size == 0) {
+            return;
+        }
+        StringBuilder line = new StringBuilder();
+        line.append(size).append('|').append(startMillis).append('|').append(outcome).append('|').append(score)
+                .append('|').append(directions.length()).append('|').append(maxTile).append('|');
+        String separator = "";
+        for (int exponent = 1; exponent <= MAX_EXPONENT; exponent++) {
+            if (firstMoves[exponent] >= 0) {
+                line.append(separator).append(1 << exponent).append(':').append(firstMoves[exponent]);
+                separator = ",";
+            }
+        }
+        line.append('|').append(directions);
+        size = 0;
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(line.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            warn("Error writing journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Logs a problem with the journal if logging is initialized.
+     *
+     * @param message the message to log
+     */
+    private static void warn(String message) {
+        GameLogger logger = GameLogger.getInstance();
+        if (logger != null) {
+            logger.log(Level.WARNING, message);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tilesumgame.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Starts and stops a Java Flight Recorder recording of the game events.
+ * The game events are disabled by default, so they cost almost nothing unless a recording is started here.
+ * The recording uses the JDK default settings plus all game events, so GC and JIT activity can be correlated with them.
+ */
+public class FlightRecording {
+    private static final List<Class<? extends Event>> GAME_EVENTS =
+            List.of(MoveEvent.class, SpawnEvent.class, SolveEvent.class, RenderEvent.class, ScoreSaveEvent.class);
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Starts recording the game events. The recording is written to the file when {@link #stop()} is called.
+     *
+     * @param destination the file to write the recording to
+     * @throws IOException    if the recording cannot be started
+     * @throws ParseException if the default JDK settings cannot be parsed
+     */
+    public static synchronized void start(Path destination) throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("2048 Game");
+        for (Class<? extends Event> event : GAME_EVENTS) {
+            recording.enable(event).withoutThreshold();
+        }
+        recording.setDestination(destination);
+        recording.setToDisk(true);
+        recording.start();
+    }
+
+    /**
+     * Stops the recording and writes it to its destination, does nothing if no recording is running.
+     */
+    public static synchronized void stop() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.tilesumgame.metrics;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.events.BoardEvent;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Singleton collecting runtime metrics of moves, spawns, the solver, UI updates and score persistence of the played game.
+ * Boards and solvers only record into it when given it with {@code setMetrics}, so headless games do not skew it.
+ * Recording only touches striped counters, so it is cheap enough to stay on in production.
+ * The metrics are published as an MXBean named {@value #OBJECT_NAME}.
+ */
+public class GameMetrics implements GameMetricsMXBean {
+    public static final String OBJECT_NAME = "com.example.tilesumgame:type=GameMetrics";
+    private static final GameMetrics instance = new GameMetrics();
+
+    private final Map<Direction, LatencyHistogram> moveLatency = new EnumMap<>(Direction.class);
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder merges = new LongAdder();
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesLost = new LongAdder();
+    private final LatencyHistogram spawnLatency = new LatencyHistogram();
+    private final LatencyHistogram uiUpdateLatency = new LatencyHistogram();
+    private final LatencyHistogram scoreSaveLatency = new LatencyHistogram();
+    // Reused by every read of the move latency over all directions
+    private final LatencyHistogram combinedMoveLatency = new LatencyHistogram();
+
+    private final LongAdder solverSearches = new LongAdder();
+    private final LongAdder solverNodes = new LongAdder();
+    private final LongAdder solverNanos = new LongAdder();
+    private final LongAdder solverDepths = new LongAdder();
+    private final LongAdder solverCacheLookups = new LongAdder();
+    private final LongAdder solverCacheHits = new LongAdder();
+    private final LongAdder autoPlayMoves = new LongAdder();
+    private volatile int solverLastDepth;
+    private volatile long timeToFirstFrameMillis;
+
+    // Last sample of the move counter, used to compute the move rate between reads
+    private long lastMoveCount;
+    private long lastMoveSampleNanos = System.nanoTime();
+    private double lastMovesPerSecond;
+
+    private GameMetrics() {
+        for (Direction direction : Direction.values()) {
+            moveLatency.put(direction, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Returns the singleton instance of GameMetrics.
+     *
+     * @return the singleton instance of GameMetrics
+     */
+    public static GameMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, does nothing if already registered.
+     *
+     * @throws JMException if the registration fails
+     */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(this, name);
+        }
+    }
+
+    /**
+     * Records a board move.
+     *
+     * @param direction the direction of the move
+     * @param nanos     the duration of the move in nanoseconds
+     */
+    public void recordMove(Direction direction, long nanos) {
+        moves.increment();
+        moveLatency.get(direction).record(nanos);
+    }
+
+    /**
+     * Records a tile spawn.
+     *
+     * @param nanos the duration of the spawn in nanoseconds
+     */
+    public void recordSpawn(long nanos) {
+        spawnLatency.record(nanos);
+    }
+
+    /**
+     * Records the merges and game outcomes published by a board, as a subscriber of its events.
+     *
+     * @param event the board event
+     */
+    public void recordBoardEvent(BoardEvent event) {
+        switch (event) {
+            case BoardEvent.Merged merged -> merges.add(merged.merges());
+            case BoardEvent.Won _ -> gamesWon.increment();
+            case BoardEvent.Lost _ -> gamesLost.increment();
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Records a solver search.
+     *
+     * @param depth        the completed search depth
+     * @param nodes        the number of visited nodes
+     * @param cacheLookups the number of cache lookups
+     * @param cacheHits    the number of cache hits
+     * @param nanos        the duration of the search in nanoseconds
+     */
+    public void recordSearch(int depth, long nodes, long cacheLookups, long cacheHits, long nanos) {
+        solverSearches.increment();
+        solverDepths.add(depth);
+        solverNodes.add(nodes);
+        solverCacheLookups.add(cacheLookups);
+        solverCacheHits.add(cacheHits);
+        solverNanos.add(nanos);
+        solverLastDepth = depth;
+    }
+
+    /**
+     * Records a move made by the automatic solver, whether it came from a search, the tablebase or the fallback
+     * strategy.
+     */
+    public void recordAutoPlayMove() {
+        autoPlayMoves.increment();
+    }
+
+    /**
+     * Records an update of the board visuals.
+     *
+     * @param nanos the duration of the update in nanoseconds
+     */
+    public void recordUiUpdate(long nanos) {
+        uiUpdateLatency.record(nanos);
+    }
+
+    /**
+     * Records saving a score.
+     *
+     * @param nanos the duration of the save in nanoseconds
+     */
+    public void recordScoreSave(long nanos) {
+        scoreSaveLatency.record(nanos);
+    }
+
+    /**
+     * Records the startup time of the application. Not cleared by {@link #reset()}.
+     *
+     * @param millis the time from JVM start to the first rendered frame in milliseconds
+     */
+    public void recordFirstFrame(long millis) {
+        timeToFirstFrameMillis = millis;
+    }
+
+    /**
+     * Returns the move latency histogram of a direction.
+     *
+     * @param direction the direction of the moves
+     * @return the latency histogram
+     */
+    public LatencyHistogram getMoveLatency(Direction direction) {
+        return moveLatency.get(direction);
+    }
+
+    /**
+     * Estimates a move latency percentile over all directions.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the estimated latency in microseconds, 0 if nothing was recorded
+     */
+    public synchronized double getMoveLatencyPercentileMicros(double percentile) {
+        combinedMoveLatency.reset();
+        for (LatencyHistogram histogram : moveLatency.values()) {
+            combinedMoveLatency.add(histogram);
+        }
+        return combinedMoveLatency.getPercentileMicros(percentile);
+    }
+
+    @Override
+    public long getMoveCount() {
+        return moves.sum();
+    }
+
+    @Override
+    public long getMergeCount() {
+        return merges.sum();
+    }
+
+    @Override
+    public long getGamesWon() {
+        return gamesWon.sum();
+    }
+
+    @Override
+    public long getGamesLost() {
+        return gamesLost.sum();
+    }
+
+    /**
+     * Returns the move rate since the previous call, refreshed at most once per second.
+     *
+     * @return the number of moves per second
+     */
+    @Override
+    public synchronized double getMovesPerSecond() {
+        long now = System.nanoTime();
+        long elapsed = now - lastMoveSampleNanos;
+        if (elapsed >= 1_000_000_000L) {
+            long count = moves.sum();
+            lastMovesPerSecond = (count - lastMoveCount) * 1e9 / elapsed;
+            lastMoveCount = count;
+            lastMoveSampleNanos = now;
+        }
+        return lastMovesPerSecond;
+    }
+
+    @Override
+    public Map<String, long[]> getMoveLatencyHistograms() {
+        Map<String, long[]> histograms = new LinkedHashMap<>();
+        moveLatency.forEach((direction, histogram) -> histograms.put(direction.name(), histogram.getBucketCounts()));
+        return histograms;
+    }
+
+    @Override
+    public Map<String, Double> getMoveLatencyMedianMicros() {
+        return movePercentiles(50);
+    }
+
+    @Override
+    public Map<String, Double> getMoveLatencyP99Micros() {
+        return movePercentiles(99);
+    }
+
+    private Map<String, Double> movePercentiles(double percentile) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        moveLatency.forEach((direction, histogram) -> percentiles.put(direction.name(), histogram.getPercentileMicros(percentile)));
+        return percentiles;
+    }
+
+    @Override
+    public long[] getSpawnLatencyHistogram() {
+        return spawnLatency.getBucketCounts();
+    }
+
+    @Override
+    public double getSpawnLatencyMeanMicros() {
+        return spawnLatency.getMeanMicros();
+    }
+
+    @Override
+    public double getSpawnLatencyP99Micros() {
+        return spawnLatency.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getSolverSearchCount() {
+        return solverSearches.sum();
+    }
+
+    @Override
+    public long getAutoPlayMoveCount() {
+        return autoPlayMoves.sum();
+    }
+
+    @Override
+    public double getSolverNodesPerSecond() {
+        long nanos = solverNanos.sum();
+        return nanos == 0 ? 0 : solverNodes.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public int getSolverLastDepth() {
+        return solverLastDepth;
+    }
+
+    @Override
+    public double getSolverAverageDepth() {
+        long searches = solverSearches.sum();
+        return searches == 0 ? 0 : (double) solverDepths.sum() / searches;
+    }
+
+    @Override
+    public double getSolverCacheHitRate() {
+        long lookups = solverCacheLookups.sum();
+        return lookups == 0 ? 0 : (double) solverCacheHits.sum() / lookups;
+    }
+
+    @Override
+    public double getUiUpdateMeanMicros() {
+        return uiUpdateLatency.getMeanMicros();
+    }
+
+    @Override
+    public double getUiUpdateP99Micros() {
+        return uiUpdateLatency.getPercentileMicros(99);
+    }
+
+    @Override
+    public double getScoreSaveMeanMicros() {
+        return scoreSaveLatency.getMeanMicros();
+    }
+
+    @Override
+    public double getScoreSaveP99Micros() {
+        return scoreSaveLatency.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getTimeToFirstFrameMillis() {
+        return timeToFirstFrameMillis;
+    }
+
+    /**
+     * Clears all metrics.
+     */
+    @Override
+    public void reset() {
+        moves.reset();
+        merges.reset();
+        gamesWon.reset();
+        gamesLost.reset();
+        moveLatency.values().forEach(LatencyHistogram::reset);
+        spawnLatency.reset();
+        uiUpdateLatency.reset();
+        scoreSaveLatency.reset();
+        solverSearches.reset();
+        solverNodes.reset();
+        solverNanos.reset();
+        solverDepths.reset();
+        solverCacheLookups.reset();
+        solverCacheHits.reset();
+        autoPlayMoves.reset();
+        solverLastDepth = 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.tilesumgame.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link GameMetrics}, readable from JConsole or any JMX client.
+ * Latencies are in microseconds, histograms use the bucket bounds of {@link LatencyHistogram}.
+ */
+public interface GameMetricsMXBean {
+    /**
+     * @return the total number of board moves
+     */
+    long getMoveCount();
+
+    /**
+     * @return the total number of tile merges
+     */
+    long getMergeCount();
+
+    /**
+     * @return the number of games won
+     */
+    long getGamesWon();
+
+    /**
+     * @return the number of games lost
+     */
+    long getGamesLost();
+
+    /**
+     * @return the move rate since the previous read
+     */
+    double getMovesPerSecond();
+
+    /**
+     * @return the move latency histogram of every direction
+     */
+    Map<String, long[]> getMoveLatencyHistograms();
+
+    /**
+     * @return the median move latency of every direction
+     */
+    Map<String, Double> getMoveLatencyMedianMicros();
+
+    /**
+     * @return the 99th percentile move latency of every direction
+     */
+    Map<String, Double> getMoveLatencyP99Micros();
+
+    /**
+     * @return the tile spawn latency histogram
+     */
+    long[] getSpawnLatencyHistogram();
+
+    /**
+     * @return the mean tile spawn latency
+     */
+    double getSpawnLatencyMeanMicros();
+
+    /**
+     * @return the 99th percentile tile spawn latency
+     */
+    double getSpawnLatencyP99Micros();
+
+    /**
+     * @return the number of solver searches
+     */
+    long getSolverSearchCount();
+
+    /**
+     * @return the number of moves made by the automatic solver
+     */
+    long getAutoPlayMoveCount();
+
+    /**
+     * @return the average solver speed over all searches
+     */
+    double getSolverNodesPerSecond();
+
+    /**
+     * @return the depth completed by the last solver search
+     */
+    int getSolverLastDepth();
+
+    /**
+     * @return the average depth completed by solver searches
+     */
+    double getSolverAverageDepth();
+
+    /**
+     * @return the share of solver cache lookups that hit, between 0 and 1
+     */
+    double getSolverCacheHitRate();
+
+    /**
+     * @return the mean duration of board visual updates
+     */
+    double getUiUpdateMeanMicros();
+
+    /**
+     * @return the 99th percentile duration of board visual updates
+     */
+    double getUiUpdateP99Micros();
+
+    /**
+     * @return the mean duration of saving a score
+     */
+    double getScoreSaveMeanMicros();
+
+    /**
+     * @return the 99th percentile duration of saving a score
+     */
+    double getScoreSaveP99Micros();
+
+    /**
+     * @return the time from JVM start to the first rendered frame, 0 until it is rendered
+     */
+    long getTimeToFirstFrameMillis();
+
+    /**
+     * Clears all metrics.
+     */
+    void reset();
+}
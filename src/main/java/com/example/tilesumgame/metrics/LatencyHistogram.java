@@ -0,0 +1,118 @@
+package com.example.tilesumgame.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two nanosecond buckets.
+ * Every bucket is a striped {@link LongAdder}, so recording from many threads stays cheap and never blocks.
+ */
+public class LatencyHistogram {
+    public static final int BUCKETS = 40; // Up to 2^39 ns, about 9 minutes
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a latency. Bucket {@code i} counts latencies below {@code 2^i} nanoseconds.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+        counts[bucket].increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * Adds all latencies recorded by another histogram.
+     *
+     * @param other the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i].add(other.counts[i].sum());
+        }
+        totalNanos.add(other.totalNanos.sum());
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of samples
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the counts of all buckets.
+     *
+     * @return the number of samples per bucket, bucket {@code i} holding latencies below {@code 2^i} nanoseconds
+     */
+    public long[] getBucketCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean latency in microseconds, 0 if nothing was recorded
+     */
+    public double getMeanMicros() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket containing it.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the estimated latency in microseconds, 0 if nothing was recorded
+     */
+    public double getPercentileMicros(double percentile) {
+        long[] snapshot = getBucketCounts();
+        long count = 0;
+        for (long bucketCount : snapshot) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return (1L << (BUCKETS - 1)) / 1000.0;
+    }
+
+    /**
+     * Removes all recorded latencies.
+     */
+    public void reset() {
+        for (LongAdder bucket : counts) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+    }
+}
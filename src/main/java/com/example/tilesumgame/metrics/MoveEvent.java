@@ -0,0 +1,30 @@
+package com.example.tilesumgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: a board move. Disabled unless enabled by {@link FlightRecording}.
+ */
+@Name("com.example.tilesumgame.Move")
+@Label("Move")
+@Description("A board move")
+@Category({"2048", "Game"})
+@Enabled(false)
+public class MoveEvent extends Event {
+    @Label("Direction")
+    public String direction;
+
+    @Label("Merges")
+    public int merges;
+
+    @Label("Score Delta")
+    public int scoreDelta;
+
+    @Label("Moved")
+    public boolean moved;
+}
@@ -0,0 +1,24 @@
+package com.example.tilesumgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: an update of the board visuals. Disabled unless enabled by {@link FlightRecording}.
+ */
+@Name("com.example.tilesumgame.Render")
+@Label("Board Render")
+@Description("An update of the board visuals")
+@Category({"2048", "Game"})
+@Enabled(false)
+public class RenderEvent extends Event {
+    @Label("Grid Size")
+    public int gridSize;
+
+    @Label("Board Changed")
+    public boolean boardChanged;
+}
@@ -0,0 +1,21 @@
+package com.example.tilesumgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: saving a score to the score file. Disabled unless enabled by {@link FlightRecording}.
+ */
+@Name("com.example.tilesumgame.ScoreSave")
+@Label("Score Save")
+@Description("Saving a score to the score file")
+@Category({"2048", "Game"})
+@Enabled(false)
+public class ScoreSaveEvent extends Event {
+    @Label("Score")
+    public int score;
+}
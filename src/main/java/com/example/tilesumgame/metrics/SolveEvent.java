@@ -0,0 +1,30 @@
+package com.example.tilesumgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: a solver search choosing one move. Disabled unless enabled by {@link FlightRecording}.
+ */
+@Name("com.example.tilesumgame.Solve")
+@Label("Solver Decision")
+@Description("A solver search choosing one move")
+@Category({"2048", "Game"})
+@Enabled(false)
+public class SolveEvent extends Event {
+    @Label("Direction")
+    public String direction;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Cache Hits")
+    public long cacheHits;
+}
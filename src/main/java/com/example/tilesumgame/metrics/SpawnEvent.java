@@ -0,0 +1,27 @@
+package com.example.tilesumgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: a new tile spawned on the board. Disabled unless enabled by {@link FlightRecording}.
+ */
+@Name("com.example.tilesumgame.Spawn")
+@Label("Spawn")
+@Description("A new tile spawned on the board")
+@Category({"2048", "Game"})
+@Enabled(false)
+public class SpawnEvent extends Event {
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int column;
+
+    @Label("Value")
+    public int value;
+}
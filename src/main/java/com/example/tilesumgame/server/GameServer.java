@@ -0,0 +1,319 @@
+package com.example.tilesumgame.server;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.GameLogger;
+import com.example.tilesumgame.NamedArguments;
+import com.example.tilesumgame.ai.ExpectimaxSolver;
+import com.example.tilesumgame.ai.HeuristicTables;
+import com.example.tilesumgame.ai.MergeFirstStrategy;
+import com.example.tilesumgame.ai.TablebaseStrategy;
+import com.example.tilesumgame.engine.BitBoard;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Headless HTTP server hosting many concurrent games. Every request runs on its own virtual thread.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code POST /games?size=4} creates a game</li>
+ *     <li>{@code GET /games/{id}} returns a game</li>
+ *     <li>{@code POST /games/{id}/move?direction=left} moves the tiles of a game</li>
+ *     <li>{@code GET /games/{id}/hint} suggests a move</li>
+ *     <li>{@code DELETE /games/{id}} ends a game</li>
+ * </ul>
+ * Usage: {@code --port=8080 --idleMinutes=30 --hintBudgetMs=50 --logLevel=INFO}
+ */
+public class GameServer {
+    private static final int MIN_SIZE = 3;
+    private static final int MAX_SIZE = 8;
+    private static final int HINT_CACHE_BITS = 16;
+    private static GameLogger logger;
+
+    private final SessionStore sessions = new SessionStore(6);
+    private final BlockingQueue<ExpectimaxSolver> solvers;
+    private final TablebaseStrategy fallbackStrategy = new TablebaseStrategy(new MergeFirstStrategy());
+    private final Duration hintBudget;
+    private final long idleMillis;
+    private HttpServer server;
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a server.
+     *
+     * @param idleMillis the time after which unused games are removed, in milliseconds
+     * @param hintBudget the search time per hint on 4x4 boards
+     */
+    public GameServer(long idleMillis, Duration hintBudget) {
+        this.idleMillis = idleMillis;
+        this.hintBudget = hintBudget;
+        // Solvers are not thread-safe and their caches are large, so a few are shared instead of one per request
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        HeuristicTables heuristic = new HeuristicTables();
+        this.solvers = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            solvers.add(new ExpectimaxSolver(heuristic, HINT_CACHE_BITS, true));
+        }
+    }
+
+    /**
+     * Starts serving requests and evicting idle games.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @return the port the server listens on
+     * @throws IOException if the server cannot be bound
+     */
+    public int start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/games", this::handle);
+        server.start();
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleMillis / 4);
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, waiting up to a second for running requests.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+        }
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of hosted games.
+     *
+     * @return the number of games
+     */
+    public long getSessionCount() {
+        return sessions.size();
+    }
+
+    private void evictIdle() {
+        int evicted = sessions.evictIdle(System.currentTimeMillis() - idleMillis);
+        if (evicted > 0 && logger != null) {
+            logger.log(Level.FINE, "Evicted " + evicted + " idle games, " + sessions.size() + " left");
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (RuntimeException e) {
+                if (logger != null) {
+                    logger.log(Level.WARNING, "Request failed: " + e);
+                }
+                respond(exchange, 500, error("Internal error"));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // The context matches any path starting with /games, e.g. /gamesfoo, so the first segment is checked exactly
+        if (parts.length < 2 || !parts[1].equals("games")) {
+            respond(exchange, 404, error("Not found"));
+            return;
+        }
+        if (parts.length == 2 && method.equals("POST")) {
+            createGame(exchange);
+            return;
+        }
+        if (parts.length < 3 || parts.length > 4) {
+            respond(exchange, 404, error("Not found"));
+            return;
+        }
+        long id;
+        try {
+            id = Long.parseLong(parts[2]);
+        } catch (NumberFormatException _) {
+            respond(exchange, 404, error("Unknown game " + parts[2]));
+            return;
+        }
+        String action = parts.length == 4 ? parts[3] : "";
+        switch (method + " " + action) {
+            case "GET " -> getGame(exchange, id);
+            case "DELETE " -> deleteGame(exchange, id);
+            case "POST move" -> moveGame(exchange, id);
+            case "GET hint" -> hintGame(exchange, id);
+            default -> respond(exchange, 405, error("Unsupported " + method + " " + exchange.getRequestURI().getPath()));
+        }
+    }
+
+    private void createGame(HttpExchange exchange) throws IOException {
+        String sizeParam = queryParameter(exchange, "size");
+        int size;
+        try {
+            size = sizeParam == null ? 4 : Integer.parseInt(sizeParam);
+        } catch (NumberFormatException _) {
+            size = -1;
+        }
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            respond(exchange, 400, error("Size must be between " + MIN_SIZE + " and " + MAX_SIZE));
+            return;
+        }
+        int gridSize = size;
+        long now = System.currentTimeMillis();
+        long id = sessions.create(_ -> new GameSession(gridSize, ThreadLocalRandom.current().nextLong(), now));
+        respond(exchange, 201, sessions.withSession(id, session -> session.toJson(Long.toString(id))));
+    }
+
+    private void getGame(HttpExchange exchange, long id) throws IOException {
+        String json = sessions.withSession(id, session -> {
+            session.touch(System.currentTimeMillis());
+            return session.toJson(Long.toString(id));
+        });
+        respondWithGame(exchange, id, json);
+    }
+
+    private void deleteGame(HttpExchange exchange, long id) throws IOException {
+        if (sessions.remove(id)) {
+            respond(exchange, 200, "{\"id\": \"" + id + "\", \"deleted\": true}");
+        } else {
+            respond(exchange, 404, error("Unknown game " + id));
+        }
+    }
+
+    private void moveGame(HttpExchange exchange, long id) throws IOException {
+        Direction direction = parseDirection(queryParameter(exchange, "direction"));
+        if (direction == null) {
+            respond(exchange, 400, error("Direction must be one of up, down, left, right"));
+            return;
+        }
+        String json = sessions.withSession(id, session -> {
+            session.touch(System.currentTimeMillis());
+            boolean moved = session.move(direction);
+            String state = session.toJson(Long.toString(id));
+            return state.substring(0, state.length() - 1) + ", \"moved\": " + moved + "}";
+        });
+        respondWithGame(exchange, id, json);
+    }
+
+    private void hintGame(HttpExchange exchange, long id) throws IOException {
+        // Only the snapshot is taken under the stripe lock, the search runs without blocking other games
+        int[][] grid = sessions.withSession(id, session -> {
+            session.touch(System.currentTimeMillis());
+            return session.getGrid();
+        });
+        if (grid == null) {
+            respond(exchange, 404, error("Unknown game " + id));
+            return;
+        }
+        Direction hint = grid.length == BitBoard.SIZE ? solverHint(grid) : fallbackHint(grid);
+        String direction = hint == null ? "null" : "\"" + hint.name().toLowerCase(Locale.ROOT) + "\"";
+        respond(exchange, 200, "{\"id\": \"" + id + "\", \"direction\": " + direction + "}");
+    }
+
+    private Direction solverHint(int[][] grid) {
+        ExpectimaxSolver solver;
+        try {
+            solver = solvers.take();
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            return fallbackHint(grid);
+        }
+        try {
+            return solver.bestMove(BitBoard.fromGrid(grid), hintBudget);
+        } finally {
+            solvers.add(solver);
+        }
+    }
+
+    private Direction fallbackHint(int[][] grid) {
+        Board board = new Board(grid.length, new Random());
+        board.setBoardState(grid);
+        return fallbackStrategy.chooseMove(board);
+    }
+
+    private static Direction parseDirection(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Direction.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException _) {
+            return null;
+        }
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String error(String message) {
+        return "{\"error\": \"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static void respondWithGame(HttpExchange exchange, long id, String json) throws IOException {
+        if (json == null) {
+            respond(exchange, 404, error("Unknown game " + id));
+        } else {
+            respond(exchange, 200, json);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Runs the server until the process is terminated.
+     *
+     * @param args named arguments, see the class description
+     * @throws IOException if the server cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        NamedArguments arguments = new NamedArguments(args);
+        GameLogger.initialize(Level.parse(arguments.getString("logLevel", "INFO")));
+        logger = GameLogger.getInstance();
+        GameServer gameServer = new GameServer(
+                TimeUnit.MINUTES.toMillis(arguments.getLong("idleMinutes", 30)),
+                Duration.ofMillis(arguments.getLong("hintBudgetMs", 50)));
+        int port = gameServer.start(arguments.getInt("port", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(gameServer::stop));
+        logger.log(Level.INFO, "Serving games on port " + port);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.tilesumgame.server;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.PackedGrid;
+
+/**
+ * Compact state of one hosted game: tile exponents in a byte per cell, the score, a SplitMix64 random state and the
+ * last access time. Access is guarded by the lock of the {@link SessionStore} stripe holding the session.
+ */
+public class GameSession {
+    private static final int WIN_EXPONENT = 11; // 2048
+
+    private final byte[] cells;
+    private final byte size;
+    private int score;
+    private long randomState;
+    private long lastAccess;
+
+    /**
+     * Creates a game with a single spawned tile, like the game does.
+     *
+     * @param size the number of rows and columns
+     * @param seed the seed of the tile spawns
+     * @param now  the creation time in milliseconds
+     */
+    public GameSession(int size, long seed, long now) {
+        this.cells = new byte[size * size];
+        this.size = (byte) size;
+        this.randomState = seed;
+        this.lastAccess = now;
+        spawn();
+    }
+
+    private long nextRandom() {
+        long z = (randomState += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int nextInt(int bound) {
+        return (int) (((nextRandom() >>> 32) * bound) >>> 32);
+    }
+
+    private void spawn() {
+        int empty = PackedGrid.countEmpty(cells);
+        if (empty > 0) {
+            PackedGrid.spawn(cells, nextInt(empty), nextInt(10) == 0 ? 2 : 1);
+        }
+    }
+
+    /**
+     * Moves the tiles and spawns a new tile if anything moved.
+     *
+     * @param direction the direction to move the tiles
+     * @return true if the board changed, false otherwise
+     */
+    public boolean move(Direction direction) {
+        int gained = PackedGrid.move(cells, size, direction);
+        if (gained < 0) {
+            return false;
+        }
+        score += gained;
+        spawn();
+        return true;
+    }
+
+    /**
+     * Marks the session as used.
+     *
+     * @param now the current time in milliseconds
+     */
+    public void touch(long now) {
+        lastAccess = now;
+    }
+
+    /**
+     * Returns the last time the session was used.
+     *
+     * @return the time in milliseconds
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Returns the number of rows and columns.
+     *
+     * @return the board size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the current score.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the tile values of the board.
+     *
+     * @return a new grid of tile values
+     */
+    public int[][] getGrid() {
+        return PackedGrid.toGrid(cells, size);
+    }
+
+    /**
+     * Checks if the 2048 tile was reached.
+     *
+     * @return true if the game is won, false otherwise
+     */
+    public boolean hasWon() {
+        return PackedGrid.maxExponent(cells) >= WIN_EXPONENT;
+    }
+
+    /**
+     * Checks if no move is left.
+     *
+     * @return true if the game is lost, false otherwise
+     */
+    public boolean isOver() {
+        return !PackedGrid.canMove(cells, size);
+    }
+
+    /**
+     * Formats the session as a JSON object.
+     *
+     * @param id the identifier of the session
+     * @return the JSON object
+     */
+    public String toJson(String id) {
+        StringBuilder sb = new StringBuilder(64 + cells.length * 6);
+        sb.append("{\"id\": \"").append(id).append("\", \"size\": ").append(size)
+                .append(", \"score\": ").append(score)
+                .append(", \"won\": ").append(hasWon())
+                .append(", \"over\": ").append(isOver())
+                .append(", \"grid\": [");
+        for (int row = 0; row < size; row++) {
+            sb.append(row == 0 ? "[" : ", [");
+            for (int col = 0; col < size; col++) {
+                int exponent = cells[size * row + col];
+                sb.append(col == 0 ? "" : ", ").append(exponent == 0 ? 0 : 1 << exponent);
+            }
+            sb.append(']');
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.tilesumgame.server;
+
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Concurrent map of game sessions split into independently locked stripes.
+ * Every operation on a session runs under the lock of its stripe only, so requests for different sessions rarely
+ * contend. Stripes use {@link ReentrantLock} rather than {@code synchronized}, so virtual threads waiting for a
+ * stripe do not pin their carrier thread.
+ * <p>
+ * Identifiers are random positive longs, so clients cannot guess the identifiers of other sessions.
+ */
+public class SessionStore {
+    private final Map<Long, GameSession>[] stripes;
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Creates a store with {@code 2^bits} stripes.
+     *
+     * @param bits the base-2 logarithm of the number of stripes
+     */
+    @SuppressWarnings("unchecked")
+    public SessionStore(int bits) {
+        int size = 1 << bits;
+        stripes = new Map[size];
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new HashMap<>();
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    private int stripe(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+
+    /**
+     * Creates and stores a new session.
+     *
+     * @param factory creates the session from its identifier
+     * @return the identifier of the new session
+     */
+    public long create(Function<Long, GameSession> factory) {
+        while (true) {
+            long id = random.nextLong() & Long.MAX_VALUE;
+            int stripe = stripe(id);
+            locks[stripe].lock();
+            try {
+                // Collisions are practically impossible, but an existing session must never be replaced
+                if (!stripes[stripe].containsKey(id)) {
+                    stripes[stripe].put(id, factory.apply(id));
+                    count.incrementAndGet();
+                    return id;
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs an operation on a session while holding the lock of its stripe.
+     *
+     * @param id        the identifier of the session
+     * @param operation the operation to run
+     * @param <T>       the result type of the operation
+     * @return the result of the operation, or null if there is no such session
+     */
+    public <T> T withSession(long id, Function<GameSession, T> operation) {
+        int stripe = stripe(id);
+        locks[stripe].lock();
+        try {
+            GameSession session = stripes[stripe].get(id);
+            return session == null ? null : operation.apply(session);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Removes a session.
+     *
+     * @param id the identifier of the session
+     * @return true if the session existed, false otherwise
+     */
+    public boolean remove(long id) {
+        int stripe = stripe(id);
+        locks[stripe].lock();
+        try {
+            if (stripes[stripe].remove(id) != null) {
+                count.decrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Removes all sessions not used since the given time, locking one stripe at a time.
+     *
+     * @param idleSince the time in milliseconds before which sessions count as idle
+     * @return the number of removed sessions
+     */
+    public int evictIdle(long idleSince) {
+        int evicted = 0;
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                Iterator<GameSession> iterator = stripes[stripe].values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().getLastAccess() < idleSince) {
+                        iterator.remove();
+                        evicted++;
+                    }
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        count.addAndGet(-evicted);
+        return evicted;
+    }
+
+    /**
+     * Returns the number of stored sessions.
+     *
+     * @return the number of sessions
+     */
+    public long size() {
+        return count.get();
+    }
+}
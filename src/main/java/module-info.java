@@ -3,7 +3,20 @@ module com.example.tilesumgame {
     requires javafx.fxml;
     requires java.logging;
     requires java.desktop;
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.httpserver;
+    // Only the server tests use the HTTP client, but they are compiled into this module
+    requires static java.net.http;
+    requires static jdk.incubator.vector;
 
     opens com.example.tilesumgame to javafx.fxml;
     exports com.example.tilesumgame;
-}
\ No newline at end of file
+    exports com.example.tilesumgame.ai;
+    exports com.example.tilesumgame.analytics;
+    exports com.example.tilesumgame.bench;
+    exports com.example.tilesumgame.engine;
+    exports com.example.tilesumgame.events;
+    exports com.example.tilesumgame.metrics;
+    exports com.example.tilesumgame.server;
+}
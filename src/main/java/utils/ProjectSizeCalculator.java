@@ -1,49 +1,435 @@
 package utils;
 
-import java.io.File;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * A utility program to calculate the total size of written java code.
- * This program recursively scans all subdirectories in the project to find .java files and sums their sizes.
+ * A utility program to measure the written java code: bytes, lines and classes per package.
+ * The project tree is walked with NIO, changed files are read in parallel on the fork/join pool, and the counts of
+ * every file are kept in a cache file keyed by modification time and size, so repeated runs only read changed files.
+ * Unit test directories, build output ({@code target}) and hidden directories are skipped.
+ * <p>
+ * Usage: {@code ProjectSizeCalculator [directory] [cache file]}, by default the working directory and
+ * {@value #CACHE_FILE} in it.
  */
 public class ProjectSizeCalculator {
-    public static void main(String[] args) {
-        String currentDirectory = System.getProperty("user.dir");
-        System.out.println("Directory: " + currentDirectory);
+    static final String CACHE_FILE = ".project-size-cache";
+    private static final String CACHE_HEADER = "# project-size-cache 1";
+    private static final String DEFAULT_PACKAGE = "(default)";
+    private static final int SEQUENTIAL_FILES = 8;
+    private static final Pattern PACKAGE = Pattern.compile("\\bpackage\\s+([\\w.]+)\\s*;");
+    private static final Pattern TYPE = Pattern.compile("(?<![\\w.$])(?:class|@?interface|enum|record)\\s+[A-Za-z_$][\\w$]*");
+
+    /**
+     * A java file found by the walk, not read yet.
+     *
+     * @param file     the file
+     * @param path     the path relative to the scanned directory, the key of the cache
+     * @param modified the modification time, in milliseconds
+     * @param bytes    the size
+     */
+    private record Candidate(Path file, String path, long modified, long bytes) {
+    }
+
+    /**
+     * The counts of one java file.
+     *
+     * @param path        the path relative to the scanned directory
+     * @param modified    the modification time the counts belong to, in milliseconds
+     * @param bytes       the size
+     * @param lines       the number of lines
+     * @param classes     the number of classes, interfaces, enums and records, nested ones included
+     * @param packageName the declared package, {@value #DEFAULT_PACKAGE} if there is none
+     */
+    record FileStats(String path, long modified, long bytes, int lines, int classes, String packageName) {
+    }
+
+    /**
+     * The summed counts of the files of one package.
+     *
+     * @param files   the number of files
+     * @param bytes   the total size
+     * @param lines   the total number of lines
+     * @param classes the total number of classes
+     */
+    record PackageStats(int files, long bytes, long lines, long classes) {
+        /**
+         * Adds the counts of a file.
+         *
+         * @param file the counts of the file
+         * @return the new sums
+         */
+        PackageStats add(FileStats file) {
+            return new PackageStats(files + 1, bytes + file.bytes(), lines + file.lines(), classes + file.classes());
+        }
+    }
 
-        File folder = new File(currentDirectory);
+    /**
+     * The result of a scan.
+     *
+     * @param packages the counts per package, sorted by name
+     * @param total    the counts of all files
+     * @param scanned  the number of files read, the others came from the cache
+     * @param nanos    the duration of the scan
+     */
+    record Report(Map<String, PackageStats> packages, PackageStats total, int scanned, long nanos) {
+    }
+
+    /**
+     * Scans a directory and prints the counts per package.
+     *
+     * @param args the directory to scan and the cache file, both optional
+     */
+    public static void main(String[] args) {
+        Path directory = Paths.get(args.length > 0 ? args[0] : System.getProperty("user.dir")).toAbsolutePath();
+        Path cacheFile = args.length > 1 ? Paths.get(args[1]) : directory.resolve(CACHE_FILE);
+        System.out.println("Directory: " + directory);
 
-        long totalSizeInBytes = calculateJavaFilesSize(folder);
-        double sizeInKilobytes = totalSizeInBytes / 1024.0;
+        Report report;
+        try {
+            report = scan(directory, cacheFile);
+        } catch (IOException e) {
+            System.err.println("Cannot scan " + directory + ": " + e);
+            System.exit(1);
+            return;
+        }
 
         DecimalFormat df = new DecimalFormat("0.00");
-        System.out.println("Total size of .java files: " + df.format(sizeInKilobytes) + " KB");
+        System.out.printf("%-45s %6s %8s %8s %12s%n", "Package", "Files", "Lines", "Classes", "Size");
+        report.packages().forEach((name, stats) -> System.out.printf("%-45s %6d %8d %8d %9s KB%n", name,
+                stats.files(), stats.lines(), stats.classes(), df.format(stats.bytes() / 1024.0)));
+        PackageStats total = report.total();
+        System.out.printf("%-45s %6d %8d %8d %9s KB%n", "Total", total.files(), total.lines(), total.classes(),
+                df.format(total.bytes() / 1024.0));
+        System.out.println("Total size of .java files: " + df.format(total.bytes() / 1024.0) + " KB");
+        System.out.printf("Read %d of %d files in %d ms%n", report.scanned(), total.files(), report.nanos() / 1_000_000);
+    }
+
+    /**
+     * Measures the java files of a directory tree, reading only the files that changed since the cache was written,
+     * and updates the cache.
+     *
+     * @param directory the directory to scan
+     * @param cacheFile the cache file; missing or unreadable caches are rebuilt
+     * @return the counts per package
+     * @throws IOException if the directory cannot be walked
+     */
+    static Report scan(Path directory, Path cacheFile) throws IOException {
+        long start = System.nanoTime();
+        List<Candidate> candidates = findJavaFiles(directory);
+        Map<String, FileStats> cache = readCache(cacheFile);
+
+        FileStats[] results = new FileStats[candidates.size()];
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            Candidate candidate = candidates.get(i);
+            FileStats cached = cache.get(candidate.path());
+            if (cached != null && cached.modified() == candidate.modified() && cached.bytes() == candidate.bytes()) {
+                results[i] = cached;
+            } else {
+                changed.add(i);
+            }
+        }
+        if (!changed.isEmpty()) {
+            ForkJoinPool.commonPool().invoke(new ScanTask(candidates, changed, results, 0, changed.size()));
+        }
+
+        Map<String, PackageStats> packages = new TreeMap<>();
+        PackageStats total = new PackageStats(0, 0, 0, 0);
+        for (FileStats file : results) {
+            if (file != null) {
+                packages.merge(file.packageName(), new PackageStats(0, 0, 0, 0).add(file), ProjectSizeCalculator::sum);
+                total = total.add(file);
+            }
+        }
+        // Rewrite the cache when a file was read or one was deleted since the last run
+        if (!changed.isEmpty() || cache.size() != results.length) {
+            writeCache(cacheFile, results);
+        }
+        return new Report(packages, total, changed.size(), System.nanoTime() - start);
     }
 
     /**
-     * Recursively calculates the total size of all .java files within a directory.
+     * Adds the counts of two packages.
      *
-     * @param folder the directory to scan for .java files
-     * @return the total size of all .java files in bytes
+     * @param a the first counts
+     * @param b the second counts
+     * @return the sums
+     */
+    private static PackageStats sum(PackageStats a, PackageStats b) {
+        return new PackageStats(a.files() + b.files(), a.bytes() + b.bytes(), a.lines() + b.lines(),
+                a.classes() + b.classes());
+    }
+
+    /**
+     * Collects the java files of a directory tree with their modification times and sizes.
+     *
+     * @param directory the directory to walk
+     * @return the files, in walk order
+     * @throws IOException if the directory cannot be walked
+     */
+    private static List<Candidate> findJavaFiles(Path directory) throws IOException {
+        List<Candidate> candidates = new ArrayList<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                if (dir.equals(directory)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String name = dir.getFileName().toString();
+                // Skip the unit test directory, build output and hidden directories such as .git
+                boolean skip = name.equalsIgnoreCase("test") || name.equals("target") || name.startsWith(".");
+                return skip ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && file.getFileName().toString().endsWith(".java")) {
+                    String path = directory.relativize(file).toString().replace('\\', '/');
+                    candidates.add(new Candidate(file, path, attributes.lastModifiedTime().toMillis(),
+                            attributes.size()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // Unreadable entries are left out instead of failing the whole scan
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return candidates;
+    }
+
+    /**
+     * Reads changed files in parallel, splitting the list in halves until it is short.
      */
-    private static long calculateJavaFilesSize(File folder) {
-        long totalSize = 0;
+    private static final class ScanTask extends RecursiveAction {
+        private final List<Candidate> candidates;
+        private final List<Integer> changed;
+        private final FileStats[] results;
+        private final int from;
+        private final int to;
 
-        File[] files = folder.listFiles();
-        if (files == null) return totalSize;
+        /**
+         * Creates a task.
+         *
+         * @param candidates all files found by the walk
+         * @param changed    the indices of the files to read
+         * @param results    receives the counts at the index of every file
+         * @param from       the first position in {@code changed} to read
+         * @param to         the position in {@code changed} after the last one to read
+         */
+        ScanTask(List<Candidate> candidates, List<Integer> changed, FileStats[] results, int from, int to) {
+            this.candidates = candidates;
+            this.changed = changed;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
 
-        for (File file : files) {
-            if (file.isDirectory()) {
-                // Skip the unit test directory
-                if (!file.getName().equalsIgnoreCase("test")) {
-                    totalSize += calculateJavaFilesSize(file);
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_FILES) {
+                for (int i = from; i < to; i++) {
+                    int index = changed.get(i);
+                    results[index] = measure(candidates.get(index));
                 }
-            } else if (file.isFile() && file.getName().endsWith(".java")) {
-                totalSize += file.length();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScanTask(candidates, changed, results, from, middle),
+                    new ScanTask(candidates, changed, results, middle, to));
+        }
+    }
+
+    /**
+     * Reads a java file and counts its lines and classes.
+     *
+     * @param candidate the file
+     * @return the counts, or null if the file disappeared or cannot be read
+     */
+    private static FileStats measure(Candidate candidate) {
+        String source;
+        try {
+            // Latin-1 maps every byte to one character, so any encoding decodes and keywords stay ASCII
+            source = Files.readString(candidate.file(), StandardCharsets.ISO_8859_1);
+        } catch (NoSuchFileException _) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Cannot read " + candidate.path() + ": " + e);
+            return null;
+        }
+        String code = stripCommentsAndLiterals(source);
+        Matcher packageMatcher = PACKAGE.matcher(code);
+        String packageName = packageMatcher.find() ? packageMatcher.group(1) : DEFAULT_PACKAGE;
+        int classes = 0;
+        Matcher typeMatcher = TYPE.matcher(code);
+        while (typeMatcher.find()) {
+            classes++;
+        }
+        return new FileStats(candidate.path(), candidate.modified(), candidate.bytes(), countLines(source), classes,
+                packageName);
+    }
+
+    /**
+     * Counts the lines of a text, including a last line without a line break.
+     *
+     * @param text the text
+     * @return the number of lines
+     */
+    static int countLines(String text) {
+        int lines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return text.isEmpty() || text.charAt(text.length() - 1) == '\n' ? lines : lines + 1;
+    }
+
+    /**
+     * Replaces comments and the contents of string, character and text block literals with spaces, so words in them
+     * are not counted as declarations.
+     *
+     * @param source the java source
+     * @return the code without comments and literals, with line breaks kept
+     */
+    static String stripCommentsAndLiterals(String source) {
+        StringBuilder code = new StringBuilder(source.length());
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            char next = i + 1 < length ? source.charAt(i + 1) : 0;
+            int end;
+            if (c == '/' && next == '/') {
+                end = source.indexOf('\n', i);
+            } else if (c == '/' && next == '*') {
+                end = source.indexOf("*/", i + 2);
+                end = end < 0 ? -1 : end + 2;
+            } else if (source.startsWith("\"\"\"", i)) {
+                end = skipLiteral(source, i + 3, "\"\"\"");
+            } else if (c == '"' || c == '\'') {
+                end = skipLiteral(source, i + 1, String.valueOf(c));
+            } else {
+                code.append(c);
+                i++;
+                continue;
             }
+            end = end < 0 ? length : end;
+            for (int j = i; j < end; j++) {
+                code.append(source.charAt(j) == '\n' ? '\n' : ' ');
+            }
+            i = end;
+        }
+        return code.toString();
+    }
+
+    /**
+     * Finds the end of a literal, skipping escaped characters. String and character literals also end at a line break.
+     *
+     * @param source    the java source
+     * @param from      the index after the opening quote
+     * @param delimiter the closing quote
+     * @return the index after the closing quote, or -1 if the literal is not closed
+     */
+    private static int skipLiteral(String source, int from, String delimiter) {
+        boolean textBlock = delimiter.length() > 1;
+        for (int i = from; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (source.startsWith(delimiter, i)) {
+                return i + delimiter.length();
+            } else if (c == '\n' && !textBlock) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the cache. Lines are {@code modified|bytes|lines|classes|package|path}.
+     *
+     * @param cacheFile the cache file
+     * @return the cached counts by path, empty if the file is missing, unreadable or of another version
+     */
+    private static Map<String, FileStats> readCache(Path cacheFile) {
+        Map<String, FileStats> cache = new HashMap<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+        } catch (IOException _) {
+            return cache;
+        }
+        if (lines.isEmpty() || !lines.getFirst().equals(CACHE_HEADER)) {
+            return cache;
         }
+        for (String line : lines.subList(1, lines.size())) {
+            // The path is last, so it may contain the separator
+            String[] fields = line.split("\\|", 6);
+            if (fields.length != 6) {
+                continue;
+            }
+            try {
+                cache.put(fields[5], new FileStats(fields[5], Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), fields[4]));
+            } catch (NumberFormatException _) {
+                // A damaged line only costs reading that file again
+            }
+        }
+        return cache;
+    }
 
-        return totalSize;
+    /**
+     * Replaces the cache with the counts of the current files. The cache is written to a temporary file first, so an
+     * interrupted run never leaves a truncated cache behind.
+     *
+     * @param cacheFile the cache file
+     * @param files     the counts of the files, null entries are left out
+     */
+    private static void writeCache(Path cacheFile, FileStats[] files) {
+        Path temporary = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(CACHE_HEADER);
+                writer.newLine();
+                for (FileStats file : files) {
+                    if (file != null) {
+                        writer.write(file.modified() + "|" + file.bytes() + "|" + file.lines() + "|" + file.classes()
+                                + "|" + file.packageName() + "|" + file.path());
+                        writer.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException _) {
+                Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot write the cache " + cacheFile + ": " + e);
+        }
     }
 }
@@ -0,0 +1,79 @@
+package com.example.tilesumgame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardApplyMovesTest {
+    private static Direction[] randomMoves(long seed, int count) {
+        Random random = new Random(seed);
+        Direction[] moves = new Direction[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = Direction.values()[random.nextInt(4)];
+        }
+        return moves;
+    }
+
+    @Test
+    void randomSpawnsMatchSingleMoves() {
+        for (int size = 3; size <= 6; size++) {
+            Direction[] moves = randomMoves(size, 500);
+            Board single = new Board(size, new Random(42));
+            Board batch = new Board(size, new Random(42));
+            single.spawnTile();
+            batch.spawnTile();
+            int applied = 0;
+            for (Direction move : moves) {
+                if (single.move(move)) {
+                    single.spawnTile();
+                    applied++;
+                }
+            }
+            BatchResult result = batch.applyMoves(moves, BatchResult.FINAL_STATE);
+            assertArrayEquals(single.getBoardState(), result.finalState());
+            assertArrayEquals(single.getBoardState(), batch.getBoardState());
+            assertEquals(single.getScore(), result.score());
+            assertEquals(single.getScore(), batch.getScore());
+            assertEquals(applied, result.applied());
+            assertEquals(!single.canMove(), result.over());
+            assertNull(result.stepFlags());
+        }
+    }
+
+    @Test
+    void scriptedSpawnsAndStepFlags() {
+        Board board = new Board(4, new Random());
+        board.setBoardState(new int[][]{{2, 2, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 4}});
+        Direction[] moves = {Direction.LEFT, Direction.LEFT, Direction.RIGHT};
+        int[] cells = {15, 3, -1};
+        int[] values = {2, 4, 0};
+        BatchResult result = board.applyMoves(moves, cells, values, BatchResult.FINAL_STATE | BatchResult.STEP_FLAGS);
+        // LEFT merges the 2s, LEFT slides the spawned 2 next to the 4, RIGHT merges the 4s of the first row
+        assertArrayEquals(new byte[]{BatchResult.MOVED | BatchResult.MERGED, BatchResult.MOVED,
+                BatchResult.MOVED | BatchResult.MERGED}, result.stepFlags());
+        assertArrayEquals(new int[][]{{0, 0, 0, 8}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 4, 2}}, result.finalState());
+        assertEquals(3, result.applied());
+        assertEquals(4 + 8, result.score());
+        assertFalse(result.won());
+        assertFalse(result.over());
+    }
+
+    @Test
+    void rejectsInvalidSpawns() {
+        int[][] start = {{2, 2, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 4}};
+        Board board = new Board(4, new Random());
+        board.setBoardState(start);
+        Direction[] moves = {Direction.LEFT, Direction.LEFT};
+        // After the first move the merged 4 sits in cell 0
+        assertThrows(IllegalArgumentException.class, () -> board.applyMoves(moves, new int[]{0, -1}, new int[]{2, 0}, 0),
+                "A spawn on a tile should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> board.applyMoves(moves, new int[]{5, -1}, new int[]{8, 0}, 0),
+                "Only 2s and 4s spawn");
+        assertThrows(IllegalArgumentException.class, () -> board.applyMoves(moves, new int[]{5}, new int[]{2}, 0),
+                "Every move needs a spawn entry");
+        assertArrayEquals(start, board.getBoardState(), "A rejected script should leave the board unchanged");
+        assertEquals(0, board.getScore());
+    }
+}
@@ -130,4 +130,13 @@ class BoardTest {
         Direction direction = board.canMerge();
         assertNull(direction, "Board should not be able to merge");
     }
+
+    @Test
+    void reset() {
+        board.setBoardState(new int[][]{{2, 2, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}});
+        board.moveLeft();
+        board.reset();
+        assertEquals(0, board.getScore(), "Score should be 0 after reset");
+        assertArrayEquals(new int[4][4], board.getBoardState(), "Board should be empty after reset");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.tilesumgame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the {@link DifferentialFuzzer} with a fixed seed, so every build checks the same cases.
+ * Longer or random runs: {@code -Dfuzz.cases=10000000 -Dfuzz.seed=random}.
+ */
+class DifferentialFuzzTest {
+    private static final int CASES = Integer.getInteger("fuzz.cases", 10_000);
+    private static final long SEED = seed(System.getProperty("fuzz.seed", "1"));
+
+    /**
+     * Parses the seed property.
+     *
+     * @param value a number, or {@code random} for a new seed on every run
+     * @return the seed
+     */
+    private static long seed(String value) {
+        return value.equals("random") ? System.nanoTime() : Long.parseLong(value);
+    }
+
+    @Test
+    void enginesMatchBoard() {
+        DifferentialFuzzer.Report report = DifferentialFuzzer.allEngines().run(SEED, CASES);
+        assertNull(report.divergence(), () -> "Seed " + SEED + ": " + report.divergence());
+        assertEquals(CASES, report.cases());
+    }
+
+    @Test
+    void divergenceIsMinimized() {
+        // Forgets the score of merges into 64 tiles
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(List.of(() -> new DifferentialFuzzer.PackedGridEngine() {
+            @Override
+            public int move(Direction direction) {
+                int before = countTiles(32);
+                int gained = super.move(direction);
+                int merged = (before - countTiles(32)) / 2;
+                return gained > 0 ? gained - 64 * Math.max(0, merged) : gained;
+            }
+
+            private int countTiles(int value) {
+                int count = 0;
+                for (int row = 0; row < size(); row++) {
+                    for (int col = 0; col < size(); col++) {
+                        count += value(row, col) == value ? 1 : 0;
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            public String name() {
+                return "BrokenGrid";
+            }
+        }), List.of());
+        DifferentialFuzzer.Report report = fuzzer.run(1, 10_000);
+        DifferentialFuzzer.Divergence divergence = report.divergence();
+        assertNotNull(divergence);
+        assertEquals("BrokenGrid", divergence.engine());
+        DifferentialFuzzer.Case minimized = divergence.minimized();
+        assertEquals(DifferentialFuzzer.MIN_SIZE, minimized.size(), divergence::toString);
+        assertEquals(1, minimized.moves().length, divergence::toString);
+        long tiles = Arrays.stream(minimized.start()).flatMapToInt(Arrays::stream).filter(value -> value != 0).count();
+        assertEquals(2, tiles, divergence::toString);
+        assertTrue(divergence.toString().contains("int[][] start = "));
+    }
+}
@@ -0,0 +1,1098 @@
+package com.example.tilesumgame;
+
+import com.example.tilesumgame.engine.BitBoard;
+import com.example.tilesumgame.engine.BoardBatch;
+import com.example.tilesumgame.engine.PackedGrid;
+import com.example.tilesumgame.engine.RowEngine;
+import com.example.tilesumgame.engine.RowEngines;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Differential fuzzer checking fast engines against {@link Board}, the reference.
+ * <p>
+ * Every case is a start board and a sequence of moves, generated from the seed of the run and the index of the case:
+ * random boards and adversarial ones (full boards without merges, runs of equal tiles, tiles at the exponent limits,
+ * nearly empty boards) of every size from 2 to 16. The moves are replayed on the reference and on every step engine,
+ * comparing {@code canMove}, {@code canMerge}, {@code canMove(direction)}, the score gained and the whole board after
+ * every move. Spawns are chosen on the reference and applied to all engines, so the case is fully scripted afterwards
+ * and batch engines such as {@link Board#applyMoves} replay it in one call. Cases run in parallel in chunks, each with
+ * its own engine instances.
+ * <p>
+ * The first divergence, by case index, is shrunk to a minimal reproducer: the sequence is cut after the diverging
+ * move, started from the board just before it, and then tiles are removed or halved, moves dropped and the board
+ * cropped as long as the engine still diverges.
+ */
+final class DifferentialFuzzer {
+    static final String REFERENCE = "Board";
+    static final int MIN_SIZE = 2;
+    static final int MAX_SIZE = 16;
+    private static final int MAX_MOVES = 24;
+    private static final int CHUNK_SIZE = 512;
+    private static final int WIN_EXPONENT = 11;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * An engine replayed move by move. Instances keep the board and are used by one thread at a time.
+     */
+    interface Engine {
+        /**
+         * Returns the name of the engine, as shown in reports.
+         *
+         * @return the name
+         */
+        String name();
+
+        /**
+         * Checks if the engine can hold a board.
+         *
+         * @param size        the number of rows and columns
+         * @param maxExponent the highest tile exponent of the board
+         * @return true if the board can be loaded and moved once
+         */
+        boolean supports(int size, int maxExponent);
+
+        /**
+         * Replaces the board of the engine.
+         *
+         * @param grid the tile values
+         */
+        void load(int[][] grid);
+
+        /**
+         * Moves the tiles.
+         *
+         * @param direction the direction of the move
+         * @return the score gained, -1 if nothing moved
+         */
+        int move(Direction direction);
+
+        /**
+         * Places a spawned tile.
+         *
+         * @param row   the row of the tile
+         * @param col   the column of the tile
+         * @param value the value of the tile
+         */
+        void set(int row, int col, int value);
+
+        /**
+         * Returns a tile value.
+         *
+         * @param row the row of the tile
+         * @param col the column of the tile
+         * @return the value, 0 when empty
+         */
+        int value(int row, int col);
+
+        /**
+         * Checks if any move is possible.
+         *
+         * @return true if a move would change the board
+         */
+        boolean canMove();
+
+        /**
+         * Returns the number of rows and columns of the loaded board.
+         *
+         * @return the size
+         */
+        int size();
+    }
+
+    /**
+     * An engine applying a whole scripted case in one call.
+     */
+    interface BatchEngine {
+        /**
+         * Returns the name of the engine, as shown in reports.
+         *
+         * @return the name
+         */
+        String name();
+
+        /**
+         * Checks if the engine can hold a board.
+         *
+         * @param size        the number of rows and columns
+         * @param maxExponent the highest tile exponent reached during the case
+         * @return true if the case can be replayed
+         */
+        boolean supports(int size, int maxExponent);
+
+        /**
+         * Replays a case.
+         *
+         * @param fuzzCase the case
+         * @return the outcome of the replay
+         */
+        BatchResult apply(Case fuzzCase);
+    }
+
+    /**
+     * A scripted case. Move {@code i} that changes the board is followed by a tile of value {@code spawnValues[i]} at
+     * cell {@code spawnCells[i]}, numbered {@code row * size + col}; a negative cell spawns nothing.
+     *
+     * @param seed        the seed of the run
+     * @param index       the index of the case in the run
+     * @param start       the start board
+     * @param moves       the moves
+     * @param spawnCells  the spawn cell after every move
+     * @param spawnValues the spawn value after every move
+     */
+    record Case(long seed, int index, int[][] start, Direction[] moves, int[] spawnCells, int[] spawnValues) {
+        /**
+         * Returns the board size.
+         *
+         * @return the number of rows and columns
+         */
+        int size() {
+            return start.length;
+        }
+
+        /**
+         * Formats the case as Java declarations, ready to paste into a test.
+         *
+         * @return the declarations
+         */
+        String toJava() {
+            String grid = Arrays.stream(start)
+                    .map(row -> Arrays.stream(row).mapToObj(Integer::toString).collect(Collectors.joining(", ", "{", "}")))
+                    .collect(Collectors.joining(", ", "{", "}"));
+            String directions = Arrays.stream(moves).map(Direction::name).collect(Collectors.joining(", ", "{", "}"));
+            return "int[][] start = " + grid + ";\n"
+                    + "Direction[] moves = " + directions + ";\n"
+                    + "int[] spawnCells = " + Arrays.toString(spawnCells).replace('[', '{').replace(']', '}') + ";\n"
+                    + "int[] spawnValues = " + Arrays.toString(spawnValues).replace('[', '{').replace(']', '}') + ";";
+        }
+    }
+
+    /**
+     * A case on which an engine differs from the reference.
+     *
+     * @param engine    the name of the engine
+     * @param original  the generated case
+     * @param minimized the shrunk case, still diverging
+     * @param message   the first difference on the shrunk case
+     */
+    record Divergence(String engine, Case original, Case minimized, String message) {
+        @Override
+        public String toString() {
+            return engine + " diverges from Board (seed " + original.seed() + ", case " + original.index() + ", "
+                    + original.size() + "x" + original.size() + ", " + original.moves().length + " moves): "
+                    + message + "\nMinimized reproducer, " + minimized.size() + "x" + minimized.size() + ":\n"
+                    + minimized.toJava();
+        }
+    }
+
+    /**
+     * The outcome of a run.
+     *
+     * @param cases      the number of cases checked
+     * @param moves      the number of moves replayed on the reference
+     * @param divergence the first divergence by case index, or null
+     */
+    record Report(long cases, long moves, Divergence divergence) {
+    }
+
+    private final List<Supplier<Engine>> engines;
+    private final List<Supplier<BatchEngine>> batchEngines;
+
+    /**
+     * Creates a fuzzer.
+     *
+     * @param engines      creates the step engines, called once per chunk of cases
+     * @param batchEngines creates the batch engines, called once per chunk of cases
+     */
+    DifferentialFuzzer(List<Supplier<Engine>> engines, List<Supplier<BatchEngine>> batchEngines) {
+        this.engines = engines;
+        this.batchEngines = batchEngines;
+    }
+
+    /**
+     * Creates a fuzzer for all engines of the project: {@link BitBoard}, {@link PackedGrid}, the scalar and, if
+     * available, vector {@link RowEngine}s, {@link BoardBatch} and {@link Board#applyMoves}.
+     *
+     * @return the fuzzer
+     */
+    static DifferentialFuzzer allEngines() {
+        List<Supplier<Engine>> engines = new ArrayList<>();
+        engines.add(BitBoardEngine::new);
+        engines.add(PackedGridEngine::new);
+        engines.add(() -> new RowEngineEngine(RowEngines.scalar()));
+        if (RowEngines.vector() != null) {
+            engines.add(() -> new RowEngineEngine(RowEngines.vector()));
+        }
+        engines.add(BoardBatchEngine::new);
+        return new DifferentialFuzzer(engines, List.of(ApplyMovesEngine::new));
+    }
+
+    /**
+     * Runs cases in parallel until all passed or one diverged.
+     *
+     * @param seed  the seed of the run
+     * @param cases the number of cases
+     * @return the report, with the minimized first divergence if any
+     */
+    Report run(long seed, int cases) {
+        AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicReference<Divergence> divergence = new AtomicReference<>();
+        LongAdder checked = new LongAdder();
+        LongAdder moves = new LongAdder();
+        int chunks = (cases + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            List<Engine> stepEngines = engines.stream().map(Supplier::get).toList();
+            List<BatchEngine> chunkBatchEngines = batchEngines.stream().map(Supplier::get).toList();
+            int end = Math.min(cases, (chunk + 1) * CHUNK_SIZE);
+            for (int index = chunk * CHUNK_SIZE; index < end && index < firstFailure.get(); index++) {
+                SplittableRandom random = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (index + 1)));
+                Case fuzzCase = generate(seed, index, random);
+                Failure failure = check(fuzzCase, stepEngines, chunkBatchEngines, random);
+                checked.increment();
+                moves.add(fuzzCase.moves().length);
+                if (failure != null) {
+                    if (firstFailure.accumulateAndGet(index, Math::min) == index) {
+                        divergence.accumulateAndGet(minimize(fuzzCase, failure),
+                                (current, candidate) -> current == null
+                                        || current.original().index() > candidate.original().index()
+                                        ? candidate : current);
+                    }
+                    return;
+                }
+            }
+        });
+        return new Report(checked.sum(), moves.sum(), divergence.get());
+    }
+
+    /**
+     * A difference found on a case.
+     *
+     * @param engine  the name of the engine, {@value #REFERENCE} for inconsistencies of the reference
+     * @param message the difference
+     */
+    private record Failure(String engine, String message) {
+    }
+
+    /**
+     * Generates the start board and moves of a case. The spawns are drawn while the case is first checked, into the
+     * empty cells left by each move on the reference.
+     *
+     * @param seed   the seed of the run
+     * @param index  the index of the case
+     * @param random the random generator of the case
+     * @return the case, with no spawns yet
+     */
+    private static Case generate(long seed, int index, SplittableRandom random) {
+        int size = random.nextInt(3) == 0 ? BitBoard.SIZE : random.nextInt(MIN_SIZE, MAX_SIZE + 1);
+        int[][] start = generateBoard(random, size);
+        Direction[] moves = new Direction[1 + random.nextInt(MAX_MOVES)];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+        }
+        int[] spawnCells = new int[moves.length];
+        Arrays.fill(spawnCells, -1);
+        return new Case(seed, index, start, moves, spawnCells, new int[moves.length]);
+    }
+
+    /**
+     * Generates a random or adversarial start board.
+     *
+     * @param random the random generator of the case
+     * @param size   the number of rows and columns
+     * @return the tile values
+     */
+    private static int[][] generateBoard(SplittableRandom random, int size) {
+        int[][] grid = new int[size][size];
+        int kind = random.nextInt(6);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int exponent = switch (kind) {
+                    // Sparse boards with tiles of any value
+                    case 0 -> random.nextInt(2) == 0 ? 0 : random.nextInt(1, 12);
+                    // Dense boards of small tiles, full of merge chains
+                    case 1 -> random.nextInt(8) == 0 ? 0 : random.nextInt(1, 4);
+                    // Full boards without merges, next to game over
+                    case 2 -> 1 + (row + col) % 2 + 2 * (row % 2);
+                    // Runs of equal tiles, e.g. 2 2 2 2 and 4 4 8 8
+                    case 3 -> 1 + (col / (1 + random.nextInt(2))) % 3 + row % 2;
+                    // Tiles near the exponent limit of BitBoard
+                    case 4 -> random.nextInt(3) == 0 ? 0 : random.nextInt(12, 15);
+                    // Nearly empty boards
+                    default -> random.nextInt(size * size) < 2 ? random.nextInt(1, 3) : 0;
+                };
+                grid[row][col] = exponent == 0 ? 0 : 1 << exponent;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Replays a case on the reference and the step engines, move by move, then on the batch engines. Engines that
+     * cannot hold the board any more, e.g. tiles beyond their exponent limit, drop out of the case.
+     *
+     * @param fuzzCase     the case
+     * @param stepEngines  the step engines to compare
+     * @param batchEngines the batch engines to compare
+     * @param spawnRandom  draws the spawns of a new case into its spawn arrays, null to replay the scripted spawns
+     * @return the first difference, or null
+     */
+    private static Failure check(Case fuzzCase, List<Engine> stepEngines, List<BatchEngine> batchEngines,
+                                 SplittableRandom spawnRandom) {
+        int size = fuzzCase.size();
+        Board board = new Board(size, new Random(0));
+        board.setBoardState(fuzzCase.start());
+        int startExponent = maxExponent(fuzzCase.start());
+        List<Engine> active = new ArrayList<>(stepEngines.size());
+        for (Engine engine : stepEngines) {
+            if (engine.supports(size, startExponent)) {
+                engine.load(fuzzCase.start());
+                active.add(engine);
+            }
+        }
+        Direction[] moves = fuzzCase.moves();
+        int[] spawnCells = fuzzCase.spawnCells();
+        int[] spawnValues = fuzzCase.spawnValues();
+        byte[] flags = new byte[moves.length];
+        int applied = 0;
+        int reachedExponent = startExponent;
+        int[][] before = fuzzCase.start();
+        for (int i = 0; i < moves.length; i++) {
+            boolean canMove = board.canMove();
+            Direction canMerge = board.canMerge();
+            boolean canMoveDirection = board.canMove(moves[i]);
+            int scoreBefore = board.getScore();
+            boolean moved = board.move(moves[i]);
+            int gained = moved ? board.getScore() - scoreBefore : -1;
+            int[][] after = board.getBoardState();
+            if (moved) {
+                applied++;
+                if (spawnRandom != null) {
+                    drawSpawn(after, spawnRandom, spawnCells, spawnValues, i);
+                }
+                if (spawnCells[i] >= 0) {
+                    // Shrinking can move a scripted spawn onto a tile, such a case is no game and does not reproduce
+                    if (after[spawnCells[i] / size][spawnCells[i] % size] != 0) {
+                        return null;
+                    }
+                    after[spawnCells[i] / size][spawnCells[i] % size] = spawnValues[i];
+                    board.setBoardState(after);
+                }
+            }
+            String step = "move " + (i + 1) + " (" + moves[i] + ")";
+            if (canMoveDirection != moved) {
+                return new Failure(REFERENCE, "Board.canMove(" + moves[i] + ") is " + canMoveDirection
+                        + " but the board " + (moved ? "moved" : "did not move") + " at " + step);
+            }
+            boolean mergeable = hasAdjacentPair(before);
+            if ((canMerge != null) != mergeable) {
+                return new Failure(REFERENCE, "Board.canMerge() is " + canMerge + " before " + step);
+            }
+            // No game reaches an empty board: Board counts it as movable as it is not full, BitBoard does not
+            boolean empty = maxExponent(before) == 0;
+            for (Engine engine : active) {
+                if (!empty && engine.canMove() != canMove) {
+                    return new Failure(engine.name(), "canMove before " + step + ": expected " + canMove + ", got "
+                            + engine.canMove());
+                }
+                if (hasAdjacentPair(engine) != mergeable) {
+                    return new Failure(engine.name(), "mergeable pairs before " + step + ": expected " + mergeable);
+                }
+                int engineGained = engine.move(moves[i]);
+                if (engineGained != gained) {
+                    return new Failure(engine.name(), "score gained by " + step + ": expected " + gained + ", got "
+                            + engineGained + " (-1 means not moved)");
+                }
+                if (moved && spawnCells[i] >= 0) {
+                    engine.set(spawnCells[i] / size, spawnCells[i] % size, spawnValues[i]);
+                }
+                String difference = difference(after, engine);
+                if (difference != null) {
+                    return new Failure(engine.name(), "board after " + step + ": " + difference);
+                }
+            }
+            int exponent = maxExponent(after);
+            reachedExponent = Math.max(reachedExponent, exponent);
+            active.removeIf(engine -> !engine.supports(size, exponent));
+            byte flag = !moved ? 0 : gained > 0 ? (byte) (BatchResult.MOVED | BatchResult.MERGED) : BatchResult.MOVED;
+            if (exponent >= WIN_EXPONENT) {
+                flag |= BatchResult.WON;
+            }
+            if (!board.canMove()) {
+                flag |= BatchResult.OVER;
+            }
+            flags[i] = flag;
+            before = after;
+        }
+        for (BatchEngine engine : batchEngines) {
+            if (engine.supports(size, reachedExponent)) {
+                String difference = difference(engine.apply(fuzzCase), applied, board, before, flags);
+                if (difference != null) {
+                    return new Failure(engine.name(), difference);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Draws the spawn after a move into an empty cell of the board, a 2 with probability 0.9 and a 4 otherwise.
+     *
+     * @param grid        the board after the move
+     * @param random      the random generator of the case
+     * @param spawnCells  the spawn cells of the case, filled in at {@code move}
+     * @param spawnValues the spawn values of the case, filled in at {@code move}
+     * @param move        the index of the move
+     */
+    private static void drawSpawn(int[][] grid, SplittableRandom random, int[] spawnCells, int[] spawnValues,
+                                  int move) {
+        int size = grid.length;
+        int empty = 0;
+        for (int[] row : grid) {
+            for (int value : row) {
+                empty += value == 0 ? 1 : 0;
+            }
+        }
+        if (empty == 0) {
+            return;
+        }
+        int target = random.nextInt(empty);
+        for (int cell = 0; cell < size * size; cell++) {
+            if (grid[cell / size][cell % size] == 0 && target-- == 0) {
+                spawnCells[move] = cell;
+                spawnValues[move] = random.nextInt(10) == 0 ? 4 : 2;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compares the outcome of a batch engine with the replay on the reference.
+     *
+     * @param result  the outcome of the batch engine
+     * @param applied the number of moves that changed the reference
+     * @param board   the reference after the case
+     * @param state   the tiles of the reference after the case
+     * @param flags   the flags of every move on the reference
+     * @return the first difference, or null
+     */
+    private static String difference(BatchResult result, int applied, Board board, int[][] state, byte[] flags) {
+        if (result.applied() != applied || result.score() != board.getScore()) {
+            return "applied " + result.applied() + " moves for " + result.score() + " points, expected " + applied
+                    + " moves for " + board.getScore() + " points";
+        }
+        if (!Arrays.deepEquals(result.finalState(), state)) {
+            return "final board " + Arrays.deepToString(result.finalState()) + ", expected "
+                    + Arrays.deepToString(state);
+        }
+        for (int i = 0; i < flags.length; i++) {
+            if (result.stepFlags()[i] != flags[i]) {
+                return "flags of move " + (i + 1) + ": expected " + flags[i] + ", got " + result.stepFlags()[i];
+            }
+        }
+        if (result.won() != maxExponent(state) >= WIN_EXPONENT || result.over() == board.canMove()) {
+            return "won " + result.won() + ", over " + result.over() + " disagree with the board";
+        }
+        return null;
+    }
+
+    /**
+     * Shrinks a diverging case while the same engine keeps diverging.
+     *
+     * @param fuzzCase the generated case
+     * @param failure  the difference found on it
+     * @return the divergence with the minimized case
+     */
+    private Divergence minimize(Case fuzzCase, Failure failure) {
+        String engine = failure.engine();
+        Case current = fuzzCase;
+        String message = failure.message();
+        // Cut the moves after the first failing prefix, then start from the board before the last move
+        for (int length = 1; length <= current.moves().length; length++) {
+            Case prefix = slice(current, 0, length);
+            String prefixMessage = check(prefix, engine);
+            if (prefixMessage != null) {
+                current = prefix;
+                message = prefixMessage;
+                break;
+            }
+        }
+        Case lastMove = startBeforeLastMove(current);
+        String lastMoveMessage = check(lastMove, engine);
+        if (lastMoveMessage != null) {
+            current = lastMove;
+            message = lastMoveMessage;
+        }
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (Case candidate : shrinkCandidates(current)) {
+                String candidateMessage = check(candidate, engine);
+                if (candidateMessage != null) {
+                    current = candidate;
+                    message = candidateMessage;
+                    shrunk = true;
+                    break;
+                }
+            }
+        }
+        return new Divergence(engine, fuzzCase, current, message);
+    }
+
+    /**
+     * Checks a case against one engine with a fresh instance of it.
+     *
+     * @param fuzzCase the case
+     * @param engine   the name of the failing engine
+     * @return the difference, or null if the engine agrees with the reference
+     */
+    private String check(Case fuzzCase, String engine) {
+        Failure failure = check(fuzzCase,
+                engines.stream().map(Supplier::get).filter(e -> e.name().equals(engine)).toList(),
+                batchEngines.stream().map(Supplier::get).filter(e -> e.name().equals(engine)).toList(), null);
+        return failure != null && failure.engine().equals(engine) ? failure.message() : null;
+    }
+
+    /**
+     * Returns the smaller variants of a case tried by the minimizer, the biggest reductions first.
+     *
+     * @param fuzzCase the case to shrink
+     * @return the variants
+     */
+    private static List<Case> shrinkCandidates(Case fuzzCase) {
+        List<Case> candidates = new ArrayList<>();
+        int size = fuzzCase.size();
+        if (size > MIN_SIZE) {
+            candidates.add(crop(fuzzCase, 1, 1));
+            candidates.add(crop(fuzzCase, 0, 1));
+            candidates.add(crop(fuzzCase, 1, 0));
+            candidates.add(crop(fuzzCase, 0, 0));
+        }
+        for (int i = 0; i < fuzzCase.moves().length && fuzzCase.moves().length > 1; i++) {
+            candidates.add(withoutMove(fuzzCase, i));
+        }
+        for (int cell = 0; cell < size * size; cell++) {
+            int value = fuzzCase.start()[cell / size][cell % size];
+            if (value != 0) {
+                candidates.add(withTile(fuzzCase, cell, 0));
+                if (value > 2) {
+                    candidates.add(withTile(fuzzCase, cell, value / 2));
+                }
+            }
+        }
+        for (int i = 0; i < fuzzCase.spawnCells().length; i++) {
+            if (fuzzCase.spawnCells()[i] >= 0) {
+                int[] spawnCells = fuzzCase.spawnCells().clone();
+                spawnCells[i] = -1;
+                candidates.add(new Case(fuzzCase.seed(), fuzzCase.index(), fuzzCase.start(), fuzzCase.moves(),
+                        spawnCells, fuzzCase.spawnValues()));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the moves {@code from} to {@code to} of a case, starting from the same board.
+     *
+     * @param fuzzCase the case
+     * @param from     the first move
+     * @param to       the move after the last one
+     * @return the shorter case
+     */
+    private static Case slice(Case fuzzCase, int from, int to) {
+        return new Case(fuzzCase.seed(), fuzzCase.index(), fuzzCase.start(),
+                Arrays.copyOfRange(fuzzCase.moves(), from, to), Arrays.copyOfRange(fuzzCase.spawnCells(), from, to),
+                Arrays.copyOfRange(fuzzCase.spawnValues(), from, to));
+    }
+
+    /**
+     * Replays all but the last move on the reference and returns the case of the last move from there.
+     *
+     * @param fuzzCase the case
+     * @return the case with a single move
+     */
+    private static Case startBeforeLastMove(Case fuzzCase) {
+        int last = fuzzCase.moves().length - 1;
+        int size = fuzzCase.size();
+        Board board = new Board(size, new Random(0));
+        board.setBoardState(fuzzCase.start());
+        for (int i = 0; i < last; i++) {
+            if (board.move(fuzzCase.moves()[i]) && fuzzCase.spawnCells()[i] >= 0) {
+                int[][] state = board.getBoardState();
+                int cell = fuzzCase.spawnCells()[i];
+                state[cell / size][cell % size] = fuzzCase.spawnValues()[i];
+                board.setBoardState(state);
+            }
+        }
+        Case lastMove = slice(fuzzCase, last, last + 1);
+        return new Case(lastMove.seed(), lastMove.index(), board.getBoardState(), lastMove.moves(),
+                lastMove.spawnCells(), lastMove.spawnValues());
+    }
+
+    /**
+     * Removes one row and one column of a case. Spawns in the removed cells are dropped.
+     *
+     * @param fuzzCase  the case
+     * @param rowOffset 1 to remove the first row, 0 to remove the last one
+     * @param colOffset 1 to remove the first column, 0 to remove the last one
+     * @return the smaller case
+     */
+    private static Case crop(Case fuzzCase, int rowOffset, int colOffset) {
+        int size = fuzzCase.size() - 1;
+        int[][] start = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(fuzzCase.start()[row + rowOffset], colOffset, start[row], 0, size);
+        }
+        int[] spawnCells = new int[fuzzCase.spawnCells().length];
+        for (int i = 0; i < spawnCells.length; i++) {
+            int cell = fuzzCase.spawnCells()[i];
+            int row = cell / (size + 1) - rowOffset;
+            int col = cell % (size + 1) - colOffset;
+            spawnCells[i] = cell < 0 || row < 0 || col < 0 || row >= size || col >= size ? -1 : row * size + col;
+        }
+        return new Case(fuzzCase.seed(), fuzzCase.index(), start, fuzzCase.moves(), spawnCells,
+                fuzzCase.spawnValues());
+    }
+
+    /**
+     * Removes one move and its spawn from a case.
+     *
+     * @param fuzzCase the case
+     * @param move     the index of the move
+     * @return the shorter case
+     */
+    private static Case withoutMove(Case fuzzCase, int move) {
+        int length = fuzzCase.moves().length - 1;
+        Direction[] moves = new Direction[length];
+        int[] spawnCells = new int[length];
+        int[] spawnValues = new int[length];
+        for (int i = 0, j = 0; i <= length; i++) {
+            if (i != move) {
+                moves[j] = fuzzCase.moves()[i];
+                spawnCells[j] = fuzzCase.spawnCells()[i];
+                spawnValues[j++] = fuzzCase.spawnValues()[i];
+            }
+        }
+        return new Case(fuzzCase.seed(), fuzzCase.index(), fuzzCase.start(), moves, spawnCells, spawnValues);
+    }
+
+    /**
+     * Replaces one tile of the start board.
+     *
+     * @param fuzzCase the case
+     * @param cell     the cell, {@code row * size + col}
+     * @param value    the new value
+     * @return the changed case
+     */
+    private static Case withTile(Case fuzzCase, int cell, int value) {
+        int size = fuzzCase.size();
+        int[][] start = Arrays.stream(fuzzCase.start()).map(int[]::clone).toArray(int[][]::new);
+        start[cell / size][cell % size] = value;
+        return new Case(fuzzCase.seed(), fuzzCase.index(), start, fuzzCase.moves(), fuzzCase.spawnCells(),
+                fuzzCase.spawnValues());
+    }
+
+    /**
+     * Compares a board with the board of an engine.
+     *
+     * @param expected the reference board
+     * @param engine   the engine
+     * @return the first different cell, or null if the boards are equal
+     */
+    private static String difference(int[][] expected, Engine engine) {
+        for (int row = 0; row < expected.length; row++) {
+            for (int col = 0; col < expected.length; col++) {
+                if (engine.value(row, col) != expected[row][col]) {
+                    return "cell (" + row + ", " + col + ") is " + engine.value(row, col) + ", expected "
+                            + expected[row][col] + " in " + Arrays.deepToString(expected);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a board has two equal tiles next to each other, the definition of {@link Board#canMerge()}.
+     *
+     * @param grid the tile values
+     * @return true if two neighbours can merge
+     */
+    private static boolean hasAdjacentPair(int[][] grid) {
+        int size = grid.length;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = grid[row][col];
+                if (value != 0 && ((col < size - 1 && value == grid[row][col + 1])
+                        || (row < size - 1 && value == grid[row + 1][col]))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the board of an engine has two equal tiles next to each other.
+     *
+     * @param engine the engine
+     * @return true if two neighbours can merge
+     */
+    private static boolean hasAdjacentPair(Engine engine) {
+        int size = engine.size();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = engine.value(row, col);
+                if (value != 0 && ((col < size - 1 && value == engine.value(row, col + 1))
+                        || (row < size - 1 && value == engine.value(row + 1, col)))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the highest tile exponent of a board.
+     *
+     * @param grid the tile values
+     * @return the exponent, 0 for an empty board
+     */
+    private static int maxExponent(int[][] grid) {
+        int max = 0;
+        for (int[] row : grid) {
+            for (int value : row) {
+                max = Math.max(max, value);
+            }
+        }
+        return max == 0 ? 0 : Integer.numberOfTrailingZeros(max);
+    }
+
+    /**
+     * {@link BitBoard} on 4x4 boards. Exponents above 15 do not fit a nibble, so boards with a 2^15 tile drop out.
+     */
+    static class BitBoardEngine implements Engine {
+        private long board;
+
+        @Override
+        public String name() {
+            return "BitBoard";
+        }
+
+        @Override
+        public boolean supports(int size, int maxExponent) {
+            return size == BitBoard.SIZE && maxExponent < BitBoard.MAX_EXPONENT;
+        }
+
+        @Override
+        public void load(int[][] grid) {
+            board = BitBoard.fromGrid(grid);
+        }
+
+        @Override
+        public int move(Direction direction) {
+            long moved = BitBoard.move(board, direction);
+            if (moved == board) {
+                return -1;
+            }
+            int gained = BitBoard.score(board, direction);
+            board = moved;
+            return gained;
+        }
+
+        @Override
+        public void set(int row, int col, int value) {
+            board = BitBoard.withExponent(board, row * BitBoard.SIZE + col, Integer.numberOfTrailingZeros(value));
+        }
+
+        @Override
+        public int value(int row, int col) {
+            int exponent = BitBoard.exponent(board, row * BitBoard.SIZE + col);
+            return exponent == 0 ? 0 : 1 << exponent;
+        }
+
+        @Override
+        public boolean canMove() {
+            return BitBoard.canMove(board);
+        }
+
+        @Override
+        public int size() {
+            return BitBoard.SIZE;
+        }
+    }
+
+    /**
+     * {@link PackedGrid} on boards of any size.
+     */
+    static class PackedGridEngine implements Engine {
+        private byte[] cells;
+        private int size;
+
+        @Override
+        public String name() {
+            return "PackedGrid";
+        }
+
+        @Override
+        public boolean supports(int size, int maxExponent) {
+            return maxExponent < 30;
+        }
+
+        @Override
+        public void load(int[][] grid) {
+            cells = PackedGrid.fromGrid(grid);
+            size = grid.length;
+        }
+
+        @Override
+        public int move(Direction direction) {
+            return PackedGrid.move(cells, size, direction);
+        }
+
+        @Override
+        public void set(int row, int col, int value) {
+            cells[row * size + col] = (byte) Integer.numberOfTrailingZeros(value);
+        }
+
+        @Override
+        public int value(int row, int col) {
+            int exponent = cells[row * size + col];
+            return exponent == 0 ? 0 : 1 << exponent;
+        }
+
+        @Override
+        public boolean canMove() {
+            return PackedGrid.canMove(cells, size);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A {@link RowEngine} sliding every row or column of a board directly, whatever engine {@link Board} picks for
+     * the size. Engines have no {@code canMove}, so it slides every line in the four directions without writing them back.
+     */
+    static class RowEngineEngine implements Engine {
+        private final RowEngine rowEngine;
+        private int[][] grid;
+        private int[] line;
+
+        /**
+         * Creates the engine.
+         *
+         * @param rowEngine the row engine to check
+         */
+        RowEngineEngine(RowEngine rowEngine) {
+            this.rowEngine = rowEngine;
+        }
+
+        @Override
+        public String name() {
+            return "RowEngine " + rowEngine.getName();
+        }
+
+        @Override
+        public boolean supports(int size, int maxExponent) {
+            return maxExponent < 30;
+        }
+
+        @Override
+        public void load(int[][] grid) {
+            this.grid = Arrays.stream(grid).map(int[]::clone).toArray(int[][]::new);
+            this.line = new int[grid.length];
+        }
+
+        @Override
+        public int move(Direction direction) {
+            int size = grid.length;
+            boolean moved = false;
+            int score = 0;
+            for (int index = 0; index < size; index++) {
+                for (int i = 0; i < size; i++) {
+                    line[i] = cell(direction, index, i);
+                }
+                long outcome = rowEngine.slide(line, size);
+                score += RowEngine.score(outcome);
+                for (int i = 0; i < size; i++) {
+                    if (cell(direction, index, i) != line[i]) {
+                        setCell(direction, index, i, line[i]);
+                        moved = true;
+                    }
+                }
+            }
+            return moved ? score : -1;
+        }
+
+        /**
+         * Returns a cell along a line, counted from the edge the tiles move towards.
+         *
+         * @param direction the direction of the move
+         * @param index     the row or column
+         * @param i         the position along the line
+         * @return the value
+         */
+        private int cell(Direction direction, int index, int i) {
+            int last = grid.length - 1;
+            return switch (direction) {
+                case LEFT -> grid[index][i];
+                case RIGHT -> grid[index][last - i];
+                case UP -> grid[i][index];
+                case DOWN -> grid[last - i][index];
+            };
+        }
+
+        /**
+         * Sets a cell along a line, counted from the edge the tiles move towards.
+         *
+         * @param direction the direction of the move
+         * @param index     the row or column
+         * @param i         the position along the line
+         * @param value     the value
+         */
+        private void setCell(Direction direction, int index, int i, int value) {
+            int last = grid.length - 1;
+            switch (direction) {
+                case LEFT -> grid[index][i] = value;
+                case RIGHT -> grid[index][last - i] = value;
+                case UP -> grid[i][index] = value;
+                case DOWN -> grid[last - i][index] = value;
+            }
+        }
+
+        @Override
+        public void set(int row, int col, int value) {
+            grid[row][col] = value;
+        }
+
+        @Override
+        public int value(int row, int col) {
+            return grid[row][col];
+        }
+
+        @Override
+        public boolean canMove() {
+            int size = grid.length;
+            for (Direction direction : DIRECTIONS) {
+                for (int index = 0; index < size; index++) {
+                    for (int i = 0; i < size; i++) {
+                        line[i] = cell(direction, index, i);
+                    }
+                    rowEngine.slide(line, size);
+                    for (int i = 0; i < size; i++) {
+                        if (line[i] != cell(direction, index, i)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return grid.length;
+        }
+    }
+
+    /**
+     * {@link BoardBatch} holding the board after a terminal decoy, so every move also runs over a board stored at an
+     * offset and the decoy must stay unchanged.
+     */
+    static class BoardBatchEngine implements Engine {
+        private BoardBatch batch;
+        private long decoyBoard;
+        private int[][] decoyGrid;
+
+        @Override
+        public String name() {
+            return "BoardBatch";
+        }
+
+        @Override
+        public boolean supports(int size, int maxExponent) {
+            return maxExponent < (size == BitBoard.SIZE ? BitBoard.MAX_EXPONENT : 30);
+        }
+
+        @Override
+        public void load(int[][] grid) {
+            int size = grid.length;
+            decoyGrid = new int[size][size];
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    decoyGrid[row][col] = (row + col) % 2 == 0 ? 2 : 4;
+                }
+            }
+            batch = new BoardBatch(size, 2);
+            batch.add(decoyGrid, -1);
+            batch.add(grid, 0);
+            decoyBoard = batch.isPacked() ? batch.getPacked(0) : 0;
+        }
+
+        @Override
+        public int move(Direction direction) {
+            int[] gained = new int[2];
+            batch.moveAll(direction, gained);
+            boolean decoyIntact = batch.isPacked()
+                    ? batch.getPacked(0) == decoyBoard
+                    : Arrays.deepEquals(batch.getGrid(0), decoyGrid);
+            // A moved decoy is reported as an impossible score, so it is minimized like any other divergence
+            return gained[0] == -1 && decoyIntact ? gained[1] : Integer.MIN_VALUE;
+        }
+
+        @Override
+        public void set(int row, int col, int value) {
+            batch.setExponent(1, row * batch.getBoardSize() + col, Integer.numberOfTrailingZeros(value));
+        }
+
+        @Override
+        public int value(int row, int col) {
+            int exponent = batch.getExponent(1, row * batch.getBoardSize() + col);
+            return exponent == 0 ? 0 : 1 << exponent;
+        }
+
+        @Override
+        public boolean canMove() {
+            return batch.canMove(1);
+        }
+
+        @Override
+        public int size() {
+            return batch.getBoardSize();
+        }
+    }
+
+    /**
+     * {@link Board#applyMoves} with the scripted spawns of the case.
+     */
+    static class ApplyMovesEngine implements BatchEngine {
+        @Override
+        public String name() {
+            return "Board.applyMoves";
+        }
+
+        @Override
+        public boolean supports(int size, int maxExponent) {
+            return maxExponent < 30;
+        }
+
+        @Override
+        public BatchResult apply(Case fuzzCase) {
+            Board board = new Board(fuzzCase.size(), new Random(0));
+            board.setBoardState(fuzzCase.start());
+            return board.applyMoves(fuzzCase.moves(), fuzzCase.spawnCells(), fuzzCase.spawnValues(),
+                    BatchResult.FINAL_STATE | BatchResult.STEP_FLAGS);
+        }
+    }
+}
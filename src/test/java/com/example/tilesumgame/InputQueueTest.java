@@ -0,0 +1,44 @@
+package com.example.tilesumgame;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputQueueTest {
+    @Test
+    void coalesceQueuesRepeatsOnlyWhenIdle() {
+        InputQueue queue = new InputQueue(4, InputQueue.RepeatPolicy.COALESCE);
+        assertTrue(queue.keyPressed(Direction.LEFT));
+        assertFalse(queue.keyPressed(Direction.LEFT), "Repeat should be collapsed while a move is pending");
+        assertEquals(Direction.LEFT, queue.poll());
+        assertTrue(queue.keyPressed(Direction.LEFT), "Repeat should be queued when no move is pending");
+        assertTrue(queue.keyPressed(Direction.UP), "New press should always be queued");
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    void dropIgnoresRepeatsUntilRelease() {
+        InputQueue queue = new InputQueue(4, InputQueue.RepeatPolicy.DROP);
+        assertTrue(queue.keyPressed(Direction.DOWN));
+        queue.poll();
+        assertFalse(queue.keyPressed(Direction.DOWN));
+        queue.keyReleased(Direction.DOWN);
+        assertTrue(queue.keyPressed(Direction.DOWN), "Press after release should be queued");
+    }
+
+    @Test
+    void fullQueueDropsInput() {
+        InputQueue queue = new InputQueue(2, InputQueue.RepeatPolicy.QUEUE);
+        for (int i = 0; i < 5; i++) {
+            queue.keyPressed(Direction.RIGHT);
+        }
+        assertEquals(2, queue.size());
+        assertEquals(3, queue.getDropped());
+    }
+
+    @Test
+    void parsesPolicyNamesIgnoringCase() {
+        assertEquals(InputQueue.RepeatPolicy.DROP, InputQueue.RepeatPolicy.parse("Drop"));
+        assertThrows(IllegalArgumentException.class, () -> InputQueue.RepeatPolicy.parse("repeat"));
+    }
+}
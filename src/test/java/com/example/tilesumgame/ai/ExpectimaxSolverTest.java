@@ -0,0 +1,43 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.engine.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpectimaxSolverTest {
+    // Few empty cells, so a timed search deepens for most of a second
+    static final long CROWDED = BitBoard.fromGrid(new int[][]{
+            {2, 2, 4, 8},
+            {16, 4, 2, 8},
+            {2, 32, 64, 2},
+            {4, 8, 2, 4},
+    });
+
+    @Test
+    void fixedDepthIgnoresCancel() {
+        ExpectimaxSolver solver = new ExpectimaxSolver();
+        solver.cancel();
+        assertNotNull(solver.bestMove(CROWDED, 3));
+        assertEquals(3, solver.getLastStats().depth(), "A fixed-depth search should always finish");
+    }
+
+    @Test
+    void cancelBeforeStartStopsTokenSearch() {
+        ExpectimaxSolver solver = new ExpectimaxSolver();
+        long token = solver.getCancelToken();
+        solver.cancel();
+        assertNotNull(solver.bestMove(CROWDED, Duration.ofSeconds(30), token), "Depth 1 should still give a move");
+        assertEquals(1, solver.getLastStats().depth(), "A cancel before the start should not be lost");
+    }
+
+    @Test
+    void earlierCancelDoesNotStopLaterSearch() {
+        ExpectimaxSolver solver = new ExpectimaxSolver();
+        solver.cancel();
+        solver.bestMove(CROWDED, Duration.ofSeconds(30));
+        assertTrue(solver.getLastStats().depth() > 1, "A cancel should only stop the search it was meant for");
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.engine.BitBoard;
+import com.example.tilesumgame.engine.Symmetry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicTablesTest {
+    /**
+     * Builds a board with the given tiles in the top row and every other cell empty.
+     * Each column then holds at most one tile, which adds no merges and no monotonicity penalty.
+     *
+     * @param tiles the four tile values of the top row
+     * @return the packed board
+     */
+    private static long topRow(int... tiles) {
+        return BitBoard.fromGrid(new int[][]{tiles, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}});
+    }
+
+    @Test
+    void countsEmptyCellsInRowsAndColumns() {
+        HeuristicTables empty = new HeuristicTables(new HeuristicTables.Weights(0, 1, 0, 0, 0, 0));
+        assertEquals(32, empty.evaluate(0L), "Every cell is counted once per row and once per column");
+        // Row: 2 empty, other rows: 12, columns: 3 + 4 + 3 + 4
+        assertEquals(28, empty.evaluate(topRow(2, 0, 4, 0)));
+    }
+
+    @Test
+    void countsMergesAcrossEmptyCells() {
+        HeuristicTables merges = new HeuristicTables(new HeuristicTables.Weights(0, 0, 1, 0, 0, 0));
+        assertEquals(4, merges.evaluate(topRow(2, 2, 4, 4)));
+        assertEquals(2, merges.evaluate(topRow(2, 0, 2, 0)));
+        assertEquals(3, merges.evaluate(topRow(8, 8, 0, 8)));
+        assertEquals(0, merges.evaluate(topRow(2, 4, 2, 4)));
+    }
+
+    @Test
+    void penalizesOnlyNonMonotonicRows() {
+        HeuristicTables monotonicity = new HeuristicTables(new HeuristicTables.Weights(0, 0, 0, 1, 0, 0));
+        assertEquals(0, monotonicity.evaluate(topRow(2, 4, 8, 16)));
+        assertEquals(0, monotonicity.evaluate(topRow(16, 8, 0, 0)));
+        // Exponents 2, 1, 2, 0: decreasing steps 15 + 16, increasing steps 15, the smaller side is subtracted
+        assertEquals(-15, monotonicity.evaluate(topRow(4, 2, 4, 0)));
+    }
+
+    @Test
+    void symmetricBoardsHaveTheSameValue() {
+        HeuristicTables tables = new HeuristicTables();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            long board = 0;
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                board = BitBoard.withExponent(board, cell, random.nextInt(12));
+            }
+            float expected = tables.evaluate(board);
+            for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                // Row values are around the base of 200000, so the summation order moves the result by a few ulps
+                assertEquals(expected, tables.evaluate(Symmetry.apply(board, symmetry)), 1,
+                        "Symmetry " + symmetry + " of " + Long.toHexString(board));
+            }
+        }
+    }
+}
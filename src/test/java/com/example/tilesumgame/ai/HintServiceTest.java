@@ -0,0 +1,83 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Direction;
+import com.example.tilesumgame.engine.BitBoard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintServiceTest {
+    private static final long SPARSE = BitBoard.fromGrid(new int[][]{
+            {2, 0, 0, 0},
+            {0, 0, 0, 0},
+            {0, 4, 0, 0},
+            {0, 0, 0, 0},
+    });
+
+    private HintService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void newPositionCancelsStaleSearch() throws InterruptedException {
+        // The budget is far longer than the test may take, so only a cancel lets the second position finish in time
+        service = new HintService(Duration.ofSeconds(60));
+        service.positionChanged(ExpectimaxSolverTest.CROWDED);
+        Thread.sleep(50);
+        service.positionChanged(SPARSE);
+        awaitTrue(service::isReady, "The new position should be searched after the stale search is cancelled");
+        assertFalse(service.isKnown(ExpectimaxSolverTest.CROWDED), "The cancelled search should not store a hint");
+    }
+
+    @Test
+    void answersImmediatelyBeforeTheSearchFinishes() {
+        service = new HintService(Duration.ofSeconds(60));
+        service.positionChanged(ExpectimaxSolverTest.CROWDED);
+        assertEquals(new HeuristicTables().greedyMove(ExpectimaxSolverTest.CROWDED), service.getHint(),
+                "Until the search finishes the greedy move should be returned");
+    }
+
+    @Test
+    void searchesFollowUpPositionsSpeculatively() {
+        service = new HintService(Duration.ofMillis(5));
+        service.positionChanged(SPARSE);
+        awaitTrue(service::isReady, "The position should be searched");
+        Direction hint = service.getHint();
+        long afterstate = BitBoard.move(SPARSE, hint);
+        int lastEmpty = -1;
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            if (BitBoard.exponent(afterstate, cell) == 0) {
+                lastEmpty = cell;
+            }
+        }
+        // Spawned 4s are searched last
+        long followUp = BitBoard.withExponent(afterstate, lastEmpty, 2);
+        awaitTrue(() -> service.isKnown(followUp), "The positions after the hinted move should be searched");
+        service.positionChanged(followUp);
+        assertTrue(service.isReady(), "A followed hint should make the next one ready at once");
+    }
+
+    /**
+     * Waits up to 10 seconds for a condition.
+     *
+     * @param condition the condition
+     * @param message   the failure message
+     */
+    private static void awaitTrue(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.engine.BitBoard;
+import com.example.tilesumgame.engine.Symmetry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NTupleNetworkTest {
+    // Small tuples keep the weight tables at a few hundred kilobytes
+    private static final int[][] TUPLES = {{0, 1, 2, 3}, {4, 5, 6, 7}, {0, 1, 4, 5}};
+    private static final long BOARD = BitBoard.fromGrid(new int[][]{
+            {2, 4, 8, 16},
+            {0, 2, 0, 4},
+            {0, 0, 2, 0},
+            {0, 0, 0, 2},
+    });
+    private static final long OTHER = BitBoard.fromGrid(new int[][]{
+            {0, 0, 0, 0},
+            {0, 128, 64, 0},
+            {0, 2, 2, 0},
+            {4, 0, 0, 0},
+    });
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void saveAndLoadKeepWeights() throws IOException {
+        NTupleNetwork network = new NTupleNetwork(TUPLES);
+        network.update(BOARD, 1.5f);
+        network.update(OTHER, -0.25f);
+        Path file = directory.resolve("network.bin");
+        network.save(file);
+
+        NTupleNetwork loaded = NTupleNetwork.load(file);
+        assertEquals(network.getSampleCount(), loaded.getSampleCount());
+        for (long board : new long[]{BOARD, OTHER, 0L}) {
+            assertEquals(network.evaluate(board), loaded.evaluate(board));
+        }
+        assertNotEquals(0f, loaded.evaluate(BOARD));
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path file = directory.resolve("network.bin");
+        new NTupleNetwork(TUPLES).save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> NTupleNetwork.load(file));
+    }
+
+    @Test
+    void rejectsInvalidTuples() throws IOException {
+        Path file = directory.resolve("network.bin");
+        new NTupleNetwork(TUPLES).save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        // The first tuple starts after the 8-byte header with its length, followed by 6 cell bytes
+        for (int[] damage : new int[][]{{8, 3}, {8, 7}, {9, 16}, {10, -1}}) {
+            byte[] damaged = bytes.clone();
+            damaged[damage[0]] = (byte) damage[1];
+            Files.write(file, damaged);
+            assertThrows(IOException.class, () -> NTupleNetwork.load(file), () -> Arrays.toString(damage));
+        }
+    }
+
+    @Test
+    void symmetricBoardsHaveTheSameValue() {
+        NTupleNetwork network = new NTupleNetwork(TUPLES);
+        network.update(BOARD, 1);
+        assertEquals(network.evaluate(BOARD), network.evaluate(Symmetry.mirror(BOARD)));
+        assertEquals(network.evaluate(BOARD), network.evaluate(BitBoard.transpose(BOARD)));
+    }
+
+    @Test
+    void tdUpdateMovesValueTowardsTarget() {
+        NTupleNetwork network = new NTupleNetwork(TUPLES);
+        TdTrainer trainer = new TdTrainer(network, 0.1);
+        float target = 100;
+        float before = network.evaluate(BOARD);
+        trainer.learn(BOARD, target);
+        float after = network.evaluate(BOARD);
+        assertTrue(after > before && after < target, "Expected " + before + " < " + after + " < " + target);
+
+        trainer.learn(BOARD, -target);
+        assertTrue(network.evaluate(BOARD) < after, "A lower target should lower the value");
+    }
+
+    @Test
+    void trainsWithoutALogger() {
+        TdTrainer trainer = new TdTrainer(new NTupleNetwork(TUPLES), 0.1);
+        // Enough games to reach the first progress report
+        assertDoesNotThrow(() -> trainer.train(10_000, 1, 42));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.tilesumgame.ai;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTest {
+    @TempDir
+    static Path directory;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void build() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            tablebase = new TablebaseBuilder(2, 16, executor, 2).build(directory.resolve("tablebase-2x2.bin"));
+        }
+    }
+
+    @Test
+    void answersOptimalMoves() {
+        assertEquals(16, tablebase.getTargetTile());
+        assertTrue(tablebase.getWinProbability() > 0 && tablebase.getWinProbability() <= 1);
+        // Only a horizontal move merges the eights into the target
+        Direction move = tablebase.bestMove(new int[][]{{8, 8}, {2, 0}});
+        assertTrue(move == Direction.LEFT || move == Direction.RIGHT, "Expected a winning merge, got " + move);
+        assertNull(tablebase.bestMove(new int[][]{{16, 0}, {0, 0}}), "Won positions are not in the table");
+        assertNull(tablebase.bestMove(new int[][]{{0, 0}, {0, 0}}), "Unreachable positions are not in the table");
+        assertNull(tablebase.bestMove(new int[][]{{2, 4}, {4, 2}}), "Lost positions have no move");
+        assertNull(tablebase.bestMove(new int[][]{{4, 8}, {8, 4}}), "Lost positions have no move");
+    }
+
+    @Test
+    void winsMoreOftenThanMergeFirst() {
+        Strategy optimal = new TablebaseStrategy(tablebase, new MergeFirstStrategy());
+        Strategy mergeFirst = new MergeFirstStrategy();
+        assertTrue(wins(optimal) > wins(mergeFirst));
+    }
+
+    private static int wins(Strategy strategy) {
+        int wins = 0;
+        for (int seed = 0; seed < 500; seed++) {
+            Board board = new Board(2, new Random(seed));
+            board.spawnTile();
+            board.spawnTile();
+            while (board.canMove()) {
+                Direction direction = strategy.chooseMove(board);
+                assertNotNull(direction);
+                assertTrue(board.move(direction), strategy.getName() + " chose an illegal move");
+                if (maxTile(board) >= 16) {
+                    wins++;
+                    break;
+                }
+                board.spawnTile();
+            }
+        }
+        return wins;
+    }
+
+    private static int maxTile(Board board) {
+        int max = 0;
+        for (int[] row : board.getBoardState()) {
+            for (int value : row) {
+                max = Math.max(max, value);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.tilesumgame.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameAnalyticsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void segmentSizeDoesNotChangeTheReport() throws Exception {
+        Random random = new Random(7);
+        StringBuilder journal = new StringBuilder();
+        int games = 500;
+        long totalScore = 0;
+        int reached256 = 0;
+        for (int game = 0; game < games; game++) {
+            int size = 4 + game % 3;
+            int moves = 50 + random.nextInt(1000);
+            int maxExponent = 6 + random.nextInt(6);
+            int score = random.nextInt(40000);
+            totalScore += score;
+            journal.append(size).append('|').append(1_700_000_000_000L + game).append('|')
+                    .append(maxExponent == 11 ? "WON" : "LOST").append('|').append(score).append('|')
+                    .append(moves).append('|').append(1 << maxExponent).append('|');
+            for (int exponent = 1; exponent <= maxExponent; exponent++) {
+                journal.append(exponent == 1 ? "" : ",").append(1 << exponent).append(':')
+                        .append(moves * (exponent - 1) / maxExponent);
+            }
+            if (size == 4 && maxExponent >= 8) {
+                reached256++;
+            }
+            journal.append('|').append("LRUD".repeat(moves / 4)).append('\n');
+        }
+        Path journalFile = directory.resolve("games.journal");
+        Files.writeString(journalFile, journal);
+        Path scoreFile = directory.resolve("scores.txt");
+        Files.writeString(scoreFile, "1200|2024-05-01 12:00:00\r\n3400|2024-05-02 08:30:00\r\nnot a score\r\n");
+
+        List<Path> files = List.of(journalFile, scoreFile);
+        String expected = GameAnalytics.analyze(files, Long.MAX_VALUE / 2).toJson(100);
+        for (long segmentBytes : new long[]{1, 7, 64, 1000, 100_000}) {
+            assertEquals(expected, GameAnalytics.analyze(files, segmentBytes).toJson(100),
+                    "segments of " + segmentBytes + " bytes");
+        }
+
+        AnalyticsReport report = GameAnalytics.analyze(files, 4096);
+        long counted = 0;
+        double scoreSum = 0;
+        for (int size : report.getSizes()) {
+            SizeStats stats = report.getSizeStats(size);
+            counted += stats.getGames();
+            scoreSum += stats.getScores().getMean() * stats.getGames();
+            assertEquals(1.0, stats.getSurvival(49));
+            assertEquals(0.0, stats.getSurvival(1049));
+        }
+        assertEquals(games, counted);
+        assertEquals(totalScore, scoreSum, 1e-3);
+        assertEquals(reached256, report.getSizeStats(4).getFirstMoves(256).getCount());
+        assertEquals(2, report.getSavedScores().getCount());
+        assertEquals(1200, report.getSavedScores().getMin());
+        assertEquals(3400, report.getSavedScores().getMax());
+        assertEquals(1, report.getSkippedLines());
+    }
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        ValueHistogram histogram = new ValueHistogram();
+        for (int value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        for (double percentile : new double[]{1, 10, 50, 90, 99}) {
+            long exact = (long) (percentile * 1000);
+            long estimate = histogram.getPercentile(percentile);
+            assertTrue(estimate <= exact && estimate >= exact * 31 / 32, percentile + ": " + estimate);
+        }
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.Direction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetWriterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentGamesFillRotatedSegments() throws Exception {
+        int threads = 4;
+        int gamesPerThread = 50;
+        int movesPerGame = 7;
+        DatasetWriter writer = new DatasetWriter(directory, "test", 4, 1000);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                DatasetWriter.GameRecorder recorder = writer.newRecorder();
+                for (int game = 0; game < gamesPerThread; game++) {
+                    for (int move = 0; move < movesPerGame; move++) {
+                        long board = ((long) thread << 32) | ((long) game << 8) | move;
+                        recorder.record(board, Direction.values()[move % 4], move * 4);
+                    }
+                    recorder.finish(game % 2 == 0 ? DatasetWriter.WON : DatasetWriter.LOST);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        writer.close();
+
+        long records = (long) threads * gamesPerThread * movesPerGame;
+        assertEquals(records, writer.getRecordCount());
+        // 1000 bytes hold 62 records of 16 bytes
+        long expectedSegments = (records + 61) / 62;
+        Set<Long> boards = new HashSet<>();
+        long read = 0;
+        for (int segment = 0; segment < expectedSegments; segment++) {
+            byte[] bytes = Files.readAllBytes(writer.segmentPath(segment));
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            for (int offset = 0; offset < bytes.length; offset += 16) {
+                long board = buffer.getLong(offset);
+                int move = (int) (board & 0xFF);
+                int game = (int) ((board >>> 8) & 0xFF);
+                assertEquals(move % 4, bytes[offset + 8]);
+                assertEquals(game % 2 == 0 ? DatasetWriter.WON : DatasetWriter.LOST, bytes[offset + 9]);
+                assertEquals(move * 4, buffer.getInt(offset + 12));
+                assertTrue(boards.add(board), "Record written twice");
+                read++;
+            }
+        }
+        assertEquals(records, read);
+        assertFalse(Files.exists(writer.segmentPath((int) expectedSegments)));
+    }
+
+    @Test
+    void filesNeverGrowPastTheirRecords() throws Exception {
+        // Two and a half blocks of 1 MB: the last half block is written through the channel, not mapped
+        int records = (5 << 19) / 16;
+        DatasetWriter writer = new DatasetWriter(directory, "tail", 4, 4 << 20);
+        Thread[] workers = new Thread[2];
+        for (int t = 0; t < workers.length; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                DatasetWriter.GameRecorder recorder = writer.newRecorder();
+                for (int i = thread; i < records; i += workers.length) {
+                    recorder.record(i, Direction.LEFT, 0);
+                    if (i % 1000 < workers.length) {
+                        recorder.finish(DatasetWriter.LOST);
+                    }
+                }
+                recorder.finish(DatasetWriter.LOST);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Path segment = writer.segmentPath(0);
+        assertEquals(records * 16L, Files.size(segment), "The file should end with its last record before closing");
+        writer.close();
+        assertEquals(records * 16L, Files.size(segment));
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment)).order(ByteOrder.LITTLE_ENDIAN);
+        Set<Long> boards = new HashSet<>();
+        for (int offset = 0; offset < buffer.capacity(); offset += 16) {
+            assertTrue(boards.add(buffer.getLong(offset)), "Record written twice");
+        }
+        assertEquals(records, boards.size());
+        assertThrows(IllegalStateException.class, () -> {
+            DatasetWriter.GameRecorder recorder = writer.newRecorder();
+            recorder.record(0L, Direction.UP, 0);
+            recorder.finish(DatasetWriter.LOST);
+        }, "A closed dataset should not be reopened");
+    }
+
+    @Test
+    void largeBoardsStorePaddedExponents() throws Exception {
+        try (DatasetWriter writer = new DatasetWriter(directory, "five", 5, 1 << 20)) {
+            DatasetWriter.GameRecorder recorder = writer.newRecorder();
+            byte[] cells = new byte[25];
+            cells[24] = 11;
+            recorder.record(cells, Direction.UP, 8);
+            recorder.finish(DatasetWriter.UNFINISHED);
+        }
+        byte[] bytes = Files.readAllBytes(directory.resolve("five-00000.bin"));
+        assertEquals(DatasetWriter.recordBytes(5), bytes.length);
+        assertEquals(40, bytes.length);
+        assertEquals(11, bytes[24]);
+        assertEquals(Direction.UP.ordinal(), bytes[32]);
+        assertEquals(DatasetWriter.UNFINISHED, bytes[33]);
+        assertEquals(11, bytes[34], "Highest exponent of the game");
+    }
+}
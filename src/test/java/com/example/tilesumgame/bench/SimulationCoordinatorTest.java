@@ -0,0 +1,36 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.ai.MergeFirstStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationCoordinatorTest {
+    @Test
+    void reassignsRangesOfDeadWorkers() throws Exception {
+        // Every worker dies after 25 games, in the middle of its third range
+        List<String> command = SimulationCoordinator.workerCommand(64,
+                List.of("--strategy=merge-first", "--size=4", "--exitAfterGames=25"));
+        SimulationStats stats = new SimulationCoordinator(command, 60, 100, 10, 10).run(2);
+
+        Tournament tournament = new Tournament(0, 0, Duration.ZERO, 1_000_000);
+        SimulationStats expected = new SimulationStats();
+        for (long seed = 100; seed < 160; seed++) {
+            GameResult result = tournament.playGame(new MergeFirstStrategy(), 4, seed, null);
+            expected.add(result.score(), result.maxTile(), result.won(), result.moveNanos().length);
+        }
+        assertEquals(60, stats.getGames());
+        assertEquals(expected.getWins(), stats.getWins());
+        assertEquals(expected.getMeanScore(), stats.getMeanScore(), 1e-6);
+        assertEquals(expected.getMaxTiles(), stats.getMaxTiles());
+    }
+
+    @Test
+    void failsWhenWorkersKeepDying() {
+        List<String> command = SimulationCoordinator.workerCommand(64, List.of("--exitAfterGames=0"));
+        assertThrows(IllegalStateException.class, () -> new SimulationCoordinator(command, 10, 1, 5, 1).run(1));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.tilesumgame.bench;
+
+import com.example.tilesumgame.ai.RandomStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+    @Test
+    void randomGamesDoNotDependOnScheduling() throws Exception {
+        Tournament tournament = new Tournament(200, 7, Duration.ZERO, 1_000_000);
+        List<GameResult> first;
+        List<GameResult> second;
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            first = tournament.play("random", 4, executor);
+            second = tournament.play("random", 4, executor);
+        }
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).score(), second.get(i).score(), "Game " + i + " should replay identically");
+        }
+
+        // A game plays the same whatever the instance played before
+        RandomStrategy used = new RandomStrategy(new Random());
+        tournament.playGame(used, 4, 1, null);
+        GameResult reused = tournament.playGame(used, 4, 2, null);
+        GameResult fresh = tournament.playGame(new RandomStrategy(new Random()), 4, 2, null);
+        assertEquals(fresh.score(), reused.score());
+        assertEquals(fresh.moveNanos().length, reused.moveNanos().length, "Both games should take the same moves");
+    }
+}
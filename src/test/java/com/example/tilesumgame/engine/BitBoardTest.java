@@ -0,0 +1,94 @@
+package com.example.tilesumgame.engine;
+
+import com.example.tilesumgame.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    @Test
+    void packAndUnpack() {
+        int[][] grid = {
+                {2, 4, 0, 8},
+                {0, 16, 32, 0},
+                {64, 0, 128, 256},
+                {512, 1024, 2048, 0},
+        };
+        assertArrayEquals(grid, BitBoard.toGrid(BitBoard.fromGrid(grid)), "Grid should survive packing");
+    }
+
+    @Test
+    void transpose() {
+        int[][] grid = new int[4][4];
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                grid[row][col] = 2 << (4 * row + col) % 15;
+            }
+        }
+        int[][] transposed = BitBoard.toGrid(BitBoard.transpose(BitBoard.fromGrid(grid)));
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                assertEquals(grid[col][row], transposed[row][col], "Rows and columns should be swapped");
+            }
+        }
+    }
+
+    @Test
+    void moveLeft() {
+        long board = BitBoard.fromGrid(new int[][]{
+                {2, 2, 4, 4},
+                {0, 2, 0, 2},
+                {2, 2, 2, 0},
+                {8, 4, 2, 0},
+        });
+        long moved = BitBoard.move(board, Direction.LEFT);
+        assertArrayEquals(new int[][]{
+                {4, 8, 0, 0},
+                {4, 0, 0, 0},
+                {4, 2, 0, 0},
+                {8, 4, 2, 0},
+        }, BitBoard.toGrid(moved));
+        assertEquals(20, BitBoard.score(board, Direction.LEFT), "Score should be the sum of merged tiles");
+    }
+
+    @Test
+    void moveUpAndDown() {
+        long board = BitBoard.fromGrid(new int[][]{
+                {2, 0, 0, 0},
+                {2, 0, 0, 0},
+                {0, 0, 0, 0},
+                {4, 0, 0, 0},
+        });
+        assertArrayEquals(new int[][]{{4, 0, 0, 0}, {4, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}},
+                BitBoard.toGrid(BitBoard.move(board, Direction.UP)));
+        assertArrayEquals(new int[][]{{0, 0, 0, 0}, {0, 0, 0, 0}, {4, 0, 0, 0}, {4, 0, 0, 0}},
+                BitBoard.toGrid(BitBoard.move(board, Direction.DOWN)));
+    }
+
+    @Test
+    void canMove() {
+        long stuck = BitBoard.fromGrid(new int[][]{
+                {2, 4, 2, 4},
+                {4, 2, 4, 2},
+                {2, 4, 2, 4},
+                {4, 2, 4, 2},
+        });
+        assertFalse(BitBoard.canMove(stuck), "Checkerboard should not be able to move");
+        assertEquals(0, BitBoard.countEmpty(stuck));
+        assertTrue(BitBoard.canMove(BitBoard.withExponent(stuck, 0, 2)), "Equal neighbours should merge");
+    }
+
+    @Test
+    void spawnFillsEmptyCell() {
+        SplittableRandom random = new SplittableRandom(1);
+        long board = 0;
+        for (int i = 1; i <= BitBoard.CELLS; i++) {
+            board = BitBoard.spawn(board, random);
+            assertEquals(BitBoard.CELLS - i, BitBoard.countEmpty(board), "Every spawn should fill one cell");
+        }
+        assertEquals(board, BitBoard.spawn(board, random), "Full board should not change");
+    }
+}
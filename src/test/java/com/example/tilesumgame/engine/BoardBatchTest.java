@@ -0,0 +1,100 @@
+package com.example.tilesumgame.engine;
+
+import com.example.tilesumgame.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardBatchTest {
+
+    /**
+     * Creates a random board with a few empty cells.
+     *
+     * @param random the source of the tiles
+     * @param size   the number of rows and columns
+     * @return the tile values
+     */
+    private static int[][] randomGrid(SplittableRandom random, int size) {
+        int[][] grid = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row][col] = random.nextInt(4) == 0 ? 0 : 2 << random.nextInt(5);
+            }
+        }
+        return grid;
+    }
+
+    @Test
+    void moveAllMatchesSingleBoards() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int size : new int[]{3, 4, 5, 6}) {
+            BoardBatch batch = new BoardBatch(size, 1);
+            int[][][] grids = new int[200][][];
+            for (int i = 0; i < grids.length; i++) {
+                grids[i] = randomGrid(random, size);
+                assertEquals(i, batch.add(grids[i], i), "Boards should be appended");
+            }
+            for (Direction direction : Direction.values()) {
+                BoardBatch moved = new BoardBatch(size);
+                moved.copyFrom(batch);
+                int[] gained = new int[grids.length];
+                int movedCount = moved.moveAll(direction, gained);
+                int expectedCount = 0;
+                for (int i = 0; i < grids.length; i++) {
+                    byte[] cells = PackedGrid.fromGrid(grids[i]);
+                    int score = PackedGrid.move(cells, size, direction);
+                    expectedCount += score >= 0 ? 1 : 0;
+                    assertEquals(score, gained[i], "Score of board " + i + " moved " + direction);
+                    assertArrayEquals(PackedGrid.toGrid(cells, size), moved.getGrid(i),
+                            "Board " + i + " moved " + direction);
+                }
+                assertEquals(expectedCount, movedCount, "Moved boards on " + size + "x" + size);
+            }
+        }
+    }
+
+    @Test
+    void filterTerminalKeepsOrderAndTags() {
+        for (int size : new int[]{4, 5}) {
+            int[][] stuck = new int[size][size];
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    stuck[row][col] = (row + col) % 2 == 0 ? 2 : 4;
+                }
+            }
+            int[][] open = new int[size][size];
+            open[0][0] = 2;
+            BoardBatch batch = new BoardBatch(size);
+            for (int i = 0; i < 10; i++) {
+                batch.add(i % 3 == 0 ? stuck : open, i);
+            }
+            assertEquals(4, batch.filterTerminal(), "Stuck boards should be removed");
+            assertEquals(6, batch.count());
+            int[] expectedTags = {1, 2, 4, 5, 7, 8};
+            for (int i = 0; i < expectedTags.length; i++) {
+                assertEquals(expectedTags[i], batch.getTag(i), "Tags should follow their boards");
+                assertTrue(batch.canMove(i));
+                assertArrayEquals(open, batch.getGrid(i));
+            }
+        }
+    }
+
+    @Test
+    void evaluateAll() {
+        BoardBatch packed = new BoardBatch(4);
+        packed.add(BitBoard.fromGrid(new int[][]{{2, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 4}}), 0);
+        packed.add(0L, 1);
+        float[] values = new float[2];
+        packed.evaluateAll(board -> Long.bitCount(board), values);
+        assertArrayEquals(new float[]{2, 0}, values);
+        assertThrows(IllegalStateException.class, () -> packed.evaluateAll(BoardBatch::emptyCells, values));
+
+        BoardBatch flat = new BoardBatch(3);
+        flat.add(new int[][]{{2, 0, 0}, {0, 4, 0}, {0, 0, 8}}, 0);
+        flat.add(new int[3][3], 1);
+        flat.evaluateAll(BoardBatch::emptyCells, values);
+        assertArrayEquals(new float[]{6, 9}, values);
+    }
+}
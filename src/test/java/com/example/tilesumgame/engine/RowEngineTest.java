@@ -0,0 +1,36 @@
+package com.example.tilesumgame.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RowEngineTest {
+    @Test
+    void scalarSlide() {
+        int[] line = {2, 2, 2, 0, 4, 4, 8};
+        long outcome = RowEngines.scalar().slide(line, line.length);
+        assertArrayEquals(new int[]{4, 2, 8, 8, 0, 0, 0}, line, "Tiles should merge once, from the start of the line");
+        assertEquals(12, RowEngine.score(outcome));
+        assertEquals(2, RowEngine.merges(outcome));
+    }
+
+    @Test
+    void vectorMatchesScalar() {
+        RowEngine vector = RowEngines.vector();
+        assumeTrue(vector != null, "jdk.incubator.vector is not available");
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            int length = 1 + random.nextInt(80);
+            int[] expected = new int[length];
+            for (int j = 0; j < length; j++) {
+                expected[j] = random.nextInt(3) == 0 ? 0 : 2 << random.nextInt(3);
+            }
+            int[] actual = expected.clone();
+            assertEquals(RowEngines.scalar().slide(expected, length), vector.slide(actual, length));
+            assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.tilesumgame.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetryTest {
+    private final long board = BitBoard.fromGrid(new int[][]{
+            {2, 4, 8, 16},
+            {0, 0, 0, 32},
+            {0, 0, 0, 0},
+            {0, 0, 0, 64},
+    });
+
+    @Test
+    void mirrorAndFlip() {
+        int[][] grid = BitBoard.toGrid(board);
+        int[][] mirrored = BitBoard.toGrid(Symmetry.mirror(board));
+        int[][] flipped = BitBoard.toGrid(Symmetry.flip(board));
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                assertEquals(grid[row][3 - col], mirrored[row][col], "Mirror should reverse the columns");
+                assertEquals(grid[3 - row][col], flipped[row][col], "Flip should reverse the rows");
+            }
+        }
+    }
+
+    @Test
+    void symmetriesAreDistinct() {
+        Set<Long> images = new HashSet<>();
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            images.add(Symmetry.apply(board, symmetry));
+        }
+        assertEquals(Symmetry.COUNT, images.size(), "An asymmetric board should have 8 distinct images");
+    }
+
+    @Test
+    void canonicalIsSharedBySymmetricBoards() {
+        long canonical = Symmetry.canonical(board);
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            assertEquals(canonical, Symmetry.canonical(Symmetry.apply(board, symmetry)),
+                    "All symmetric images should have the same canonical form");
+        }
+    }
+}
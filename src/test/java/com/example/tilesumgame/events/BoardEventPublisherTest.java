@@ -0,0 +1,114 @@
+package com.example.tilesumgame.events;
+
+import com.example.tilesumgame.Board;
+import com.example.tilesumgame.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardEventPublisherTest {
+    /**
+     * Executor running tasks only when asked, standing in for a subscriber that falls behind.
+     */
+    private static class PausedExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    private static List<Integer> publishSpawns(Backpressure policy) {
+        PausedExecutor executor = new PausedExecutor();
+        BoardEventPublisher publisher = new BoardEventPublisher(executor);
+        List<Integer> received = new ArrayList<>();
+        BoardEventPublisher.BoardSubscription subscription = publisher.subscribe(
+                event -> received.add(((BoardEvent.Spawned) event).value()), policy, 2, executor);
+        for (int value = 1; value <= 5; value++) {
+            publisher.publish(new BoardEvent.Spawned(0, 0, value));
+        }
+        assertEquals(policy == Backpressure.BUFFER ? 0 : 3, subscription.getDropped());
+        executor.runAll();
+        return received;
+    }
+
+    @Test
+    void dropKeepsOldestEvents() {
+        assertEquals(List.of(1, 2), publishSpawns(Backpressure.DROP));
+    }
+
+    @Test
+    void latestKeepsNewestEvents() {
+        assertEquals(List.of(4, 5), publishSpawns(Backpressure.LATEST));
+    }
+
+    @Test
+    void bufferKeepsAllEvents() {
+        assertEquals(List.of(1, 2, 3, 4, 5), publishSpawns(Backpressure.BUFFER));
+    }
+
+    @Test
+    void boardPublishesMovesMergesAndSpawns() {
+        BoardEventPublisher publisher = new BoardEventPublisher(Runnable::run);
+        List<BoardEvent> events = new ArrayList<>();
+        publisher.subscribe(events::add, Backpressure.BUFFER, 16);
+        Board board = new Board(4, new Random(1));
+        board.setBoardState(new int[][]{{2, 2, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}});
+        board.setEventPublisher(publisher);
+        assertTrue(board.move(Direction.LEFT));
+        board.spawnTile();
+
+        assertInstanceOf(BoardEvent.GameStarted.class, events.get(0));
+        assertEquals(new BoardEvent.Moved(Direction.LEFT, 4, 4), events.get(1));
+        assertEquals(new BoardEvent.Merged(1, 4), events.get(2));
+        assertInstanceOf(BoardEvent.Spawned.class, events.get(3));
+    }
+
+    @Test
+    void closeCompletesAfterBufferedEvents() {
+        PausedExecutor executor = new PausedExecutor();
+        BoardEventPublisher publisher = new BoardEventPublisher(executor);
+        List<String> signals = new ArrayList<>();
+        publisher.subscribe(new Flow.Subscriber<BoardEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(BoardEvent event) {
+                signals.add("next");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add("error");
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+        }, Backpressure.BUFFER, 4);
+        publisher.publish(new BoardEvent.Won(2048));
+        publisher.close();
+        publisher.publish(new BoardEvent.Lost(0));
+        executor.runAll();
+        assertEquals(List.of("next", "complete"), signals);
+        assertFalse(publisher.hasSubscribers());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.tilesumgame.server;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private static final Pattern ID = Pattern.compile("\"id\": \"(\\d+)\"");
+
+    private static GameServer server;
+    private static HttpClient client;
+    private static String base;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = new GameServer(TimeUnit.MINUTES.toMillis(1), Duration.ofMillis(20));
+        base = "http://localhost:" + server.start(0);
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop();
+    }
+
+    private static HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String createGame(int size) throws IOException, InterruptedException {
+        HttpResponse<String> created = send("POST", "/games?size=" + size);
+        assertEquals(201, created.statusCode(), created.body());
+        Matcher matcher = ID.matcher(created.body());
+        assertTrue(matcher.find(), created.body());
+        return matcher.group(1);
+    }
+
+    @Test
+    void playsAGame() throws IOException, InterruptedException {
+        String id = createGame(4);
+        assertEquals(200, send("GET", "/games/" + id).statusCode());
+
+        HttpResponse<String> hint = send("GET", "/games/" + id + "/hint");
+        assertEquals(200, hint.statusCode());
+        assertTrue(hint.body().matches(".*\"direction\": \"(up|down|left|right)\".*"), hint.body());
+
+        HttpResponse<String> moved = send("POST", "/games/" + id + "/move?direction=left");
+        assertEquals(200, moved.statusCode());
+        assertTrue(moved.body().contains("\"moved\": "), moved.body());
+
+        assertEquals(200, send("DELETE", "/games/" + id).statusCode());
+        assertEquals(404, send("GET", "/games/" + id).statusCode());
+    }
+
+    @Test
+    void answersHintsForOtherSizes() throws IOException, InterruptedException {
+        String id = createGame(5);
+        HttpResponse<String> hint = send("GET", "/games/" + id + "/hint");
+        assertEquals(200, hint.statusCode(), hint.body());
+        assertTrue(hint.body().contains("\"direction\": "), hint.body());
+    }
+
+    @Test
+    void rejectsInvalidRequests() throws IOException, InterruptedException {
+        assertEquals(400, send("POST", "/games?size=2").statusCode());
+        assertEquals(400, send("POST", "/games?size=four").statusCode());
+        String id = createGame(4);
+        assertEquals(400, send("POST", "/games/" + id + "/move?direction=sideways").statusCode());
+        assertEquals(405, send("PUT", "/games/" + id).statusCode());
+        assertEquals(404, send("GET", "/games/123abc").statusCode());
+    }
+
+    @Test
+    void routesOnlyTheGamesPath() throws IOException, InterruptedException {
+        assertEquals(404, send("POST", "/gamesfoo").statusCode());
+        assertEquals(404, send("GET", "/gamesfoo/1").statusCode());
+        assertEquals(404, send("GET", "/").statusCode(), "Paths outside the context are not served");
+    }
+}
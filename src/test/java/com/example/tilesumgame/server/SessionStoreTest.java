@@ -0,0 +1,59 @@
+package com.example.tilesumgame.server;
+
+import com.example.tilesumgame.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+    @Test
+    void createsSessionsWithRandomIds() {
+        SessionStore store = new SessionStore(2);
+        Set<Long> ids = new HashSet<>();
+        long previous = -1;
+        int sequential = 0;
+        for (int i = 0; i < 100; i++) {
+            long id = store.create(_ -> new GameSession(4, 1, 0));
+            assertTrue(id >= 0, "Ids should be positive");
+            assertTrue(ids.add(id), "Duplicate id " + id);
+            if (id == previous + 1) {
+                sequential++;
+            }
+            previous = id;
+        }
+        assertEquals(100, store.size());
+        assertTrue(sequential < 2, "Ids should not be guessable from each other");
+    }
+
+    @Test
+    void runsOperationsOnStoredSessions() {
+        SessionStore store = new SessionStore(2);
+        long id = store.create(_ -> new GameSession(4, 7, 0));
+        assertEquals(4, store.withSession(id, GameSession::getSize));
+        assertNull(store.withSession(id + 1, GameSession::getSize), "Unknown ids have no session");
+
+        assertTrue(store.remove(id));
+        assertFalse(store.remove(id));
+        assertNull(store.withSession(id, GameSession::getSize));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void evictsOnlyIdleSessions() {
+        SessionStore store = new SessionStore(2);
+        long idle = store.create(_ -> new GameSession(4, 1, 100));
+        long active = store.create(_ -> new GameSession(4, 2, 100));
+        store.withSession(active, session -> {
+            session.touch(500);
+            return session.move(Direction.LEFT) || session.move(Direction.RIGHT);
+        });
+
+        assertEquals(1, store.evictIdle(300));
+        assertNull(store.withSession(idle, GameSession::getSize));
+        assertNotNull(store.withSession(active, GameSession::getSize));
+        assertEquals(1, store.size());
+    }
+}
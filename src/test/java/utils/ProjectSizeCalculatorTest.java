@@ -0,0 +1,58 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectSizeCalculatorTest {
+
+    @Test
+    void countsPerPackageAndRereadsOnlyChangedFiles(@TempDir Path directory) throws IOException {
+        Path main = Files.createDirectories(directory.resolve("src/main/java/a"));
+        Path other = Files.createDirectories(directory.resolve("src/main/java/b"));
+        Files.writeString(main.resolve("One.java"), """
+                package a;
+
+                // class NotCounted in a comment
+                public class One {
+                    private record Pair(int x, int y) {
+                    }
+                    String text = "enum NotCounted";
+                    Class<?> type = One.class;
+                }
+                """);
+        Files.writeString(main.resolve("Two.java"), "package a;\ninterface Two {\n}");
+        Files.writeString(other.resolve("Three.java"), "package b;\nenum Three { A, B }\n");
+        Files.createDirectories(directory.resolve("src/test/java/a"));
+        Files.writeString(directory.resolve("src/test/java/a/OneTest.java"), "package a;\nclass OneTest {\n}\n");
+        Path cache = directory.resolve(ProjectSizeCalculator.CACHE_FILE);
+
+        ProjectSizeCalculator.Report first = ProjectSizeCalculator.scan(directory, cache);
+        assertEquals(3, first.scanned(), "Every file should be read without a cache");
+        assertEquals(3, first.total().files(), "Test directories should be skipped");
+        ProjectSizeCalculator.PackageStats a = first.packages().get("a");
+        assertEquals(2, a.files());
+        assertEquals(3, a.classes(), "Comments, strings and class literals should not count as classes");
+        assertEquals(9 + 3, a.lines(), "A last line without a line break should count");
+        assertEquals(Files.size(main.resolve("One.java")) + Files.size(main.resolve("Two.java")), a.bytes());
+        assertEquals(1, first.packages().get("b").classes());
+
+        ProjectSizeCalculator.Report second = ProjectSizeCalculator.scan(directory, cache);
+        assertEquals(0, second.scanned(), "Unchanged files should come from the cache");
+        assertEquals(first.packages(), second.packages());
+
+        Files.writeString(other.resolve("Three.java"), "package b;\nenum Three { A, B }\nrecord Four() {\n}\n");
+        Files.setLastModifiedTime(other.resolve("Three.java"), FileTime.fromMillis(1_000_000));
+        Files.delete(main.resolve("Two.java"));
+        ProjectSizeCalculator.Report third = ProjectSizeCalculator.scan(directory, cache);
+        assertEquals(1, third.scanned(), "Only the changed file should be read");
+        assertEquals(2, third.packages().get("b").classes());
+        assertEquals(1, third.packages().get("a").files(), "Deleted files should drop out");
+    }
+}